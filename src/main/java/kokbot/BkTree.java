@@ -0,0 +1,129 @@
+package kokbot;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents a BK-tree of terms under the Levenshtein distance.
+ * The children of each node are kept by their distance from it, so a search within a distance of k only
+ * descends into children whose distance is within k of the query's distance from the node.
+ */
+public class BkTree {
+
+    private static class Node {
+        private final String term;
+
+        /**
+         * Children by their distance from the term, grown as needed
+         */
+        private Node[] children = new Node[0];
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds a term to the tree
+     *
+     * @param term Term to be added
+     * @return Whether the term was added, as it was not in the tree already
+     */
+    public boolean add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = getDistance(term, node.term);
+            if (distance == 0) {
+                return false;
+            }
+            if (distance >= node.children.length) {
+                node.children = Arrays.copyOf(node.children, distance + 1);
+            }
+            if (node.children[distance] == null) {
+                node.children[distance] = new Node(term);
+                size++;
+                return true;
+            }
+            node = node.children[distance];
+        }
+    }
+
+    /**
+     * Finds every term within a distance of the query
+     *
+     * @param query       Term to be searched for
+     * @param maxDistance Largest distance of a term found
+     * @param consumer    Receives each term found with its distance from the query
+     */
+    public void search(String query, int maxDistance, ObjIntConsumer<String> consumer) {
+        if (root == null) {
+            return;
+        }
+        ArrayDeque<Node> pending = new ArrayDeque<Node>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = getDistance(query, node.term);
+            if (distance <= maxDistance) {
+                consumer.accept(node.term, distance);
+            }
+            int last = Math.min(distance + maxDistance, node.children.length - 1);
+            for (int i = Math.max(distance - maxDistance, 1); i <= last; i++) {
+                if (node.children[i] != null) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of terms in the tree
+     *
+     * @return Number of terms
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two terms, the fewest insertions, deletions and substitutions
+     * of a character turning one into the other
+     *
+     * @param first  First term
+     * @param second Second term
+     * @return Distance between the terms
+     */
+    public static int getDistance(String first, String second) {
+        if (first.length() < second.length()) {
+            String swap = first;
+            first = second;
+            second = swap;
+        }
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            char c = first.charAt(i - 1);
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (c == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+}
@@ -0,0 +1,172 @@
+package kokbot;
+
+import kokbot.task.Recurring;
+import kokbot.task.Task;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Represents an index of dated tasks by the days they fall on. A task spanning several days is kept in the
+ * bucket of each of them, so an agenda only reads the buckets of the days it shows.
+ * Recurring tasks are kept apart and only their occurrences within the window of an agenda are expanded,
+ * so adding or marking a long series costs the same as any other task.
+ */
+public class CalendarIndex {
+
+    /**
+     * Largest number of days a task is bucketed under. Longer tasks are kept apart and checked by every agenda,
+     * so that a task spanning years does not fill thousands of buckets.
+     */
+    public static final int MAX_BUCKETED_DAYS = 366;
+
+    /**
+     * Entries on each day, by the id of their task
+     */
+    private final TreeMap<LocalDate, TreeMap<Long, Task>> byDay = new TreeMap<LocalDate, TreeMap<Long, Task>>();
+
+    /**
+     * Entries spanning more days than are bucketed, by the id of their task
+     */
+    private final Map<Long, Task> longEntries = new HashMap<Long, Task>();
+
+    /**
+     * Recurring tasks by id, whose occurrences are never bucketed
+     */
+    private final TreeMap<Integer, Task> series = new TreeMap<Integer, Task>();
+
+    private static final Comparator<Task> BY_TIME = Comparator.comparing(Task::getDateTime)
+            .thenComparing(Task::getId);
+
+    /**
+     * Adds a task to the buckets of the days it falls on, doing nothing for a task without a date
+     *
+     * @param task Task with an id assigned
+     */
+    public void add(Task task) {
+        if (task instanceof Recurring) {
+            series.put(task.getId(), task);
+            return;
+        }
+        if (task.getDateTime().equals(LocalDateTime.MAX)) {
+            return;
+        }
+        long key = task.getId();
+        LocalDate first = task.getDateTime().toLocalDate();
+        long days = getSpanDays(task);
+        if (days > MAX_BUCKETED_DAYS) {
+            longEntries.put(key, task);
+            return;
+        }
+        for (long day = 0; day < days; day++) {
+            byDay.computeIfAbsent(first.plusDays(day), date -> new TreeMap<Long, Task>()).put(key, task);
+        }
+    }
+
+    /**
+     * Removes a task from the buckets of the days it falls on
+     *
+     * @param task Task to be removed
+     */
+    public void remove(Task task) {
+        if (task instanceof Recurring) {
+            series.remove(task.getId());
+            return;
+        }
+        if (task.getDateTime().equals(LocalDateTime.MAX)) {
+            return;
+        }
+        long key = task.getId();
+        long days = getSpanDays(task);
+        if (days > MAX_BUCKETED_DAYS) {
+            longEntries.remove(key);
+            return;
+        }
+        LocalDate first = task.getDateTime().toLocalDate();
+        for (long day = 0; day < days; day++) {
+            TreeMap<Long, Task> bucket = byDay.get(first.plusDays(day));
+            if (bucket != null) {
+                bucket.remove(key);
+                if (bucket.isEmpty()) {
+                    byDay.remove(first.plusDays(day));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks falling on each day of a window which has any, in time order within each day
+     *
+     * @param from First day of the window
+     * @param to   Last day of the window
+     * @return Tasks by day, in day order
+     */
+    public NavigableMap<LocalDate, List<Task>> getDays(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<Task>> days = new TreeMap<LocalDate, List<Task>>();
+        for (Map.Entry<LocalDate, TreeMap<Long, Task>> bucket : byDay.subMap(from, true, to, true).entrySet()) {
+            days.put(bucket.getKey(), new ArrayList<Task>(bucket.getValue().values()));
+        }
+        for (Task entry : longEntries.values()) {
+            addToDays(days, entry, from, to);
+        }
+        for (Task task : series.values()) {
+            // an occurrence starting before the window may run into it, by up to the length of the series' first
+            Duration length = Duration.between(task.getDateTime(), task.getEndDateTime());
+            LocalDateTime windowStart = from.atStartOfDay().minus(length.isNegative() ? Duration.ZERO : length);
+            for (Task occurrence : ((Recurring) task).getOccurrencesBetween(windowStart, to.atTime(LocalTime.MAX))) {
+                addToDays(days, occurrence, from, to);
+            }
+        }
+        for (List<Task> tasks : days.values()) {
+            tasks.sort(BY_TIME);
+        }
+        return days;
+    }
+
+    /**
+     * Returns the number of days which have tasks bucketed under them
+     *
+     * @return Number of days with tasks
+     */
+    public int getDayCount() {
+        return byDay.size();
+    }
+
+    /**
+     * Adds an entry to each day of the window it falls on
+     */
+    private static void addToDays(NavigableMap<LocalDate, List<Task>> days, Task entry, LocalDate from,
+            LocalDate to) {
+        LocalDate first = max(entry.getDateTime().toLocalDate(), from);
+        LocalDate last = min(max(entry.getEndDateTime().toLocalDate(), entry.getDateTime().toLocalDate()), to);
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            days.computeIfAbsent(day, date -> new ArrayList<Task>()).add(entry);
+        }
+    }
+
+    /**
+     * Returns the number of days an entry falls on, counting its first day even if it ends before it starts
+     */
+    private static long getSpanDays(Task entry) {
+        long days = ChronoUnit.DAYS.between(entry.getDateTime().toLocalDate(), entry.getEndDateTime().toLocalDate());
+        return Math.max(days, 0) + 1;
+    }
+
+    private static LocalDate max(LocalDate first, LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDate min(LocalDate first, LocalDate second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,153 @@
+package kokbot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the retained chat history shown in the GUI.
+ * Messages beyond the retained limit are spilled to a transcript file, written on a background thread so that
+ * adding messages never waits on the file.
+ */
+public class ChatHistory {
+
+    /**
+     * Default number of messages kept on screen
+     */
+    public static final int DEFAULT_LIMIT = 500;
+
+    /**
+     * Number of extra messages allowed before spilling, so that spills happen in batches
+     */
+    private static final int SPILL_BATCH = 50;
+
+    /**
+     * Longest time closing waits for the spills still being written, in seconds
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Messages currently retained
+     */
+    private final List<ChatMessage> messages;
+
+    /**
+     * Maximum number of messages retained
+     */
+    private final int limit;
+
+    /**
+     * Path of the transcript file which older messages are spilled to
+     */
+    private final Path transcriptPath;
+
+    /**
+     * Thread which appends spilled messages to the transcript, in the order they were spilled
+     */
+    private final ExecutorService spillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kokbot-transcript");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor for ChatHistory
+     *
+     * @param messages       List backing the retained messages
+     * @param limit          Maximum number of messages retained
+     * @param transcriptPath Path of the transcript file
+     */
+    public ChatHistory(List<ChatMessage> messages, int limit, Path transcriptPath) {
+        assert limit > 0 : "History limit should be positive";
+        this.messages = messages;
+        this.limit = limit;
+        this.transcriptPath = transcriptPath;
+    }
+
+    /**
+     * Returns the history limit configured through the "kokbot.history.limit" system property
+     *
+     * @return Configured history limit
+     */
+    public static int getConfiguredLimit() {
+        try {
+            int limit = Integer.parseInt(System.getProperty("kokbot.history.limit", ""));
+            return limit > 0 ? limit : DEFAULT_LIMIT;
+        } catch (NumberFormatException e) {
+            return DEFAULT_LIMIT;
+        }
+    }
+
+    /**
+     * Adds messages to the history, spilling the oldest ones if the limit is exceeded
+     *
+     * @param newMessages Messages to be added
+     */
+    public void addAll(ChatMessage... newMessages) {
+        messages.addAll(List.of(newMessages));
+        if (messages.size() >= limit + SPILL_BATCH) {
+            spill(messages.size() - limit);
+        }
+    }
+
+    /**
+     * Returns the number of messages retained
+     *
+     * @return Number of messages retained
+     */
+    public int getSize() {
+        return messages.size();
+    }
+
+    /**
+     * Stops spilling, waiting for the messages already spilled to be written to the transcript.
+     * Messages spilled after closing are dropped.
+     */
+    public void close() {
+        spillExecutor.shutdown();
+        try {
+            if (!spillExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("Error writing transcript: timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes the oldest messages from the history and appends them to the transcript file in the background
+     *
+     * @param count Number of messages to spill
+     */
+    private void spill(int count) {
+        List<ChatMessage> oldest = messages.subList(0, count);
+        List<ChatMessage> toWrite = new ArrayList<>(oldest);
+        oldest.clear();
+        if (!spillExecutor.isShutdown()) {
+            spillExecutor.execute(() -> write(toWrite));
+        }
+    }
+
+    private void write(List<ChatMessage> toWrite) {
+        try {
+            Files.createDirectories(transcriptPath.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(transcriptPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ChatMessage message : toWrite) {
+                    writer.write(message.toString());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing transcript: " + e.getMessage());
+        }
+    }
+}
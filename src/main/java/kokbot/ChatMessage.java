@@ -0,0 +1,46 @@
+package kokbot;
+
+/**
+ * Represents a single message shown in the chat history
+ */
+public class ChatMessage {
+
+    /**
+     * Text of the message
+     */
+    private final String text;
+
+    /**
+     * Whether the message was sent by the user
+     */
+    private final boolean isFromUser;
+
+    /**
+     * Constructor for ChatMessage
+     *
+     * @param text       Text of the message
+     * @param isFromUser Whether the message was sent by the user
+     */
+    public ChatMessage(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public boolean isFromUser() {
+        return this.isFromUser;
+    }
+
+    /**
+     * Represents the ChatMessage in String format for the transcript file
+     *
+     * @return String format of the ChatMessage
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %s", this.isFromUser ? "You" : "Kokbot", this.text);
+    }
+}
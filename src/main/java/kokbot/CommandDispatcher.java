@@ -0,0 +1,89 @@
+package kokbot;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Represents a dispatcher which runs commands on a single background thread.
+ * As there is only one writer thread, commands run and complete in the order they were submitted.
+ */
+public class CommandDispatcher {
+
+    /**
+     * Kokbot which carries out the commands
+     */
+    private final Kokbot kokbot;
+
+    /**
+     * Single thread executor which all commands are run on
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for CommandDispatcher
+     *
+     * @param kokbot Kokbot which carries out the commands
+     */
+    public CommandDispatcher(Kokbot kokbot) {
+        this.kokbot = kokbot;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kokbot-commands");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the loading of tasks, after which replication starts if configured.
+     * Commands submitted afterwards are queued until loading finishes.
+     *
+     * @param progress Receives the fraction of the file loaded so far
+     * @return Future completed with any warning about the file once the tasks are loaded
+     */
+    public CompletableFuture<String> loadTasks(DoubleConsumer progress) {
+        return CompletableFuture.supplyAsync(() -> {
+            String warning = kokbot.loadTasks(progress);
+            kokbot.startReplication(executor);
+            return warning;
+        }, executor);
+    }
+
+    /**
+     * Submits the input to be carried out by Kokbot
+     *
+     * @param input Input from the user
+     * @return Future completed with the response from the bot
+     */
+    public CompletableFuture<String> submit(String input) {
+        return CompletableFuture.supplyAsync(() -> kokbot.getResponse(input), executor);
+    }
+
+    /**
+     * Submits the changes made to the data file by other programs to be applied by Kokbot
+     *
+     * @return Future completed with the summary of the changes applied, or an empty string if there were none
+     */
+    public CompletableFuture<String> applyExternalChanges() {
+        return CompletableFuture.supplyAsync(kokbot::applyExternalChanges, executor);
+    }
+
+    /**
+     * Submits the publishing of every task as a reset batch to subscribers of task changes
+     *
+     * @return Future completed once the reset batch is published
+     */
+    public CompletableFuture<Void> publishReset() {
+        return CompletableFuture.runAsync(kokbot::publishReset, executor);
+    }
+
+    /**
+     * Stops accepting new commands, letting already submitted commands finish
+     */
+    public void shutdown() {
+        executor.execute(kokbot::stopReplication);
+        executor.execute(kokbot::stopRecording);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,92 @@
+package kokbot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the completion of partly typed input: command keywords, options such as /by,
+ * and the descriptions of existing tasks for commands which take a description.
+ */
+public class Completer {
+
+    /**
+     * Number of suggestions offered when none is given
+     */
+    public static final int DEFAULT_LIMIT = 8;
+
+    private static final String[] OPTIONS = {"/by", "/from", "/to", "/every"};
+
+    private final PrefixTrie commands = new PrefixTrie();
+    private final PrefixTrie options = new PrefixTrie();
+
+    /**
+     * Descriptions of the current tasks, replaced when the list of tasks is replaced
+     */
+    private volatile PrefixTrie descriptions = new PrefixTrie();
+
+    /**
+     * Constructor for Completer
+     */
+    public Completer() {
+        for (Kokbot.CommandType type : Kokbot.CommandType.values()) {
+            commands.add(type.name().toLowerCase());
+        }
+        for (String option : OPTIONS) {
+            options.add(option);
+        }
+    }
+
+    /**
+     * Sets the descriptions which are completed, kept up to date by the list of tasks
+     *
+     * @param newDescriptions Descriptions of the current tasks
+     */
+    public void setDescriptions(PrefixTrie newDescriptions) {
+        this.descriptions = newDescriptions;
+    }
+
+    /**
+     * Returns the whole inputs which the partly typed input may be completed to
+     *
+     * @param input Input typed so far
+     * @param limit Largest number of suggestions
+     * @return Suggested inputs, or an empty list if there are none
+     */
+    public List<String> complete(String input, int limit) {
+        List<String> suggestions = new ArrayList<String>();
+        int firstSpace = input.indexOf(' ');
+        if (input.isEmpty()) {
+            return suggestions;
+        }
+        if (firstSpace < 0) {
+            for (String command : commands.complete(input, limit)) {
+                suggestions.add(command + " ");
+            }
+            return suggestions;
+        }
+        int lastSpace = input.lastIndexOf(' ');
+        String lastWord = input.substring(lastSpace + 1);
+        if (lastWord.startsWith("/")) {
+            for (String option : options.complete(lastWord, limit)) {
+                suggestions.add(input.substring(0, lastSpace + 1) + option + " ");
+            }
+            return suggestions;
+        }
+        String command = input.substring(0, firstSpace);
+        String description = input.substring(firstSpace + 1);
+        if (!takesDescription(command) || description.isEmpty() || description.contains(" /")) {
+            return suggestions;
+        }
+        for (String completion : descriptions.complete(description, limit + 1)) {
+            if (!completion.equals(description) && suggestions.size() < limit) {
+                suggestions.add(command + " " + completion);
+            }
+        }
+        return suggestions;
+    }
+
+    private static boolean takesDescription(String command) {
+        return command.equals("todo") || command.equals("deadline") || command.equals("event")
+                || command.equals("find");
+    }
+}
@@ -0,0 +1,403 @@
+package kokbot;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a compressed set of non-negative ints such as task ids, split into chunks of 65536 values.
+ * A chunk holding few values keeps them as a sorted array of their low 16 bits, and a chunk holding many keeps
+ * a bitmap of 65536 bits, so both sparse and dense sets take little memory and intersect quickly.
+ */
+public class CompressedBitmap {
+
+    /**
+     * Largest number of values a chunk keeps as an array, beyond which a bitmap is smaller
+     */
+    private static final int ARRAY_LIMIT = 4096;
+
+    private static final int BITMAP_WORDS = 65536 / 64;
+
+    /**
+     * Represents the values of one chunk, as their low 16 bits
+     */
+    private abstract static class Chunk {
+        protected int cardinality;
+
+        abstract Chunk add(char value);
+
+        abstract Chunk remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract Chunk and(Chunk other);
+
+        abstract Chunk or(Chunk other);
+
+        abstract void forEach(int high, IntConsumer action);
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        private char[] values;
+
+        private ArrayChunk(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Chunk add(char value) {
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            position = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality)];
+            int count = 0;
+            if (other instanceof BitmapChunk) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+                return new ArrayChunk(result, count);
+            }
+            char[] otherValues = ((ArrayChunk) other).values;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                if (values[i] < otherValues[j]) {
+                    i++;
+                } else if (values[i] > otherValues[j]) {
+                    j++;
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayChunk(result, count);
+        }
+
+        @Override
+        Chunk or(Chunk other) {
+            if (other instanceof BitmapChunk) {
+                return other.or(this);
+            }
+            ArrayChunk otherArray = (ArrayChunk) other;
+            char[] result = new char[cardinality + otherArray.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < otherArray.cardinality) {
+                if (j == otherArray.cardinality || (i < cardinality && values[i] < otherArray.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > otherArray.values[j]) {
+                    result[count++] = otherArray.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+            ArrayChunk union = new ArrayChunk(result, count);
+            return count > ARRAY_LIMIT ? union.toBitmap() : union;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        private BitmapChunk toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapChunk(words, cardinality);
+        }
+    }
+
+    private static final class BitmapChunk extends Chunk {
+        private final long[] words;
+
+        private BitmapChunk(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Chunk add(char value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+            if ((word & bit) == 0) {
+                words[value >>> 6] = word | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+            if ((word & bit) == 0) {
+                return this;
+            }
+            words[value >>> 6] = word & ~bit;
+            cardinality--;
+            // converting at half the limit keeps a chunk from flipping back and forth around it
+            return cardinality < ARRAY_LIMIT / 2 ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapChunk) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapChunk intersection = new BitmapChunk(result, count);
+            return count <= ARRAY_LIMIT ? intersection.toArray() : intersection;
+        }
+
+        @Override
+        Chunk or(Chunk other) {
+            long[] result = words.clone();
+            int count = cardinality;
+            if (other instanceof ArrayChunk) {
+                ArrayChunk otherArray = (ArrayChunk) other;
+                for (int i = 0; i < otherArray.cardinality; i++) {
+                    char value = otherArray.values[i];
+                    long bit = 1L << value;
+                    if ((result[value >>> 6] & bit) == 0) {
+                        result[value >>> 6] |= bit;
+                        count++;
+                    }
+                }
+                return new BitmapChunk(result, count);
+            }
+            long[] otherWords = ((BitmapChunk) other).words;
+            count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] |= otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapChunk(result, count);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        private ArrayChunk toArray() {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayChunk(values, count);
+        }
+    }
+
+    /**
+     * Chunk holding no values, which a chunk is joined with to copy it
+     */
+    private static final ArrayChunk EMPTY_CHUNK = new ArrayChunk(new char[0], 0);
+
+    /**
+     * High 16 bits of the values of each chunk, in ascending order
+     */
+    private int[] keys = new int[0];
+    private Chunk[] chunks = new Chunk[0];
+    private int chunkCount;
+
+    /**
+     * Adds a value to the set
+     *
+     * @param value Non-negative value to be added
+     */
+    public void add(int value) {
+        assert value >= 0 : "Value should not be negative";
+        int key = value >>> 16;
+        int position = findChunk(key);
+        if (position < 0) {
+            position = -position - 1;
+            insertChunk(position, key, new ArrayChunk(new char[4], 0));
+        }
+        chunks[position] = chunks[position].add((char) value);
+    }
+
+    /**
+     * Removes a value from the set, if it is in it
+     *
+     * @param value Value to be removed
+     */
+    public void remove(int value) {
+        int position = findChunk(value >>> 16);
+        if (position < 0) {
+            return;
+        }
+        Chunk chunk = chunks[position].remove((char) value);
+        if (chunk.cardinality == 0) {
+            System.arraycopy(keys, position + 1, keys, position, chunkCount - position - 1);
+            System.arraycopy(chunks, position + 1, chunks, position, chunkCount - position - 1);
+            chunks[--chunkCount] = null;
+        } else {
+            chunks[position] = chunk;
+        }
+    }
+
+    /**
+     * Returns whether a value is in the set
+     *
+     * @param value Value to be checked
+     * @return Whether the value is in the set
+     */
+    public boolean contains(int value) {
+        int position = findChunk(value >>> 16);
+        return position >= 0 && chunks[position].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values in the set
+     *
+     * @return Number of values
+     */
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            cardinality += chunks[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Passes each value of the set to the action in ascending order
+     *
+     * @param action Action taking each value
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Returns the values in both sets, leaving both unchanged
+     *
+     * @param first  First set
+     * @param second Second set
+     * @return Intersection of the sets
+     */
+    public static CompressedBitmap and(CompressedBitmap first, CompressedBitmap second) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < first.chunkCount && j < second.chunkCount) {
+            if (first.keys[i] < second.keys[j]) {
+                i++;
+            } else if (first.keys[i] > second.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = first.chunks[i].and(second.chunks[j]);
+                if (chunk.cardinality > 0) {
+                    result.insertChunk(result.chunkCount, first.keys[i], chunk);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values in either set, leaving both unchanged
+     *
+     * @param first  First set
+     * @param second Second set
+     * @return Union of the sets
+     */
+    public static CompressedBitmap or(CompressedBitmap first, CompressedBitmap second) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < first.chunkCount || j < second.chunkCount) {
+            if (j == second.chunkCount || (i < first.chunkCount && first.keys[i] < second.keys[j])) {
+                result.insertChunk(result.chunkCount, first.keys[i], first.chunks[i].or(EMPTY_CHUNK));
+                i++;
+            } else if (i == first.chunkCount || first.keys[i] > second.keys[j]) {
+                result.insertChunk(result.chunkCount, second.keys[j], second.chunks[j].or(EMPTY_CHUNK));
+                j++;
+            } else {
+                result.insertChunk(result.chunkCount, first.keys[i], first.chunks[i].or(second.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private int findChunk(int key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int position, int key, Chunk chunk) {
+        if (chunkCount == keys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, chunkCount - position);
+        System.arraycopy(chunks, position, chunks, position + 1, chunkCount - position);
+        keys[position] = key;
+        chunks[position] = chunk;
+        chunkCount++;
+    }
+}
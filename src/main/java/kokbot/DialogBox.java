@@ -1,90 +1,84 @@
 package kokbot;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 
 /**
- * Represents the DialogBox used in the GUI
+ * Represents the DialogBox used in the GUI.
+ * A DialogBox is built without FXML so that it can be cheaply reused by list cells.
  */
 public class DialogBox extends HBox {
 
     /**
      * Represents the text to be shown in the dialog
      */
-    @FXML
-    private Label dialog;
+    private final Label dialog;
 
     /**
      * Represents the picture to be shown in the dialog
      */
-    @FXML
-    private ImageView displayPicture;
+    private final ImageView displayPicture;
 
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Constructor for DialogBox
+     */
+    public DialogBox() {
+        dialog = new Label();
+        dialog.setWrapText(true);
+        dialog.setMaxWidth(250.0);
+        dialog.setEllipsisString("");
+        dialog.setTranslateY(5.0);
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+        displayPicture = new ImageView();
+        displayPicture.setFitHeight(99.0);
+        displayPicture.setFitWidth(99.0);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        setMinHeight(127.0);
+        setPrefWidth(400.0);
+        setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Shows the given message in the dialog box
+     *
+     * @param message Message to be shown
+     * @param img     Image to be shown
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-
-        for (Node child : getChildren()) {
-            double currentTranslateX = child.getTranslateX();
-            child.setTranslateX(-currentTranslateX);
+    public void setMessage(ChatMessage message, Image img) {
+        dialog.setText(message.getText());
+        displayPicture.setImage(img);
+        if (message.isFromUser()) {
+            showOnRight();
+        } else {
+            showOnLeft();
         }
-
-        setAlignment(Pos.TOP_LEFT);
-        this.setStyle("-fx-background-color: #D3D3D3;");
     }
 
     /**
-     * Gets the dialog box for the user
-     *
-     * @param text Text to be shown
-     * @param img  Image to be shown
-     * @return DialogBox for the user
+     * Lays out the dialog box with the text on the left and ImageView on the right.
      */
-    public static DialogBox getUserDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.setStyle("-fx-background-color: #ADD8E6;");
-        return db;
+    private void showOnRight() {
+        getChildren().setAll(dialog, displayPicture);
+        dialog.setTranslateX(-15.0);
+        displayPicture.setTranslateX(-5.0);
+        setAlignment(Pos.TOP_RIGHT);
+        setStyle("-fx-background-color: #ADD8E6;");
     }
 
     /**
-     * Gets the dialog box for the bot
-     *
-     * @param text Text to be shown
-     * @param img  Image to be shown
-     * @return DialogBox for the bot
+     * Lays out the dialog box such that the ImageView is on the left and text on the right.
      */
-    public static DialogBox getKokbotDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        return db;
+    private void showOnLeft() {
+        getChildren().setAll(displayPicture, dialog);
+        dialog.setTranslateX(15.0);
+        displayPicture.setTranslateX(5.0);
+        setAlignment(Pos.TOP_LEFT);
+        setStyle("-fx-background-color: #D3D3D3;");
     }
-}
\ No newline at end of file
+}
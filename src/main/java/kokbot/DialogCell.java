@@ -0,0 +1,47 @@
+package kokbot;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * Represents a recycled list cell which renders a ChatMessage through a single reused DialogBox
+ */
+public class DialogCell extends ListCell<ChatMessage> {
+
+    /**
+     * DialogBox reused for every message shown in this cell
+     */
+    private final DialogBox dialogBox = new DialogBox();
+
+    /**
+     * Images for user and Kokbot
+     */
+    private final Image userImage;
+    private final Image kokbotImage;
+
+    /**
+     * Constructor for DialogCell
+     *
+     * @param userImage   Image shown beside user messages
+     * @param kokbotImage Image shown beside Kokbot messages
+     */
+    public DialogCell(Image userImage, Image kokbotImage) {
+        this.userImage = userImage;
+        this.kokbotImage = kokbotImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // lets the cell shrink to the list width instead of forcing a horizontal scrollbar
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        dialogBox.setMessage(message, message.isFromUser() ? userImage : kokbotImage);
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,35 @@
+package kokbot;
+
+/**
+ * Represents what is done when a task being added is an exact duplicate of one in the list
+ */
+public enum DuplicatePolicy {
+    /**
+     * Adds the duplicate, warning that it already is in the list
+     */
+    WARN,
+
+    /**
+     * Leaves the list unchanged and reports the task already in it
+     */
+    REJECT,
+
+    /**
+     * Merges the tags, priority and done flag of the duplicate into the task already in the list
+     */
+    MERGE;
+
+    /**
+     * Returns the policy configured through the "kokbot.duplicates" system property, which is "warn",
+     * "reject" or "merge"
+     *
+     * @return Configured policy, or WARN if none or an unknown one is configured
+     */
+    public static DuplicatePolicy getConfigured() {
+        try {
+            return valueOf(System.getProperty("kokbot.duplicates", "warn").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return WARN;
+        }
+    }
+}
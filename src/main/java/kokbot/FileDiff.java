@@ -0,0 +1,132 @@
+package kokbot;
+
+import kokbot.task.Task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Represents the differences between the tasks in memory and the records of the data file.
+ * The two are aligned on the records found in both: the new records following such a record in the file take the
+ * place of the stale tasks following its task in memory, in order, as edits such as a task marked in another
+ * program. Stale tasks left over were removed, and new records left over are inserted after those edits.
+ */
+public class FileDiff {
+
+    /**
+     * Indexes of tasks in memory whose records are no longer in the file, in ascending order
+     */
+    private final List<Integer> staleIndexes;
+
+    /**
+     * Tasks of records in the file which are not in memory, in file order
+     */
+    private final List<Task> newTasks;
+
+    private final Map<Integer, Task> editedTasks = new TreeMap<Integer, Task>();
+    private final List<Integer> removedIndexes = new ArrayList<Integer>();
+    private final NavigableMap<Integer, List<Task>> insertedTasks = new TreeMap<Integer, List<Task>>();
+
+    /**
+     * Constructor for FileDiff
+     *
+     * @param staleIndexes Indexes of tasks in memory whose records are no longer in the file, in ascending order
+     * @param newTasks     Tasks of records in the file which are not in memory, in file order
+     * @param newAnchors   Index in memory following the task of the closest record before each new record which is
+     *                     in both, or 0 if there is none
+     */
+    public FileDiff(List<Integer> staleIndexes, List<Task> newTasks, List<Integer> newAnchors) {
+        this.staleIndexes = Collections.unmodifiableList(staleIndexes);
+        this.newTasks = Collections.unmodifiableList(newTasks);
+
+        // stale tasks in a row follow the same task in memory, so they are grouped by the first of them
+        Map<Integer, ArrayDeque<Integer>> staleRuns = new HashMap<Integer, ArrayDeque<Integer>>();
+        Map<Integer, Integer> runEnds = new HashMap<Integer, Integer>();
+        ArrayDeque<Integer> run = null;
+        int runStart = 0;
+        for (int i = 0; i < staleIndexes.size(); i++) {
+            int staleIndex = staleIndexes.get(i);
+            if (i == 0 || staleIndexes.get(i - 1) != staleIndex - 1) {
+                run = new ArrayDeque<Integer>();
+                runStart = staleIndex;
+                staleRuns.put(runStart, run);
+            }
+            run.add(staleIndex);
+            runEnds.put(runStart, staleIndex + 1);
+        }
+        for (int i = 0; i < newTasks.size(); i++) {
+            int anchor = newAnchors.get(i);
+            ArrayDeque<Integer> staleRun = staleRuns.get(anchor);
+            if (staleRun != null && !staleRun.isEmpty()) {
+                editedTasks.put(staleRun.poll(), newTasks.get(i));
+                continue;
+            }
+            int insertIndex = staleRun == null ? anchor : runEnds.get(anchor);
+            insertedTasks.computeIfAbsent(insertIndex, index -> new ArrayList<Task>()).add(newTasks.get(i));
+        }
+        for (ArrayDeque<Integer> staleRun : staleRuns.values()) {
+            removedIndexes.addAll(staleRun);
+        }
+        Collections.sort(removedIndexes);
+    }
+
+    public List<Integer> getStaleIndexes() {
+        return staleIndexes;
+    }
+
+    public List<Task> getNewTasks() {
+        return newTasks;
+    }
+
+    /**
+     * Returns the tasks edited in place, by their indexes in memory
+     *
+     * @return New tasks by the index of the stale task they replace, in ascending order
+     */
+    public Map<Integer, Task> getEditedTasks() {
+        return Collections.unmodifiableMap(editedTasks);
+    }
+
+    /**
+     * Returns the indexes of stale tasks which were removed rather than edited
+     *
+     * @return Indexes of removed tasks, in ascending order
+     */
+    public List<Integer> getRemovedIndexes() {
+        return Collections.unmodifiableList(removedIndexes);
+    }
+
+    /**
+     * Returns the new tasks which were inserted rather than edited in place, by the index in memory of the task
+     * they are inserted before
+     *
+     * @return Inserted tasks in file order, by the index they are inserted at in ascending order
+     */
+    public NavigableMap<Integer, List<Task>> getInsertedTasks() {
+        return Collections.unmodifiableNavigableMap(insertedTasks);
+    }
+
+    /**
+     * Returns the number of new tasks which were inserted rather than edited in place
+     *
+     * @return Number of inserted tasks
+     */
+    public int getInsertedCount() {
+        return newTasks.size() - editedTasks.size();
+    }
+
+    /**
+     * Returns whether the tasks in memory already match the file
+     *
+     * @return Whether there are no differences
+     */
+    public boolean isEmpty() {
+        return staleIndexes.isEmpty() && newTasks.isEmpty();
+    }
+}
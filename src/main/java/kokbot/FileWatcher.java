@@ -0,0 +1,97 @@
+package kokbot;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a watcher which notices changes made to a file by other programs.
+ * Bursts of changes are coalesced, so a program writing a file in several steps triggers a single notification.
+ */
+public class FileWatcher implements AutoCloseable {
+
+    /**
+     * Time waited for further changes before notifying, in milliseconds
+     */
+    public static final long SETTLE_MILLIS = 100;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Constructor for FileWatcher
+     *
+     * @param file     File to be watched
+     * @param onChange Called on the watcher thread after the file is created or modified
+     * @throws IOException If the directory of the file cannot be watched
+     */
+    public FileWatcher(Path file, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "kokbot-file-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the file
+     */
+    public void start() {
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                if (!isFileChanged(watchService.take())) {
+                    continue;
+                }
+                // let the other program finish writing before the file is read
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    isFileChanged(key);
+                }
+                onChange.run();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Returns whether the events of a key concern the watched file, resetting the key
+     */
+    private boolean isFileChanged(WatchKey key) {
+        boolean isChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                isChanged = true;
+            }
+        }
+        key.reset();
+        return isChanged;
+    }
+
+    /**
+     * Stops watching the file
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.out.println("Error closing file watcher: " + e.getMessage());
+        }
+    }
+}
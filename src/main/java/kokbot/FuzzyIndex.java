@@ -0,0 +1,353 @@
+package kokbot;
+
+import kokbot.task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+/**
+ * Represents an index of the tokens of task descriptions for typo-tolerant search.
+ * Each token maps to the ids of the tasks whose description contains it, and the distinct tokens are kept
+ * in a BK-tree, so a search computes edit distances against a small part of the vocabulary
+ * instead of against every description. Short keyword tokens also match the longer tokens they abbreviate,
+ * which are read from the range of the sorted vocabulary sharing their first letter.
+ */
+public class FuzzyIndex {
+
+    /**
+     * Ids of the tasks containing a token, in increasing order
+     */
+    private static class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void add(int id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0 && position < size) {
+                return;
+            }
+            position = position < 0 ? -position - 1 : position;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Represents a task found by a search, with the total distance of its tokens from the keyword's
+     */
+    private static class Match {
+        private final int id;
+        private final int distance;
+
+        private Match(int id, int distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+
+        /**
+         * Orders closer matches first, then more recently added ones
+         */
+        private int compareRank(Match other) {
+            return distance != other.distance ? Integer.compare(distance, other.distance)
+                    : Integer.compare(other.id, id);
+        }
+    }
+
+    /**
+     * Represents a position within postings, moving from the newest id to the oldest
+     */
+    private static class Cursor {
+        private final Postings postings;
+        private int position;
+
+        private Cursor(Postings postings) {
+            this.postings = postings;
+            this.position = postings.size - 1;
+        }
+
+        private int getId() {
+            return postings.ids[position];
+        }
+    }
+
+    /**
+     * Shortest and longest keyword tokens matched as abbreviations, and the distance an abbreviation counts as
+     */
+    private static final int MIN_ABBREVIATION_LENGTH = 3;
+    private static final int MAX_ABBREVIATION_LENGTH = 4;
+    private static final int ABBREVIATION_DISTANCE = 1;
+
+    private final Map<String, Postings> postingsByToken = new HashMap<String, Postings>();
+
+    /**
+     * Every token indexed, including those no task contains any more until the tree is rebuilt
+     */
+    private BkTree tokens = new BkTree();
+
+    /**
+     * Tokens some task contains, in order, for finding the tokens a keyword token abbreviates
+     */
+    private final TreeSet<String> sortedTokens = new TreeSet<String>();
+
+    /**
+     * Adds the tokens of a task's description to the index
+     *
+     * @param task Task with an id assigned
+     */
+    public void add(Task task) {
+        for (String token : tokenize(task.getDescription())) {
+            Postings postings = postingsByToken.get(token);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByToken.put(token, postings);
+                tokens.add(token);
+                sortedTokens.add(token);
+            }
+            postings.add(task.getId());
+        }
+    }
+
+    /**
+     * Removes the tokens of a task's description from the index
+     *
+     * @param task Task to be removed
+     */
+    public void remove(Task task) {
+        for (String token : tokenize(task.getDescription())) {
+            Postings postings = postingsByToken.get(token);
+            if (postings == null) {
+                continue;
+            }
+            postings.remove(task.getId());
+            if (postings.size == 0) {
+                postingsByToken.remove(token);
+                sortedTokens.remove(token);
+            }
+        }
+        // a BK-tree cannot remove terms, so it is rebuilt once most of its terms are no longer used
+        if (tokens.getSize() > 2 * postingsByToken.size() + 1024) {
+            tokens = new BkTree();
+            for (String token : postingsByToken.keySet()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks each of whose keyword tokens is within a small edit distance of a token of its description,
+     * or abbreviates one, ranked by total distance and then by how recently the task was added
+     *
+     * @param keyword Keyword to be searched for
+     * @param limit   Largest number of tasks returned
+     * @param lookup  Returns the task of an id
+     * @return Tasks found, closest first
+     */
+    public List<Task> search(String keyword, int limit, IntFunction<Task> lookup) {
+        List<String> keywordTokens = tokenize(keyword);
+        if (keywordTokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Integer>> matchedTokens = new ArrayList<Map<String, Integer>>();
+        int driver = 0;
+        long driverCount = Long.MAX_VALUE;
+        for (String keywordToken : keywordTokens) {
+            Map<String, Integer> matched = new HashMap<String, Integer>();
+            long[] count = new long[1];
+            tokens.search(keywordToken, getMaxDistance(keywordToken), (token, distance) -> {
+                Postings postings = postingsByToken.get(token);
+                if (postings != null) {
+                    matched.put(token, distance);
+                    count[0] += postings.size;
+                }
+            });
+            for (String token : getAbbreviated(keywordToken)) {
+                if (matched.putIfAbsent(token, ABBREVIATION_DISTANCE) == null) {
+                    count[0] += postingsByToken.get(token).size;
+                }
+            }
+            if (count[0] < driverCount) {
+                driver = matchedTokens.size();
+                driverCount = count[0];
+            }
+            matchedTokens.add(matched);
+        }
+        if (driverCount == 0) {
+            return Collections.emptyList();
+        }
+
+        // candidates come from the keyword token matching the fewest tasks, by the distance of that token and then
+        // newest first, so the search stops as soon as no remaining candidate can outrank the ones found
+        PriorityQueue<Match> best = new PriorityQueue<Match>(limit + 1, (a, b) -> b.compareRank(a));
+        Set<Integer> seen = new HashSet<Integer>();
+        int maxDistance = Collections.max(matchedTokens.get(driver).values());
+        for (int level = 0; level <= maxDistance; level++) {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<Cursor>(
+                    (a, b) -> Integer.compare(b.getId(), a.getId()));
+            for (Map.Entry<String, Integer> entry : matchedTokens.get(driver).entrySet()) {
+                if (entry.getValue() == level) {
+                    cursors.add(new Cursor(postingsByToken.get(entry.getKey())));
+                }
+            }
+            while (!cursors.isEmpty()) {
+                if (best.size() == limit && !canBeOutranked(best.peek(), level, cursors.peek().getId())) {
+                    return toTasks(best, lookup);
+                }
+                Cursor cursor = cursors.poll();
+                int id = cursor.getId();
+                if (--cursor.position >= 0) {
+                    cursors.add(cursor);
+                }
+                if (!seen.add(id)) {
+                    continue;
+                }
+                int distance = getTotalDistance(id, matchedTokens, driver, level);
+                if (distance < 0) {
+                    continue;
+                }
+                best.add(new Match(id, distance));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        return toTasks(best, lookup);
+    }
+
+    /**
+     * Returns whether a candidate not yet read could outrank the worst match kept. Every such candidate is at
+     * least as far as the current level, and those at this level are no newer than the next id of its cursors,
+     * while the ids of the next levels start again from the newest.
+     *
+     * @param worst  Worst match kept
+     * @param level  Distance of the driving keyword token being read
+     * @param nextId Next id to be read at this level
+     * @return Whether a remaining candidate could outrank the match
+     */
+    private static boolean canBeOutranked(Match worst, int level, int nextId) {
+        return worst.distance > level || worst.distance == level && worst.id < nextId;
+    }
+
+    /**
+     * Returns the total distance of the task's closest tokens from each keyword token
+     *
+     * @return Total distance, or -1 if some keyword token matches none of the task's tokens
+     */
+    private int getTotalDistance(int id, List<Map<String, Integer>> matchedTokens, int driver,
+            int driverDistance) {
+        int total = driverDistance;
+        for (int i = 0; i < matchedTokens.size(); i++) {
+            if (i == driver) {
+                continue;
+            }
+            int closest = Integer.MAX_VALUE;
+            for (Map.Entry<String, Integer> entry : matchedTokens.get(i).entrySet()) {
+                Postings postings = postingsByToken.get(entry.getKey());
+                if (entry.getValue() < closest && Arrays.binarySearch(postings.ids, 0, postings.size, id) >= 0) {
+                    closest = entry.getValue();
+                }
+            }
+            if (closest == Integer.MAX_VALUE) {
+                return -1;
+            }
+            total += closest;
+        }
+        return total;
+    }
+
+    private static List<Task> toTasks(PriorityQueue<Match> best, IntFunction<Task> lookup) {
+        List<Match> ranked = new ArrayList<Match>(best);
+        ranked.sort(Match::compareRank);
+        List<Task> tasks = new ArrayList<Task>(ranked.size());
+        for (Match match : ranked) {
+            tasks.add(lookup.apply(match.id));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the longer tokens a short keyword token abbreviates, those starting with its first letter and
+     * containing the rest of its letters in order, e.g. "meeting" for "mtg"
+     *
+     * @param keywordToken Keyword token searched for
+     * @return Tokens abbreviated, or none if the keyword token is not of an abbreviation's length
+     */
+    private List<String> getAbbreviated(String keywordToken) {
+        List<String> abbreviated = new ArrayList<String>();
+        if (keywordToken.length() < MIN_ABBREVIATION_LENGTH || keywordToken.length() > MAX_ABBREVIATION_LENGTH) {
+            return abbreviated;
+        }
+        char first = keywordToken.charAt(0);
+        for (String token : sortedTokens.subSet(String.valueOf(first), String.valueOf((char) (first + 1)))) {
+            if (token.length() > keywordToken.length() && isSubsequence(keywordToken, token)) {
+                abbreviated.add(token);
+            }
+        }
+        return abbreviated;
+    }
+
+    private static boolean isSubsequence(String letters, String token) {
+        int matched = 0;
+        for (int i = 0; i < token.length() && matched < letters.length(); i++) {
+            if (token.charAt(i) == letters.charAt(matched)) {
+                matched++;
+            }
+        }
+        return matched == letters.length();
+    }
+
+    /**
+     * Returns the largest edit distance tolerated for a token, so that short tokens do not match everything
+     *
+     * @param token Token searched for
+     * @return Largest distance tolerated
+     */
+    public static int getMaxDistance(String token) {
+        return token.length() <= 2 ? 0 : token.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Splits text into lower-case tokens of letters and digits
+     *
+     * @param text Text to be split
+     * @return Distinct tokens in the order they appear
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<String>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isTokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase();
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,16 +1,57 @@
 package kokbot;
 
+import kokbot.change.TaskChangeBatch;
+import kokbot.change.TaskChangePublisher;
+import kokbot.io.TaskExporter;
+import kokbot.io.TaskImporter;
+import kokbot.io.TransferReport;
+import kokbot.jfr.DateParseEvent;
+import kokbot.metrics.Metrics;
+import kokbot.query.QueryParser;
+import kokbot.query.QueryPlan;
+import kokbot.replication.Mutation;
+import kokbot.replication.MutationListener;
+import kokbot.replication.ReplicationFollower;
+import kokbot.replication.ReplicationMXBean;
+import kokbot.replication.ReplicationPrimary;
 import kokbot.task.Deadline;
 import kokbot.task.Event;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.RecurringEvent;
 import kokbot.task.Task;
 import kokbot.task.Todo;
+import kokbot.trace.TraceRecorder;
 
+import java.text.ParsePosition;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * Represents the main Kokbot class
@@ -21,9 +62,40 @@ public class Kokbot {
      * Represents the type of command
      */
     public enum CommandType {
-        BYE, LIST, MARK, UNMARK, TODO, DEADLINE, EVENT, DELETE, FIND
+        BYE, LIST, MARK, UNMARK, TODO, DEADLINE, EVENT, DELETE, FIND, STATS, UPCOMING, AGENDA, FILTER, IMPORT,
+        EXPORT, DEDUPE, SUMMARY
     }
 
+    /**
+     * Types of command whose responses depend only on the tasks, and so are cached until the tasks change.
+     * Commands depending on the current time or on metrics, such as upcoming and stats, are left out.
+     */
+    private static final Set<CommandType> CACHEABLE_COMMANDS =
+            EnumSet.of(CommandType.LIST, CommandType.FIND, CommandType.FILTER);
+
+    /**
+     * Types of command which change the tasks, and so are rejected by read-only followers
+     */
+    private static final Set<CommandType> MUTATING_COMMANDS = EnumSet.of(CommandType.MARK, CommandType.UNMARK,
+            CommandType.TODO, CommandType.DEADLINE, CommandType.EVENT, CommandType.DELETE, CommandType.IMPORT,
+            CommandType.DEDUPE);
+
+    /**
+     * Name of the replication MBean
+     */
+    public static final String REPLICATION_OBJECT_NAME = "kokbot:type=Replication";
+
+    /**
+     * Accepted date-time formats, built once as building a formatter is costly
+     */
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATTERS = createDateTimeFormatters();
+
+    /**
+     * Message for a recurrence with more occurrences than a series may have
+     */
+    private static final String OCCURRENCE_LIMIT_MESSAGE = String.format(
+            "Unknown usage - a recurrence should have between 1 and %d occurrences.", Recurrence.MAX_OCCURRENCES);
+
     /**
      * Represents the storage of tasks
      */
@@ -44,19 +116,51 @@ public class Kokbot {
      */
     private Parser parser;
 
+    /**
+     * Represents the latency and throughput metrics
+     */
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Cached responses to read-only commands
+     */
+    private final ResponseCache responseCache = new ResponseCache(ResponseCache.getConfiguredCapacity());
+
+    /**
+     * Publisher of the changes made by each command, for views which update incrementally
+     */
+    private final TaskChangePublisher changePublisher = new TaskChangePublisher();
+
+    /**
+     * Completion of partly typed input, over the descriptions of the current tasks
+     */
+    private final Completer completer = new Completer();
+
+    /**
+     * What is done when a task being added is an exact duplicate of one in the list
+     */
+    private final DuplicatePolicy duplicatePolicy = DuplicatePolicy.getConfigured();
+
+    /**
+     * Recorder of the commands carried out, or null if the session is not recorded
+     */
+    private TraceRecorder traceRecorder;
+
+    /**
+     * Listener told of every change to the tasks, such as the primary streaming them to followers
+     */
+    private MutationListener mutationListener;
+
+    /**
+     * Primary or follower this Kokbot replicates tasks through, or null if it does not replicate
+     */
+    private ReplicationMXBean replication;
+
     /**
      * Constructor for Duke
      */
     public Kokbot() {
-        ui = new Ui("KokBot");
-        storage = new Storage(Paths.get("data", "kokbot.txt"));
-        parser = new Parser();
-        try {
-            tasks = new TaskList(storage.load());
-        } catch (DukeException e) {
-            ui.showLoadingError();
-            tasks = new TaskList();
-        }
+        this(Paths.get("data", "kokbot.txt"), "KokBot");
     }
 
     /**
@@ -66,80 +170,533 @@ public class Kokbot {
      * @param botName  Name of the bot
      */
     public Kokbot(Path filePath, String botName) {
+        this(filePath, botName, false);
+    }
+
+    /**
+     * Constructor for Duke which may leave the loading of tasks to a later call of loadTasks
+     *
+     * @param filePath       Path of the file
+     * @param botName        Name of the bot
+     * @param isLoadDeferred Whether tasks are left unloaded until loadTasks is called
+     */
+    public Kokbot(Path filePath, String botName, boolean isLoadDeferred) {
         ui = new Ui(botName);
         storage = new Storage(filePath);
         parser = new Parser();
+        tasks = new TaskList();
+        if (!isLoadDeferred) {
+            loadTasks(progress -> { });
+        }
+    }
+
+    /**
+     * Loads the tasks from the file, replacing the current list of tasks
+     *
+     * @param progress Receives the fraction of the file loaded so far
+     * @return Warning about lines of the file which were skipped or could not be loaded, or an empty string
+     */
+    public String loadTasks(DoubleConsumer progress) {
+        long startTime = System.nanoTime();
+        String warning = "";
         try {
-            tasks = new TaskList(storage.load());
+            setTasks(new TaskList(storage.load(progress)));
+            if (storage.getRestoredSnapshot() != null) {
+                warning = ui.showRestored(storage.getRestoredSnapshot().getFileName().toString(), tasks.getSize());
+            } else if (!storage.getSkippedLines().isEmpty()) {
+                warning = ui.showSkippedLines(storage.getSkippedLines());
+            }
+            if (!storage.getDamagedSnapshots().isEmpty()) {
+                warning += ui.showDamagedSnapshots(storage.getDamagedSnapshots());
+            }
         } catch (DukeException e) {
-            ui.showLoadingError();
-            tasks = new TaskList();
+            warning = ui.showLoadingError();
+            setTasks(new TaskList());
         }
+        metrics.recordLoad(System.nanoTime() - startTime, tasks.getSize());
+        startRecording();
+        return warning;
     }
 
     /**
-     * Carries out command and gets the response from the bot
+     * Starts recording the session if Kokbot was started with -Dkokbot.trace set to the path of a trace file
+     */
+    private void startRecording() {
+        Path tracePath = TraceRecorder.getConfiguredPath();
+        if (tracePath == null || traceRecorder != null) {
+            return;
+        }
+        try {
+            traceRecorder = new TraceRecorder(tracePath, storage.getFilePath());
+        } catch (IOException e) {
+            System.out.println("Error recording session: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording the session, if it is recorded
+     */
+    public void stopRecording() {
+        if (traceRecorder == null) {
+            return;
+        }
+        try {
+            traceRecorder.close();
+        } catch (IOException e) {
+            System.out.println("Error closing trace: " + e.getMessage());
+        }
+        traceRecorder = null;
+    }
+
+    /**
+     * Replaces the list of tasks, keeping the listener of changes and dropping the cached responses
+     *
+     * @param newTasks List of tasks to replace the current one
+     */
+    private void setTasks(TaskList newTasks) {
+        tasks = newTasks;
+        tasks.setMutationListener(mutationListener);
+        tasks.setChangePublisher(changePublisher);
+        completer.setDescriptions(tasks.getDescriptions());
+        responseCache.clear();
+        if (changePublisher.hasSubscribers()) {
+            changePublisher.publishReset(tasks.getRows());
+        }
+    }
+
+    /**
+     * Carries out command and gets the response from the bot, recording both if the session is recorded
      * @param input Input from the user
      * @return Response from the bot
      */
     public String getResponse(String input) {
+        String response = respond(input);
+        if (traceRecorder != null) {
+            try {
+                traceRecorder.record(input, response);
+            } catch (IOException e) {
+                System.out.println("Error recording session: " + e.getMessage());
+                stopRecording();
+            }
+        }
+        return response;
+    }
+
+    private String respond(String input) {
+        long startTime = System.nanoTime();
+        Command cmd;
         try {
-            Command cmd = parser.parse(input);
-            assert cmd != null : "Command should not be null";
-            switch (cmd.type) {
-            case BYE:
-                return ui.showGoodbye();
-            case LIST:
-                if (cmd.args.length > 0) {
-                    return ui.showTaskList(tasks.getTaskStrings(cmd.args[0]));
-                } else {
-                    return ui.showTaskList(tasks.getTaskStrings(""));
-                }
-            case MARK:
-                int toMark = Integer.parseInt(cmd.args[0]) - 1;
-                tasks.markTaskAsDone(toMark);
-                return ui.showTaskMarked(tasks.getTask(toMark));
-            case UNMARK:
-                int toUnmark = Integer.parseInt(cmd.args[0]) - 1;
-                tasks.markTaskAsUndone(toUnmark);
-                return ui.showTaskUnmarked(tasks.getTask(toUnmark));
-            case TODO:
-                Todo newTodo = createTodo(cmd.args[0]);
-                tasks.addTask(newTodo);
-                return ui.showTaskAdded(newTodo, tasks.getSize());
-            case DEADLINE:
-                Deadline newDeadline = createDeadline(cmd.args[0], cmd.args[1]);
-                tasks.addTask(newDeadline);
-                return ui.showTaskAdded(newDeadline, tasks.getSize());
-            case EVENT:
-                Event newEvent = createEvent(cmd.args[0], cmd.args[1], cmd.args[2]);
-                tasks.addTask(newEvent);
-                return ui.showTaskAdded(newEvent, tasks.getSize());
-                //numList(duke.tasks.getSize());
-            case DELETE:
-                Task deletedTask = tasks.deleteTask(Integer.parseInt(cmd.args[0]) - 1);
-                return ui.showTaskDeleted(deletedTask, tasks.getSize());
-            case FIND:
-                return ui.showMatchingTasks(tasks.getMatchingTasks(cmd.args[0]));
-            default:
-                throw new DukeException("Unknown command");
+            cmd = parser.parse(input);
+        } catch (DukeException e) {
+            metrics.recordCommand(false);
+            return save() + e.getMessage();
+        }
+        assert cmd != null : "Command should not be null";
+        if (replication instanceof ReplicationFollower && MUTATING_COMMANDS.contains(cmd.type)) {
+            metrics.recordCommand(false);
+            return ui.showReadOnly();
+        }
+        long parsedTime = System.nanoTime();
+        metrics.recordPhase(cmd.type, Metrics.Phase.PARSE, parsedTime - startTime);
+
+        boolean isCacheable = CACHEABLE_COMMANDS.contains(cmd.type);
+        long version = 0;
+        String externalChanges = "";
+        if (isCacheable) {
+            if (storage.hasExternalChanges()) {
+                // a cached response skips the save which would otherwise take in these changes
+                externalChanges = applyExternalChanges();
+            }
+            version = tasks.getVersion();
+            String cachedResponse = responseCache.get(cmd, version);
+            metrics.recordCacheLookup(cmd.type, cachedResponse != null);
+            if (cachedResponse != null) {
+                // nothing changed since the same command was carried out and saved
+                metrics.recordCommand(true);
+                return externalChanges + cachedResponse;
+            }
+        }
+
+        String response;
+        boolean isSuccessful = true;
+        try {
+            Supplier<String> renderer = execute(cmd);
+            long executedTime = System.nanoTime();
+            metrics.recordPhase(cmd.type, Metrics.Phase.EXECUTE, executedTime - parsedTime);
+            response = renderer.get();
+            metrics.recordPhase(cmd.type, Metrics.Phase.RENDER, System.nanoTime() - executedTime);
+            if (isCacheable) {
+                responseCache.put(cmd, version, response);
             }
         } catch (DukeException e) {
-            return e.getMessage();
-        } finally {
-            save();
+            isSuccessful = false;
+            response = e.getMessage();
+        }
+        metrics.recordCommand(isSuccessful);
+
+        long persistStartTime = System.nanoTime();
+        externalChanges += save();
+        metrics.recordPhase(cmd.type, Metrics.Phase.PERSIST, System.nanoTime() - persistStartTime);
+        return externalChanges + response;
+    }
+
+    /**
+     * Carries out the command
+     *
+     * @param cmd Command to be carried out
+     * @return Renderer which produces the response from the bot
+     * @throws DukeException If the command cannot be carried out
+     */
+    private Supplier<String> execute(Command cmd) throws DukeException {
+        switch (cmd.type) {
+        case BYE:
+            return () -> ui.showGoodbye();
+        case LIST:
+            String[] taskStrings = cmd.args.length > 1
+                    ? tasks.getTaskStrings(cmd.args[0], Integer.parseInt(cmd.args[1]))
+                    : tasks.getTaskStrings(cmd.args.length > 0 ? cmd.args[0] : "");
+            return () -> ui.showTaskList(taskStrings);
+        case MARK:
+            int toMark = Integer.parseInt(cmd.args[0]) - 1;
+            if (cmd.args.length > 1) {
+                Task markedOccurrence = tasks.markOccurrence(toMark, Integer.parseInt(cmd.args[1]) - 1, true);
+                return () -> ui.showTaskMarked(markedOccurrence);
+            }
+            tasks.markTaskAsDone(toMark);
+            return () -> ui.showTaskMarked(tasks.getTask(toMark));
+        case UNMARK:
+            int toUnmark = Integer.parseInt(cmd.args[0]) - 1;
+            if (cmd.args.length > 1) {
+                Task unmarkedOccurrence = tasks.markOccurrence(toUnmark, Integer.parseInt(cmd.args[1]) - 1, false);
+                return () -> ui.showTaskUnmarked(unmarkedOccurrence);
+            }
+            tasks.markTaskAsUndone(toUnmark);
+            return () -> ui.showTaskUnmarked(tasks.getTask(toUnmark));
+        case TODO:
+            return addTask(createTodo(cmd.args[0]));
+        case DEADLINE:
+            Deadline newDeadline = cmd.args.length > 2
+                    ? createRecurringDeadline(cmd.args[0], cmd.args[1],
+                            createRecurrence(cmd.args[2], cmd.args[3], cmd.args[4]))
+                    : createDeadline(cmd.args[0], cmd.args[1]);
+            return addTask(newDeadline);
+        case EVENT:
+            Event newEvent = cmd.args.length > 3
+                    ? createRecurringEvent(cmd.args[0], cmd.args[1], cmd.args[2],
+                            createRecurrence(cmd.args[3], cmd.args[4], cmd.args[5]))
+                    : createEvent(cmd.args[0], cmd.args[1], cmd.args[2]);
+            return addTask(newEvent);
+        case DELETE:
+            Task deletedTask = tasks.deleteTask(Integer.parseInt(cmd.args[0]) - 1);
+            return () -> ui.showTaskDeleted(deletedTask, tasks.getSize());
+        case FIND:
+            if (cmd.args.length > 1) {
+                ArrayList<String> closestTasks = tasks.getFuzzyMatchingTasks(cmd.args[0]);
+                return () -> ui.showFuzzyMatchingTasks(closestTasks, cmd.args[0]);
+            }
+            ArrayList<String> matchingTasks = tasks.getMatchingTasks(cmd.args[0]);
+            return () -> ui.showMatchingTasks(matchingTasks);
+        case FILTER:
+            QueryPlan plan = tasks.planQuery(QueryParser.parse(cmd.args[0]));
+            String[] filteredTasks = tasks.getFilteredTaskStrings(plan);
+            return () -> ui.showFilteredTasks(filteredTasks, plan.describe());
+        case IMPORT:
+            TransferReport importReport = new TaskImporter(tasks).importFile(Paths.get(cmd.args[0]));
+            return () -> ui.showImported(importReport, cmd.args[0]);
+        case EXPORT:
+            TransferReport exportReport = new TaskExporter(tasks).exportFile(Paths.get(cmd.args[0]));
+            return () -> ui.showExported(exportReport, cmd.args[0]);
+        case STATS:
+            return () -> ui.showStats(metrics.getReport() + getReplicationReport());
+        case UPCOMING:
+            int days = Integer.parseInt(cmd.args[0]);
+            LocalDateTime now = LocalDateTime.now();
+            String[] upcomingTasks = tasks.getUpcomingTasks(now, now.plusDays(days));
+            return () -> ui.showUpcomingTasks(upcomingTasks, days);
+        case AGENDA:
+            LocalDate today = LocalDate.now();
+            LocalDate from;
+            LocalDate to;
+            String window;
+            if (cmd.args[0].equals("today")) {
+                from = today;
+                to = today;
+                window = "today";
+            } else if (cmd.args[0].equals("week")) {
+                from = today.with(DayOfWeek.MONDAY);
+                to = from.plusDays(6);
+                window = "this week";
+            } else {
+                YearMonth month = YearMonth.parse(cmd.args[0]);
+                from = month.atDay(1);
+                to = month.atEndOfMonth();
+                window = cmd.args[0];
+            }
+            LinkedHashMap<LocalDate, List<String>> agenda = tasks.getAgenda(from, to);
+            return () -> ui.showAgenda(agenda, window);
+        case SUMMARY:
+            int overdueCount = tasks.getCounters().getOverdueCount(LocalDateTime.now());
+            return () -> ui.showSummary(tasks.getCounters(), overdueCount);
+        case DEDUPE:
+            int removedCount = tasks.removeDuplicates();
+            return () -> ui.showDuplicatesRemoved(removedCount, tasks.getSize());
+        default:
+            throw new DukeException("Unknown command");
+        }
+    }
+
+    /**
+     * Adds a new task after moving its labels out of its description, unless it is an exact duplicate of a task
+     * in the list, in which case it is added with a warning, rejected or merged as configured
+     *
+     * @param newTask Task to be added
+     * @return Renderer which produces the response from the bot
+     * @throws DukeException If the task is a duplicate and duplicates are rejected
+     */
+    private Supplier<String> addTask(Task newTask) throws DukeException {
+        newTask.extractLabels();
+        int duplicate = tasks.findDuplicate(newTask);
+        if (duplicate < 0) {
+            tasks.addTask(newTask);
+            return () -> ui.showTaskAdded(newTask, tasks.getSize());
+        }
+        switch (duplicatePolicy) {
+        case REJECT:
+            throw new DukeException(ui.showDuplicateRejected(tasks.getTask(duplicate), duplicate + 1));
+        case MERGE:
+            Task merged = tasks.mergeDuplicate(duplicate, newTask);
+            return () -> ui.showTaskMerged(merged, duplicate + 1);
+        default:
+            tasks.addTask(newTask);
+            return () -> ui.showTaskAdded(newTask, tasks.getSize()) + ui.showDuplicateWarning(duplicate + 1);
+        }
+    }
+
+    /**
+     * Saves the current tasks back to the file, first taking in any changes made to it by other programs.
+     * The changes made since the last save are published as one batch, and a compressed snapshot of the file
+     * is taken once the snapshot interval has passed.
+     *
+     * @return Summary of the changes made to the file by other programs, or an empty string if there were none
+     */
+    public String save() {
+        String changes = storage.hasExternalChanges() ? applyExternalChanges() : "";
+        changePublisher.flush();
+        try {
+            metrics.recordSave(storage.updateFile(tasks.getFileStrings()));
+        } catch (DukeException e) {
+            metrics.recordFailedSave();
+            System.out.println("Error saving tasks: " + e.getMessage());
+            return changes;
+        }
+        try {
+            SnapshotStore.Snapshot snapshot = storage.takeSnapshotIfDue();
+            if (snapshot != null) {
+                metrics.recordSnapshot(snapshot.getNanos(), snapshot.getOriginalBytes(),
+                        snapshot.getCompressedBytes());
+            }
+        } catch (DukeException e) {
+            metrics.recordFailedSnapshot();
+            System.out.println(e.getMessage());
         }
+        return changes;
     }
 
     /**
-     * Saves the current tasks back to the file
+     * Applies the changes made to the file by other programs to the list of tasks.
+     * Only records which differ from the tasks in memory are parsed and applied, and published as one batch.
+     *
+     * @return Summary of the changes applied, or an empty string if the file matches the tasks in memory
      */
-    public void save() {
+    public String applyExternalChanges() {
+        FileDiff diff;
         try {
-            storage.updateFile(tasks.getFileStrings());
+            diff = storage.diff(tasks.getFileStrings());
         } catch (DukeException e) {
-            // do nothing
+            return e.getMessage();
+        }
+        if (diff.isEmpty() && storage.getSkippedLines().isEmpty()) {
+            return "";
+        }
+        Map<Integer, Task> editedTasks = diff.getEditedTasks();
+        for (Map.Entry<Integer, Task> edit : editedTasks.entrySet()) {
+            tasks.replaceTask(edit.getKey(), edit.getValue());
+        }
+        // working from the back keeps the indexes of the tasks still to be removed or inserted before
+        List<Integer> removedIndexes = diff.getRemovedIndexes();
+        int next = removedIndexes.size() - 1;
+        for (Map.Entry<Integer, List<Task>> insertion : diff.getInsertedTasks().descendingMap().entrySet()) {
+            for (; next >= 0 && removedIndexes.get(next) >= insertion.getKey(); next--) {
+                tasks.deleteTask(removedIndexes.get(next));
+            }
+            tasks.insertTasks(insertion.getKey(), insertion.getValue());
+        }
+        for (; next >= 0; next--) {
+            tasks.deleteTask(removedIndexes.get(next));
+        }
+        changePublisher.flush();
+        return ui.showExternalChanges(diff.getInsertedCount(), removedIndexes.size(), editedTasks.size(),
+                storage.getSkippedLines());
+    }
+
+    /**
+     * Starts replicating the tasks if Kokbot was started with -Dkokbot.replication.role=primary or follower.
+     * The port on the loopback interface is set with -Dkokbot.replication.port.
+     * Must be called on the thread which carries out commands, once the tasks are loaded.
+     *
+     * @param executor Executor which carries out commands, on which a follower applies replicated changes
+     */
+    public void startReplication(Executor executor) {
+        String role = System.getProperty("kokbot.replication.role", "");
+        int port = Integer.getInteger("kokbot.replication.port", ReplicationPrimary.DEFAULT_PORT);
+        if (role.equals("primary")) {
+            try {
+                ReplicationPrimary primary = new ReplicationPrimary(port, tasks.getFileStrings());
+                mutationListener = primary;
+                tasks.setMutationListener(primary);
+                primary.start();
+                replication = primary;
+            } catch (IOException e) {
+                System.out.println("Error starting replication: " + e.getMessage());
+                return;
+            }
+        } else if (role.equals("follower")) {
+            ReplicationFollower follower = new ReplicationFollower(port, storage.getHeader(),
+                    new ReplicationFollower.Target() {
+                        @Override
+                        public void applySnapshot(List<String> records, String position) throws DukeException {
+                            applyReplicatedSnapshot(records, position);
+                        }
+
+                        @Override
+                        public void applyMutations(List<Mutation> mutations, String position)
+                                throws DukeException {
+                            applyReplicatedMutations(mutations, position);
+                        }
+                    }, executor);
+            replication = follower;
+            follower.start();
+        } else {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(REPLICATION_OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(replication, name);
+        } catch (JMException e) {
+            System.out.println("Error registering replication metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops replicating the tasks
+     */
+    public void stopReplication() {
+        if (replication instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) replication).close();
+            } catch (Exception e) {
+                System.out.println("Error stopping replication: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replaces the tasks with a snapshot from the primary
+     */
+    private void applyReplicatedSnapshot(List<String> records, String position) throws DukeException {
+        ArrayList<Task> newTasks = new ArrayList<Task>(records.size());
+        for (String record : records) {
+            newTasks.add(Storage.parseRecord(record));
         }
+        setTasks(new TaskList(newTasks));
+        storage.setHeader(position);
+        save();
+    }
+
+    /**
+     * Applies mutations streamed by the primary, saving the tasks once for the batch
+     */
+    private void applyReplicatedMutations(List<Mutation> mutations, String position) throws DukeException {
+        for (Mutation mutation : mutations) {
+            switch (mutation.getOp()) {
+            case ADD:
+                tasks.insertTasks(mutation.getIndex(), List.of(Storage.parseRecord(mutation.getRecord())));
+                break;
+            case DELETE:
+                tasks.deleteTask(mutation.getIndex());
+                break;
+            case REPLACE:
+                tasks.replaceTask(mutation.getIndex(), Storage.parseRecord(mutation.getRecord()));
+                break;
+            default:
+                throw new DukeException("Unknown mutation " + mutation);
+            }
+        }
+        storage.setHeader(position);
+        save();
+    }
+
+    /**
+     * Returns the state of replication to be shown with the statistics
+     *
+     * @return State of replication, or an empty string if this Kokbot does not replicate
+     */
+    private String getReplicationReport() {
+        if (replication == null) {
+            return "";
+        }
+        return String.format("Replication: %s at offset %d, %d mutations behind, last delay %d ms, "
+                + "%d connections%n", replication.getRole(), replication.getOffset(), replication.getLagMutations(),
+                replication.getLagMillis(), replication.getConnectionCount());
+    }
+
+    /**
+     * Returns the publisher of changes to the tasks. Each save publishes the changes made since the last one,
+     * and subscribers should call publishReset to receive every task before applying changes.
+     *
+     * @return Publisher of changes to the tasks
+     */
+    public Flow.Publisher<TaskChangeBatch> getChangePublisher() {
+        return changePublisher;
+    }
+
+    /**
+     * Publishes every task as a reset batch, such as for a new subscriber or one which missed a batch.
+     * Must be called on the thread which carries out commands.
+     */
+    public void publishReset() {
+        changePublisher.publishReset(tasks.getRows());
+    }
+
+    /**
+     * Returns the completion of partly typed input, which may be used from any thread
+     *
+     * @return Completer over the current tasks
+     */
+    public Completer getCompleter() {
+        return completer;
+    }
+
+    /**
+     * Returns the path of the file the tasks are stored in
+     *
+     * @return Path of the file
+     */
+    public Path getFilePath() {
+        return storage.getFilePath();
+    }
+
+    /**
+     * Returns the metrics of this Kokbot
+     *
+     * @return Metrics of this Kokbot
+     */
+    public Metrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -150,7 +707,45 @@ public class Kokbot {
      * @throws DukeException If the string is not in a valid date-time format
      */
     public static LocalDateTime createDateTime(String input) throws DukeException {
+        DateParseEvent event = new DateParseEvent();
+        event.begin();
+        LocalDateTime dateTime = parseDateTime(input);
+        if (event.shouldCommit()) {
+            event.input = input;
+            event.isSuccessful = dateTime != null;
+            event.commit();
+        }
+        return dateTime;
+    }
+
+    /**
+     * Parses a string against each accepted date-time format
+     *
+     * @param input String to be parsed
+     * @return LocalDateTime object, or null if the string is not in a valid date-time format
+     */
+    private static LocalDateTime parseDateTime(String input) {
+        for (DateTimeFormatter formatter : DATE_TIME_FORMATTERS) {
+            // parseUnresolved reports a mismatch without throwing, so only likely formats pay for a full parse
+            ParsePosition position = new ParsePosition(0);
+            if (formatter.parseUnresolved(input, position) == null || position.getIndex() != input.length()) {
+                continue;
+            }
+            try {
+                return LocalDateTime.parse(input, formatter);
+            } catch (DateTimeParseException e) {
+                //do nothing
+            }
+        }
+        return null;
+    }
 
+    /**
+     * Builds the accepted date-time formats, in the order they are tried
+     *
+     * @return Accepted date-time formats
+     */
+    private static List<DateTimeFormatter> createDateTimeFormatters() {
         String[] possibleDates = {
                 "d/M/yyyy",
                 "d-M-yyyy",
@@ -170,25 +765,16 @@ public class Kokbot {
 
         String[] possibleTimes = {"HHmm", "HH:mm", "HH", "h:mma",};
 
+        List<DateTimeFormatter> formatters = new ArrayList<DateTimeFormatter>();
         for (String datePattern : possibleDates) {
             for (String timePattern : possibleTimes) {
                 //check that time pattern comes before date pattern
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(timePattern + " " + datePattern);
-                    return LocalDateTime.parse(input, formatter);
-                } catch (Exception e) {
-                    //do nothing
-                }
+                formatters.add(DateTimeFormatter.ofPattern(timePattern + " " + datePattern));
                 //check that time pattern comes after date pattern
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(datePattern + " " + timePattern);
-                    return LocalDateTime.parse(input, formatter);
-                } catch (Exception e) {
-                    //do nothing
-                }
+                formatters.add(DateTimeFormatter.ofPattern(datePattern + " " + timePattern));
             }
         }
-        return null;
+        return Collections.unmodifiableList(formatters);
     }
 
     /**
@@ -221,6 +807,57 @@ public class Kokbot {
         return new Deadline(description, dueDateTime);
     }
 
+    /**
+     * Creates a recurring Deadline task
+     *
+     * @param description Description of the Deadline
+     * @param dueDate     Due date of the first occurrence
+     * @param recurrence  Rule of the series
+     * @return Recurring Deadline task
+     * @throws DukeException If the due date is not in a valid date-time format or the series has too many
+     *     occurrences
+     */
+    public static RecurringDeadline createRecurringDeadline(String description, String dueDate,
+            Recurrence recurrence) throws DukeException {
+        Deadline deadline = createDeadline(description, dueDate);
+        checkOccurrenceCount(recurrence, deadline.getDateTime());
+        return new RecurringDeadline(description, deadline.getDateTime(), recurrence);
+    }
+
+    /**
+     * Creates the rule of a recurring task
+     *
+     * @param frequency How often the task recurs, either "daily", "weekly" or "monthly"
+     * @param endKind   How the series ends, either "until" or "count"
+     * @param endValue  Date-time of the last occurrence or number of occurrences
+     * @return Rule of the series
+     * @throws DukeException If the rule is not valid
+     */
+    public static Recurrence createRecurrence(String frequency, String endKind, String endValue)
+            throws DukeException {
+        Recurrence.Frequency parsedFrequency = Recurrence.Frequency.valueOf(frequency.toUpperCase());
+        if (endKind.equals("until")) {
+            LocalDateTime until = createDateTime(endValue);
+            if (until == null) {
+                throw new DukeException("Unknown usage - /until of recurrence is not in a valid date-time format.");
+            }
+            return new Recurrence(parsedFrequency, until);
+        }
+        try {
+            return new Recurrence(parsedFrequency, Integer.parseInt(endValue));
+        } catch (IllegalArgumentException e) {
+            throw new DukeException(OCCURRENCE_LIMIT_MESSAGE);
+        }
+    }
+
+    private static void checkOccurrenceCount(Recurrence recurrence, LocalDateTime start) throws DukeException {
+        try {
+            recurrence.checkOccurrenceCount(start);
+        } catch (IllegalArgumentException e) {
+            throw new DukeException(OCCURRENCE_LIMIT_MESSAGE);
+        }
+    }
+
     /**
      * Creates an Event task
      *
@@ -248,4 +885,21 @@ public class Kokbot {
 
         return new Event(description, startDateTime, endDateTime);
     }
+
+    /**
+     * Creates a recurring Event task
+     *
+     * @param description Description of the Event
+     * @param startDate   Start date of the first occurrence
+     * @param endDate     End date of the first occurrence
+     * @param recurrence  Rule of the series
+     * @return Recurring Event task
+     * @throws DukeException If the dates are not valid or the series has too many occurrences
+     */
+    public static RecurringEvent createRecurringEvent(String description, String startDate, String endDate,
+            Recurrence recurrence) throws DukeException {
+        Event event = createEvent(description, startDate, endDate);
+        checkOccurrenceCount(recurrence, event.getDateTime());
+        return new RecurringEvent(description, event.getDateTime(), event.getEndDateTime(), recurrence);
+    }
 }
@@ -1,8 +1,12 @@
 package kokbot;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+
+import javax.management.JMException;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
@@ -13,7 +17,15 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
 
-    private Kokbot kokbot = new Kokbot();
+    /**
+     * Timer measuring the time taken to show the first frame and to load the tasks
+     */
+    private StartupTimer startupTimer = new StartupTimer(Paths.get("data", "startup.log"));
+
+    /**
+     * Kokbot whose tasks are only loaded after the window is shown
+     */
+    private Kokbot kokbot = new Kokbot(Paths.get("data", "kokbot.txt"), "KokBot", true);
 
     @Override
     public void start(Stage stage) {
@@ -22,10 +34,27 @@ public class Main extends Application {
             AnchorPane ap = fxmlLoader.load();
             Scene scene = new Scene(ap);
             stage.setScene(scene);
-            fxmlLoader.<MainWindow>getController().setKokbot(kokbot);
+            MainWindow mainWindow = fxmlLoader.<MainWindow>getController();
+            mainWindow.setKokbot(kokbot);
+            stage.setOnHidden(event -> mainWindow.shutdown());
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    startupTimer.markFirstFrame();
+                    // listeners are being run during the pulse, so this one is removed after it
+                    Runnable listener = this;
+                    Platform.runLater(() -> scene.removePostLayoutPulseListener(listener));
+                }
+            });
             stage.show();
+            mainWindow.loadTasks(startupTimer);
         } catch (IOException e) {
             e.printStackTrace();
         }
+        try {
+            kokbot.getMetrics().registerMBean();
+        } catch (JMException e) {
+            System.out.println("Error registering metrics: " + e.getMessage());
+        }
     }
 }
@@ -1,12 +1,24 @@
 package kokbot;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 
 import javafx.application.Platform;
 
@@ -16,16 +28,22 @@ import javafx.application.Platform;
 public class MainWindow extends AnchorPane {
 
     /**
-     * ScrollPane to contain the dialogContainer
+     * Virtualized list showing the chat history
+     */
+    @FXML
+    private ListView<ChatMessage> dialogList;
+
+    /**
+     * Table of the tasks, updated with each change batch published
      */
     @FXML
-    private ScrollPane scrollPane;
+    private TaskTable taskTable;
 
     /**
-     * Container for the dialog to display
+     * Progress of loading tasks, hidden once the tasks are ready
      */
     @FXML
-    private VBox dialogContainer;
+    private ProgressBar loadProgress;
 
     /**
      * Input field for user to enter commands
@@ -44,6 +62,45 @@ public class MainWindow extends AnchorPane {
      */
     private Kokbot kokbot;
 
+    /**
+     * Dispatcher which runs commands off the JavaFX application thread
+     */
+    private CommandDispatcher dispatcher;
+
+    /**
+     * Watcher of the data file for changes made by other programs, started once the tasks are loaded
+     */
+    private FileWatcher fileWatcher;
+
+    /**
+     * Retained chat history backing the dialogList
+     */
+    private ChatHistory history;
+
+    /**
+     * Popup of completions of the input typed so far
+     */
+    private final ContextMenu completionPopup = new ContextMenu();
+
+    /**
+     * Thread which looks up completions, so that typing never waits on the lookup
+     */
+    private final ExecutorService completionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kokbot-completion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Lookup of completions for the latest keystroke, cancelled by the next keystroke
+     */
+    private Future<?> pendingCompletion;
+
+    /**
+     * Whether a chosen completion is being put into the input field, so that it is not completed again
+     */
+    private boolean isApplyingCompletion;
+
     /**
      * Images for user and Kokbot
      */
@@ -52,9 +109,86 @@ public class MainWindow extends AnchorPane {
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        scrollPane.setFitToHeight(false);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
+        history = new ChatHistory(dialogList.getItems(), ChatHistory.getConfiguredLimit(),
+                Paths.get("data", "transcript.txt"));
+        dialogList.setCellFactory(list -> new DialogCell(userImage, kokbotImage));
+        userInput.textProperty().addListener((observable, oldText, text) -> {
+            if (!isApplyingCompletion) {
+                suggestCompletions(text);
+            }
+        });
+        userInput.focusedProperty().addListener((observable, wasFocused, isFocused) -> {
+            if (!isFocused) {
+                completionPopup.hide();
+            }
+        });
+        userInput.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.TAB && completionPopup.isShowing()
+                    && !completionPopup.getItems().isEmpty()) {
+                completionPopup.getItems().get(0).fire();
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * Looks up completions of the input off the JavaFX application thread, showing them if the input is unchanged
+     * by then. The lookup for the previous keystroke is cancelled if it has not started.
+     *
+     * @param text Input typed so far
+     */
+    private void suggestCompletions(String text) {
+        if (pendingCompletion != null) {
+            pendingCompletion.cancel(false);
+        }
+        if (text.isEmpty() || kokbot == null) {
+            completionPopup.hide();
+            return;
+        }
+        Completer completer = kokbot.getCompleter();
+        pendingCompletion = completionExecutor.submit(() -> {
+            List<String> completions = completer.complete(text, Completer.DEFAULT_LIMIT);
+            Platform.runLater(() -> {
+                // a later keystroke has already changed the input, so these completions are stale
+                if (text.equals(userInput.getText())) {
+                    showCompletions(completions);
+                }
+            });
+        });
+    }
+
+    /**
+     * Shows the completions in the popup above the input field, or hides the popup if there are none
+     *
+     * @param completions Completed inputs
+     */
+    private void showCompletions(List<String> completions) {
+        if (completions.isEmpty()) {
+            completionPopup.hide();
+            return;
+        }
+        completionPopup.getItems().clear();
+        for (String completion : completions) {
+            MenuItem item = new MenuItem(completion);
+            item.setMnemonicParsing(false);
+            item.setOnAction(event -> {
+                if (pendingCompletion != null) {
+                    pendingCompletion.cancel(false);
+                }
+                isApplyingCompletion = true;
+                try {
+                    userInput.setText(completion);
+                } finally {
+                    isApplyingCompletion = false;
+                }
+                userInput.positionCaret(completion.length());
+                completionPopup.hide();
+            });
+            completionPopup.getItems().add(item);
+        }
+        if (!completionPopup.isShowing()) {
+            completionPopup.show(userInput, Side.TOP, 0, 0);
+        }
     }
 
     /**
@@ -64,27 +198,99 @@ public class MainWindow extends AnchorPane {
      */
     public void setKokbot(Kokbot k) {
         kokbot = k;
+        dispatcher = new CommandDispatcher(k);
     }
 
     /**
-     * Produces and inserts user and Kokbot DialogBoxes to screen
-     * based on user input
+     * Loads the tasks in the background while showing the load progress.
+     * Commands entered meanwhile are carried out once loading finishes.
+     *
+     * @param timer Timer which records when the tasks are ready
+     */
+    public void loadTasks(StartupTimer timer) {
+        loadProgress.setVisible(true);
+        dispatcher.loadTasks(progress -> Platform.runLater(() -> loadProgress.setProgress(progress)))
+                .whenComplete((warning, error) -> Platform.runLater(() -> {
+                    loadProgress.setVisible(false);
+                    timer.markTasksReady();
+                    if (warning != null && !warning.isEmpty()) {
+                        showMessage(new ChatMessage(warning, false));
+                    }
+                    watchFile();
+                    showTasks();
+                }));
+    }
+
+    /**
+     * Subscribes the task table to task changes and asks for every task to fill it
+     */
+    private void showTasks() {
+        taskTable.setResync(dispatcher::publishReset);
+        kokbot.getChangePublisher().subscribe(taskTable);
+        dispatcher.publishReset();
+    }
+
+    /**
+     * Watches the data file, showing the changes made to it by other programs once they are applied
+     */
+    private void watchFile() {
+        try {
+            fileWatcher = new FileWatcher(kokbot.getFilePath(), () -> dispatcher.applyExternalChanges()
+                    .thenAccept(changes -> Platform.runLater(() -> {
+                        if (!changes.isEmpty()) {
+                            showMessage(new ChatMessage(changes, false));
+                        }
+                    })));
+            fileWatcher.start();
+        } catch (IOException e) {
+            System.out.println("Error watching data file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the dispatcher and the completion lookups once the window is closed, finishing the transcript
+     */
+    public void shutdown() {
+        completionExecutor.shutdownNow();
+        history.close();
+        if (fileWatcher != null) {
+            fileWatcher.close();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Inserts the user message to the chat history and dispatches the input to Kokbot.
+     * The response is inserted once the command completes, leaving the input field usable meanwhile.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = kokbot.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getKokbotDialog(response, kokbotImage)
-        );
+        showMessage(new ChatMessage(input, true));
         userInput.clear();
-        if (input.equalsIgnoreCase("bye")) {
-            closeMainWindow();
-        }
+        // the dispatcher completes futures in submission order and runLater preserves that order
+        dispatcher.submit(input).whenComplete((response, error) -> Platform.runLater(() -> {
+            String text = error == null ? response : "Error carrying out command: " + error.getMessage();
+            showMessage(new ChatMessage(text, false));
+            if (input.equalsIgnoreCase("bye")) {
+                closeMainWindow();
+            }
+        }));
+    }
+
+    /**
+     * Inserts a message to the chat history and scrolls to it
+     *
+     * @param message Message to be shown
+     */
+    private void showMessage(ChatMessage message) {
+        history.addAll(message);
+        dialogList.scrollTo(history.getSize() - 1);
     }
 
     private void closeMainWindow() {
         Platform.exit();
     }
-}
\ No newline at end of file
+}
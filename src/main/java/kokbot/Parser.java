@@ -1,5 +1,9 @@
 package kokbot;
 
+import kokbot.jfr.ParseEvent;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 
 /**
@@ -7,6 +11,11 @@ import java.util.Arrays;
  */
 public class Parser {
 
+    /**
+     * Prefix of a "find" keyword which is matched tolerating typos
+     */
+    public static final String FUZZY_PREFIX = "~";
+
     /**
      * Constructor for Parser
      */
@@ -22,6 +31,24 @@ public class Parser {
      */
     public Command parse(String input) throws DukeException {
         assert input != null : "Input string should not be null";
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        Command command = parseCommand(input);
+        if (event.shouldCommit()) {
+            event.inputLength = input.length();
+            event.commandType = command.type.name();
+            event.commit();
+        }
+        return command;
+    }
+
+    /**
+     * Parses the input string based on its command keyword
+     * @param input Input string
+     * @return Corresponding Command
+     * @throws DukeException If the input string is not a valid command
+     */
+    private Command parseCommand(String input) throws DukeException {
         String[] parts = input.split(" ");
         switch (parts[0]) {
             case "bye":
@@ -42,6 +69,22 @@ public class Parser {
                 return parseDelete(input);
             case "find":
                 return parseFind(input);
+            case "stats":
+                return new Command(Kokbot.CommandType.STATS);
+            case "upcoming":
+                return parseUpcoming(input);
+            case "agenda":
+                return parseAgenda(input);
+            case "filter":
+                return parseFilter(input);
+            case "import":
+                return parseTransfer(input, Kokbot.CommandType.IMPORT);
+            case "export":
+                return parseTransfer(input, Kokbot.CommandType.EXPORT);
+            case "dedupe":
+                return new Command(Kokbot.CommandType.DEDUPE);
+            case "summary":
+                return new Command(Kokbot.CommandType.SUMMARY);
             default:
                 throw new DukeException("Unknown command");
         }
@@ -60,11 +103,32 @@ public class Parser {
             return new Command(Kokbot.CommandType.LIST);
         }
 
+        if (parts.length == 2 && isPositiveNumber(parts[1])) {
+            return new Command(Kokbot.CommandType.LIST, new String[]{"", parts[1]});
+        }
+
         if (parts.length == 2) {
             return new Command(Kokbot.CommandType.LIST, new String[]{parts[1]});
         }
 
-        throw new DukeException("Unknown usage - \"list\" command should not have more than 2 arguments");
+        if (parts.length == 3 && isPositiveNumber(parts[2])) {
+            return new Command(Kokbot.CommandType.LIST, new String[]{parts[1], parts[2]});
+        }
+
+        throw new DukeException("Unknown usage - \"list\" command should be list [bytype/bydate/bydesc] [limit]");
+    }
+
+    /**
+     * Returns whether the string is a positive number
+     * @param string String to be checked
+     * @return Whether the string is a positive number
+     */
+    private static boolean isPositiveNumber(String string) {
+        try {
+            return Integer.parseInt(string) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 
     /**
@@ -78,10 +142,15 @@ public class Parser {
         String[] parts = input.split(" ");
         try {
             Integer.parseInt(parts[1]);
+            if (parts.length > 2) {
+                Integer.parseInt(parts[2]);
+                return new Command(commandType, new String[]{parts[1], parts[2]});
+            }
             String[] args = new String[]{parts[1]};
             return new Command(commandType, args);
         } catch (IndexOutOfBoundsException | NumberFormatException e) {
-            throw new DukeException("Incorrect usage - please provide the task number to be marked done");
+            throw new DukeException("Incorrect usage - please provide the task number to be marked done, "
+                    + "optionally followed by the occurrence number");
         }
     }
 
@@ -120,8 +189,9 @@ public class Parser {
             throw new DukeException("Unknown usage - /by not found in \"deadline\" command.");
         }
 
+        int everyIndex = indexOf(parts, "/every", byIndex);
         String deadlineDesc = String.join(" ", Arrays.copyOfRange(parts, 1, byIndex));
-        String dueDateStr = String.join(" ", Arrays.copyOfRange(parts, byIndex + 1, parts.length));
+        String dueDateStr = String.join(" ", Arrays.copyOfRange(parts, byIndex + 1, everyIndex));
 
         if (deadlineDesc.equals("")) {
             throw new DukeException("Unknown usage - description of \"deadline\" should not be empty.");
@@ -130,6 +200,11 @@ public class Parser {
             throw new DukeException("Unknown usage - due date of \"deadline\" should not be empty.");
         }
 
+        if (everyIndex < parts.length) {
+            String[] recurrence = parseRecurrence(parts, everyIndex, "deadline");
+            return new Command(Kokbot.CommandType.DEADLINE, new String[]{deadlineDesc, dueDateStr,
+                    recurrence[0], recurrence[1], recurrence[2]});
+        }
         return new Command(Kokbot.CommandType.DEADLINE, new String[]{deadlineDesc, dueDateStr});
     }
 
@@ -159,9 +234,10 @@ public class Parser {
             throw new DukeException("Unknown usage - /to not found in \"event\" command.");
         }
 
+        int everyIndex = indexOf(parts, "/every", toIndex);
         String description = String.join(" ", Arrays.copyOfRange(parts, 1, fromIndex));
         String startDateStr = String.join(" ", Arrays.copyOfRange(parts, fromIndex + 1, toIndex));
-        String endDateStr = String.join(" ", Arrays.copyOfRange(parts, toIndex + 1, parts.length));
+        String endDateStr = String.join(" ", Arrays.copyOfRange(parts, toIndex + 1, everyIndex));
 
         if (description.equals("")) {
             throw new DukeException("Unknown usage - description of \"event\" should not be empty.");
@@ -172,9 +248,137 @@ public class Parser {
         if (endDateStr.equals("")) {
             throw new DukeException("Unknown usage - end date of \"event\" should not be empty.");
         }
+        if (everyIndex < parts.length) {
+            String[] recurrence = parseRecurrence(parts, everyIndex, "event");
+            return new Command(Kokbot.CommandType.EVENT, new String[]{description, startDateStr, endDateStr,
+                    recurrence[0], recurrence[1], recurrence[2]});
+        }
         return new Command(Kokbot.CommandType.EVENT, new String[]{description, startDateStr, endDateStr});
     }
 
+    /**
+     * Parses the recurrence of a "deadline" or "event" command, given as
+     * "/every [daily/weekly/monthly] /until [dateTime]" or "/every [daily/weekly/monthly] /count [number]"
+     * @param parts Words of the input string
+     * @param everyIndex Index of "/every" within the words
+     * @param commandName Name of the command, for error messages
+     * @return Frequency, kind of end ("until" or "count") and end of the recurrence
+     * @throws DukeException If the recurrence is not valid
+     */
+    private String[] parseRecurrence(String[] parts, int everyIndex, String commandName) throws DukeException {
+        if (parts.length < everyIndex + 4) {
+            throw new DukeException(String.format("Unknown usage - recurrence of \"%s\" should be "
+                    + "/every [daily/weekly/monthly] followed by /until [dateTime] or /count [number].", commandName));
+        }
+        String frequency = parts[everyIndex + 1];
+        if (!frequency.equals("daily") && !frequency.equals("weekly") && !frequency.equals("monthly")) {
+            throw new DukeException("Unknown usage - recurrence should be daily, weekly or monthly.");
+        }
+        String endValue = String.join(" ", Arrays.copyOfRange(parts, everyIndex + 3, parts.length));
+        switch (parts[everyIndex + 2]) {
+            case "/until":
+                return new String[]{frequency, "until", endValue};
+            case "/count":
+                return new String[]{frequency, "count", endValue};
+            default:
+                throw new DukeException("Unknown usage - recurrence should end with /until or /count.");
+        }
+    }
+
+    /**
+     * Returns the index of the first word equal to the keyword after the given index
+     * @param parts Words of the input string
+     * @param keyword Word to search for
+     * @param fromIndex Index to start searching after
+     * @return Index of the keyword, or the number of words if it is not found
+     */
+    private static int indexOf(String[] parts, String keyword, int fromIndex) {
+        for (int i = fromIndex + 1; i < parts.length; i++) {
+            if (parts[i].equals(keyword)) {
+                return i;
+            }
+        }
+        return parts.length;
+    }
+
+    /**
+     * Parses the input string and returns the corresponding Command for "upcoming" command
+     * @param input Input string
+     * @return Corresponding Command
+     * @throws DukeException If the input string is not a valid "upcoming" command
+     */
+    public Command parseUpcoming(String input) throws DukeException {
+        String[] parts = input.split(" ");
+        if (parts.length == 1) {
+            return new Command(Kokbot.CommandType.UPCOMING, new String[]{"7"});
+        }
+        try {
+            if (parts.length > 2 || Integer.parseInt(parts[1]) < 0) {
+                throw new NumberFormatException();
+            }
+            return new Command(Kokbot.CommandType.UPCOMING, new String[]{parts[1]});
+        } catch (NumberFormatException e) {
+            throw new DukeException("Unknown usage - \"upcoming\" takes an optional number of days");
+        }
+    }
+
+    /**
+     * Parses the input string and returns the corresponding Command for "agenda" command
+     * @param input Input string
+     * @return Corresponding Command
+     * @throws DukeException If the input string is not a valid "agenda" command
+     */
+    public Command parseAgenda(String input) throws DukeException {
+        String[] parts = input.split(" ");
+        if (parts.length == 1) {
+            return new Command(Kokbot.CommandType.AGENDA, new String[]{"today"});
+        }
+        if (parts.length == 2 && (parts[1].equals("today") || parts[1].equals("week"))) {
+            return new Command(Kokbot.CommandType.AGENDA, new String[]{parts[1]});
+        }
+        try {
+            if (parts.length > 2) {
+                throw new DateTimeParseException("Too many arguments", input, 0);
+            }
+            YearMonth.parse(parts[1]);
+            return new Command(Kokbot.CommandType.AGENDA, new String[]{parts[1]});
+        } catch (DateTimeParseException e) {
+            throw new DukeException("Unknown usage - \"agenda\" should be agenda [today/week/yyyy-MM]");
+        }
+    }
+
+    /**
+     * Parses the input string and returns the corresponding Command for "filter" command
+     * @param input Input string
+     * @return Corresponding Command
+     * @throws DukeException If the input string is not a valid "filter" command
+     */
+    public Command parseFilter(String input) throws DukeException {
+        String query = input.substring("filter".length()).trim();
+        if (query.isEmpty()) {
+            throw new DukeException("Unknown usage - \"filter\" should be followed by terms such as "
+                    + "type:D done:no before:2026-12-01 desc:\"report\" sort:date limit:20");
+        }
+        return new Command(Kokbot.CommandType.FILTER, new String[]{query});
+    }
+
+    /**
+     * Parses the input string and returns the corresponding Command for "import" or "export" command
+     * @param input Input string
+     * @param type Type of command, either IMPORT or EXPORT
+     * @return Corresponding Command
+     * @throws DukeException If the input string is not a valid "import" or "export" command
+     */
+    public Command parseTransfer(String input, Kokbot.CommandType type) throws DukeException {
+        String name = type.name().toLowerCase();
+        String path = input.substring(name.length()).trim();
+        if (path.isEmpty()) {
+            throw new DukeException(String.format("Unknown usage - \"%s\" should be followed by a path "
+                    + "ending with .csv, .jsonl, .ndjson or .ics", name));
+        }
+        return new Command(type, new String[]{path});
+    }
+
     /**
      * Parses the input string and returns the corresponding Command for "delete" command
      * @param input Input string
@@ -200,7 +404,8 @@ public class Parser {
     }
 
     /**
-     * Parses the input string and returns the corresponding Command for "find" command
+     * Parses the input string and returns the corresponding Command for "find" command.
+     * A keyword starting with "~" is matched tolerating typos.
      * @param input Input string
      * @return Corresponding Command
      * @throws DukeException If the input string is not a valid "find" command
@@ -211,6 +416,10 @@ public class Parser {
             throw new DukeException("Unknown usage - keyword should be included in \"find\" command");
         }
         String keyword = input.substring(5);
+        if (keyword.startsWith(FUZZY_PREFIX) && keyword.length() > FUZZY_PREFIX.length()) {
+            return new Command(Kokbot.CommandType.FIND, new String[]{keyword.substring(FUZZY_PREFIX.length()),
+                FUZZY_PREFIX});
+        }
         return new Command(Kokbot.CommandType.FIND, new String[]{keyword});
     }
 }
@@ -0,0 +1,272 @@
+package kokbot;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Represents an immutable list which shares structure with the versions it was derived from.
+ * Elements are kept in a weight-balanced tree ordered by position, so getting, setting, inserting and removing
+ * an element at any position each take O(log n) and copy only the path to it. As a version never changes,
+ * it can be read from any thread without locks while newer versions are derived from it.
+ *
+ * @param <E> Type of the elements
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Largest ratio between the sizes of two sibling subtrees
+     */
+    private static final int DELTA = 3;
+
+    /**
+     * Ratio between the sizes of the inner and outer grandchildren from which a double rotation is needed
+     */
+    private static final int RATIO = 2;
+
+    private static final PersistentVector<Object> EMPTY = new PersistentVector<Object>(null);
+
+    private static final class Node<E> {
+        private final E value;
+        private final Node<E> left;
+        private final Node<E> right;
+        private final int size;
+
+        private Node(E value, Node<E> left, Node<E> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+    }
+
+    private final Node<E> root;
+
+    private PersistentVector(Node<E> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty vector
+     *
+     * @param <E> Type of the elements
+     * @return Empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Returns a vector of the elements of a list, built in O(n)
+     *
+     * @param elements Elements in order
+     * @param <E>      Type of the elements
+     * @return Vector of the elements
+     */
+    public static <E> PersistentVector<E> of(List<? extends E> elements) {
+        return elements.isEmpty() ? empty() : new PersistentVector<E>(build(elements, 0, elements.size()));
+    }
+
+    private static <E> Node<E> build(List<? extends E> elements, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node<E>(elements.get(middle), build(elements, from, middle), build(elements, middle + 1, to));
+    }
+
+    @Override
+    public E get(int index) {
+        checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns the vector with the element at a position replaced
+     *
+     * @param index   Position of the element
+     * @param element New element
+     * @return New version of the vector
+     */
+    public PersistentVector<E> with(int index, E element) {
+        checkIndex(index, size());
+        return new PersistentVector<E>(set(root, index, element));
+    }
+
+    /**
+     * Returns the vector with an element added to the end
+     *
+     * @param element Element to be added
+     * @return New version of the vector
+     */
+    public PersistentVector<E> plus(E element) {
+        return plus(size(), element);
+    }
+
+    /**
+     * Returns the vector with an element inserted at a position, shifting later elements back
+     *
+     * @param index   Position of the new element, from 0 to the size of the vector
+     * @param element Element to be inserted
+     * @return New version of the vector
+     */
+    public PersistentVector<E> plus(int index, E element) {
+        checkIndex(index, size() + 1);
+        return new PersistentVector<E>(insert(root, index, element));
+    }
+
+    /**
+     * Returns the vector with the element at a position removed, shifting later elements forward
+     *
+     * @param index Position of the element
+     * @return New version of the vector
+     */
+    public PersistentVector<E> minus(int index) {
+        checkIndex(index, size());
+        return new PersistentVector<E>(remove(root, index));
+    }
+
+    /**
+     * Iterates in order in O(n) overall, rather than finding each position from the root
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final ArrayDeque<Node<E>> path = new ArrayDeque<Node<E>>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node<E> node) {
+                for (; node != null; node = node.left) {
+                    path.push(node);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = path.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    /**
+     * Splits over a copy of the elements, which is far cheaper than finding each position from the root
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Spliterator<E> spliterator() {
+        return (Spliterator<E>) Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private static <E> Node<E> set(Node<E> node, int index, E element) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return new Node<E>(node.value, set(node.left, index, element), node.right);
+        } else if (index > leftSize) {
+            return new Node<E>(node.value, node.left, set(node.right, index - leftSize - 1, element));
+        }
+        return new Node<E>(element, node.left, node.right);
+    }
+
+    private static <E> Node<E> insert(Node<E> node, int index, E element) {
+        if (node == null) {
+            return new Node<E>(element, null, null);
+        }
+        int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            return balance(node.value, insert(node.left, index, element), node.right);
+        }
+        return balance(node.value, node.left, insert(node.right, index - leftSize - 1, element));
+    }
+
+    private static <E> Node<E> remove(Node<E> node, int index) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return balance(node.value, remove(node.left, index), node.right);
+        } else if (index > leftSize) {
+            return balance(node.value, node.left, remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.size > node.right.size) {
+            return balance(get(node.left, node.left.size - 1), remove(node.left, node.left.size - 1), node.right);
+        }
+        return balance(get(node.right, 0), node.left, remove(node.right, 0));
+    }
+
+    private static <E> E get(Node<E> node, int index) {
+        return new PersistentVector<E>(node).get(index);
+    }
+
+    /**
+     * Rebuilds a node whose subtrees have drifted out of balance by at most one insertion or removal
+     */
+    private static <E> Node<E> balance(E value, Node<E> left, Node<E> right) {
+        int leftSize = sizeOf(left);
+        int rightSize = sizeOf(right);
+        if (leftSize + rightSize <= 1) {
+            return new Node<E>(value, left, right);
+        }
+        if (rightSize > DELTA * leftSize) {
+            if (sizeOf(right.left) < RATIO * sizeOf(right.right)) {
+                return new Node<E>(right.value, new Node<E>(value, left, right.left), right.right);
+            }
+            return new Node<E>(right.left.value, new Node<E>(value, left, right.left.left),
+                    new Node<E>(right.value, right.left.right, right.right));
+        }
+        if (leftSize > DELTA * rightSize) {
+            if (sizeOf(left.right) < RATIO * sizeOf(left.left)) {
+                return new Node<E>(left.value, left.left, new Node<E>(value, left.right, right));
+            }
+            return new Node<E>(left.right.value, new Node<E>(left.value, left.left, left.right.left),
+                    new Node<E>(value, left.right.right, right));
+        }
+        return new Node<E>(value, left, right);
+    }
+}
@@ -0,0 +1,241 @@
+package kokbot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a compressed prefix trie of strings, each counted as many times as it was added.
+ * Each edge is labelled with a range of one of the strings added rather than a copy of it, and chains of nodes
+ * with a single child are merged, so the trie holds about two nodes for each distinct string.
+ * All methods are synchronized, as completions are looked up off the thread which changes the tasks.
+ */
+public class PrefixTrie {
+
+    private static class Node {
+
+        /**
+         * String whose range from start to end labels the edge into this node
+         */
+        private String source;
+        private int start;
+        private int end;
+
+        /**
+         * Children in order of the first character of their labels
+         */
+        private Node[] children = new Node[0];
+
+        /**
+         * Number of times the string ending at this node was added
+         */
+        private int count;
+
+        private Node(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        private int length() {
+            return end - start;
+        }
+
+        private char charAt(int i) {
+            return source.charAt(start + i);
+        }
+
+        /**
+         * Returns the position of the child whose label starts with c, or where it would be inserted
+         */
+        private int findChild(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void insertChild(int position, Node child) {
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newChildren[position] = child;
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            children = newChildren;
+        }
+
+        private void removeChild(int position) {
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(children, position + 1, newChildren, position, newChildren.length - position);
+            children = newChildren;
+        }
+    }
+
+    private final Node root = new Node("", 0, 0);
+    private int size;
+
+    /**
+     * Adds a string to the trie
+     *
+     * @param key String to be added
+     */
+    public synchronized void add(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int position = node.findChild(key.charAt(i));
+            if (position < 0) {
+                Node leaf = new Node(key, i, key.length());
+                leaf.count = 1;
+                node.insertChild(-position - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[position];
+            int common = getCommonLength(child, key, i);
+            if (common < child.length()) {
+                // splits the edge where the key leaves it
+                Node middle = new Node(child.source, child.start, child.start + common);
+                child.start += common;
+                middle.children = new Node[]{child};
+                node.children[position] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.count++ == 0) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes one count of a string from the trie, if it was added
+     *
+     * @param key String to be removed
+     */
+    public synchronized void remove(String key) {
+        Node parent = null;
+        int parentPosition = -1;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int position = node.findChild(key.charAt(i));
+            if (position < 0) {
+                return;
+            }
+            Node child = node.children[position];
+            int common = getCommonLength(child, key, i);
+            if (common < child.length()) {
+                return;
+            }
+            parent = node;
+            parentPosition = position;
+            node = child;
+            i += common;
+        }
+        if (node.count == 0 || --node.count > 0) {
+            return;
+        }
+        size--;
+        if (node == root) {
+            return;
+        }
+        if (node.children.length == 0) {
+            parent.removeChild(parentPosition);
+            if (parent != root && parent.count == 0 && parent.children.length == 1) {
+                mergeWithChild(parent);
+            }
+        } else if (node.children.length == 1) {
+            mergeWithChild(node);
+        }
+    }
+
+    /**
+     * Merges a node which holds no string into its only child
+     */
+    private static void mergeWithChild(Node node) {
+        Node child = node.children[0];
+        // the child's source holds the whole path up to the child, so it can label the merged edge
+        node.start = child.start - node.length();
+        node.source = child.source;
+        node.end = child.end;
+        node.count = child.count;
+        node.children = child.children;
+    }
+
+    /**
+     * Returns the strings starting with a prefix, in character order
+     *
+     * @param prefix Prefix of the strings
+     * @param limit  Largest number of strings returned
+     * @return Strings starting with the prefix, including the prefix itself if it was added
+     */
+    public synchronized List<String> complete(String prefix, int limit) {
+        List<String> completions = new ArrayList<String>();
+        Node node = root;
+        int i = 0;
+        StringBuilder path = new StringBuilder(prefix.length() + 32);
+        while (i < prefix.length()) {
+            int position = node.findChild(prefix.charAt(i));
+            if (position < 0) {
+                return completions;
+            }
+            Node child = node.children[position];
+            int common = getCommonLength(child, prefix, i);
+            if (common < child.length() && i + common < prefix.length()) {
+                return completions;
+            }
+            path.append(child.source, child.start, child.end);
+            node = child;
+            i += common;
+        }
+        collect(node, path, completions, limit);
+        return completions;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> completions, int limit) {
+        if (node.count > 0 && completions.size() < limit) {
+            completions.add(path.toString());
+        }
+        for (Node child : node.children) {
+            if (completions.size() >= limit) {
+                return;
+            }
+            int length = path.length();
+            path.append(child.source, child.start, child.end);
+            collect(child, path, completions, limit);
+            path.setLength(length);
+        }
+    }
+
+    /**
+     * Returns the number of distinct strings in the trie
+     *
+     * @return Number of distinct strings
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the common prefix of a node's label and the key from an offset
+     */
+    private static int getCommonLength(Node node, String key, int offset) {
+        int limit = Math.min(node.length(), key.length() - offset);
+        int common = 0;
+        while (common < limit && node.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+}
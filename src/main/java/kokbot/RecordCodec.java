@@ -0,0 +1,107 @@
+package kokbot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Represents the encoding of task records in the data file.
+ * Fields are separated by commas, and commas, backslashes and line breaks within a field are escaped
+ * with a backslash. A record may be followed by a tab and the CRC-32 of its bytes in 8 hex digits.
+ */
+public class RecordCodec {
+
+    /**
+     * Separator of fields within a record
+     */
+    public static final byte SEPARATOR = ',';
+
+    /**
+     * Escape character within a field
+     */
+    public static final byte ESCAPE = '\\';
+
+    /**
+     * Separator of a record from its checksum, which never appears unescaped within a record
+     */
+    public static final byte CHECKSUM_SEPARATOR = '\t';
+
+    /**
+     * Start of a header line, which no record starts with as records start with their task type
+     */
+    public static final String HEADER_PREFIX = "#";
+
+    /**
+     * Number of hex digits of a checksum
+     */
+    public static final int CHECKSUM_LENGTH = 8;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Escapes a field so that it can be written within a record
+     *
+     * @param field Field to be escaped
+     * @return Escaped field
+     */
+    public static String escape(String field) {
+        int i = 0;
+        while (i < field.length() && !needsEscape(field.charAt(i))) {
+            i++;
+        }
+        if (i == field.length()) {
+            return field;
+        }
+        StringBuilder escaped = new StringBuilder(field.length() + 8);
+        escaped.append(field, 0, i);
+        for (; i < field.length(); i++) {
+            char c = field.charAt(i);
+            switch (c) {
+            case '\n':
+                escaped.append("\\n");
+                break;
+            case '\r':
+                escaped.append("\\r");
+                break;
+            case '\t':
+                escaped.append("\\t");
+                break;
+            case ',':
+            case '\\':
+                escaped.append('\\').append(c);
+                break;
+            default:
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static boolean needsEscape(char c) {
+        return c == ',' || c == '\\' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Writes a record as a line, followed by its checksum if asked for
+     *
+     * @param out          Stream to be written to
+     * @param record       Record whose fields are already escaped
+     * @param hasChecksum  Whether the checksum of the record is written
+     * @param lineSeparator Bytes which end the line
+     */
+    public static void writeLine(ByteArrayOutputStream out, String record, boolean hasChecksum,
+            byte[] lineSeparator) {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        if (hasChecksum) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length);
+            out.write(CHECKSUM_SEPARATOR);
+            long value = crc.getValue();
+            for (int shift = (CHECKSUM_LENGTH - 1) * 4; shift >= 0; shift -= 4) {
+                out.write(HEX_DIGITS[(int) (value >>> shift) & 0xf]);
+            }
+        }
+        out.write(lineSeparator, 0, lineSeparator.length);
+    }
+}
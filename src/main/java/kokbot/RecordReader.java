@@ -0,0 +1,240 @@
+package kokbot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Represents a reader of the records of the data file, decoding the bytes of a buffer in place.
+ * Each line is split and unescaped in a single pass, without regular expressions or intermediate strings.
+ */
+public class RecordReader {
+
+    /**
+     * Buffer holding the contents of the file, read from its position up to its limit
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Fields of the current record
+     */
+    private final List<String> fields = new ArrayList<String>();
+
+    /**
+     * Reusable buffer for the unescaped bytes of a field
+     */
+    private byte[] fieldBytes = new byte[128];
+
+    private final CRC32 crc = new CRC32();
+
+    private long lineNumber = 0;
+
+    /**
+     * Bounds of the current record within the buffer, excluding its checksum
+     */
+    private int recordStart;
+    private int recordEnd;
+
+    /**
+     * Reason the current line is corrupt, or null if it is not
+     */
+    private String error;
+
+    /**
+     * Constructor for RecordReader
+     *
+     * @param buffer Buffer holding the contents of the file
+     */
+    public RecordReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Moves to the next line of the buffer
+     *
+     * @return Whether there is a next line
+     */
+    public boolean next() {
+        fields.clear();
+        error = null;
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        lineNumber++;
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int end = start;
+        int checksumStart = -1;
+        while (end < limit) {
+            byte b = buffer.get(end);
+            if (b == '\n') {
+                break;
+            } else if (b == RecordCodec.CHECKSUM_SEPARATOR && checksumStart < 0) {
+                checksumStart = end;
+            }
+            end++;
+        }
+        buffer.position(end < limit ? end + 1 : limit);
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        recordStart = start;
+        recordEnd = end;
+        if (checksumStart >= 0) {
+            recordEnd = checksumStart;
+            if (!hasValidChecksum(start, checksumStart, end)) {
+                return true;
+            }
+        }
+        decodeFields(start, recordEnd);
+        return true;
+    }
+
+    /**
+     * Checks the checksum between checksumStart and end against the record between start and checksumStart
+     */
+    private boolean hasValidChecksum(int start, int checksumStart, int end) {
+        long expected = 0;
+        if (end - checksumStart - 1 != RecordCodec.CHECKSUM_LENGTH) {
+            error = "malformed checksum";
+            return false;
+        }
+        for (int i = checksumStart + 1; i < end; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) {
+                error = "malformed checksum";
+                return false;
+            }
+            expected = (expected << 4) | digit;
+        }
+        crc.reset();
+        int position = buffer.position();
+        int limit = buffer.limit();
+        buffer.limit(checksumStart).position(start);
+        crc.update(buffer);
+        buffer.limit(limit).position(position);
+        if (crc.getValue() != expected) {
+            error = "checksum mismatch";
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Splits the record between start and end into unescaped fields
+     */
+    private void decodeFields(int start, int end) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == RecordCodec.SEPARATOR) {
+                fields.add(new String(fieldBytes, 0, length, StandardCharsets.UTF_8));
+                length = 0;
+                continue;
+            }
+            if (b == RecordCodec.ESCAPE && i + 1 < end) {
+                byte escaped = buffer.get(i + 1);
+                byte unescaped = unescape(escaped);
+                if (unescaped != 0) {
+                    b = unescaped;
+                    i++;
+                }
+                // an unknown escape is kept as written, as files from before escaping may hold backslashes
+            }
+            if (length == fieldBytes.length) {
+                byte[] grown = new byte[length * 2];
+                System.arraycopy(fieldBytes, 0, grown, 0, length);
+                fieldBytes = grown;
+            }
+            fieldBytes[length++] = b;
+        }
+        fields.add(new String(fieldBytes, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private static byte unescape(byte escaped) {
+        switch (escaped) {
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case ',':
+            return ',';
+        case '\\':
+            return '\\';
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the fields of the current record, valid until the next call of next
+     *
+     * @return Fields of the current record, empty if the line is corrupt
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the current record as written, with its fields still escaped and without its checksum
+     *
+     * @return Current record as written
+     */
+    public String getRecord() {
+        byte[] bytes = new byte[recordEnd - recordStart];
+        ByteBuffer record = buffer.duplicate();
+        record.limit(recordEnd).position(recordStart);
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns whether the current line is a header, which holds information about the file rather than a task
+     *
+     * @return Whether the current line is a header
+     */
+    public boolean isHeader() {
+        return error == null && fields.get(0).startsWith(RecordCodec.HEADER_PREFIX);
+    }
+
+    /**
+     * Returns whether the current line is blank
+     *
+     * @return Whether the current line is blank
+     */
+    public boolean isBlank() {
+        return error == null && fields.size() == 1 && fields.get(0).isEmpty();
+    }
+
+    /**
+     * Returns the reason the current line is corrupt
+     *
+     * @return Reason the current line is corrupt, or null if it is not
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Returns the number of the current line
+     *
+     * @return Number of the current line, starting from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the number of bytes read so far
+     *
+     * @return Number of bytes read so far
+     */
+    public int getBytesRead() {
+        return buffer.position();
+    }
+}
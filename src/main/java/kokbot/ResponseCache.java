@@ -0,0 +1,102 @@
+package kokbot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Represents a bounded cache of rendered responses to read-only commands, evicting the least recently used.
+ * Responses are keyed by the command and the version of the task list they were rendered from,
+ * so any change to the tasks leaves older responses unreachable until they are evicted.
+ */
+public class ResponseCache {
+
+    /**
+     * Number of responses kept when none is configured
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Represents the key of a cached response
+     */
+    private static class Key {
+        private final Command command;
+        private final long version;
+
+        Key(Command command, long version) {
+            this.command = command;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return version == key.version && command.equals(key.command);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(command, version);
+        }
+    }
+
+    private final Map<Key, String> responses;
+
+    /**
+     * Constructor for ResponseCache
+     *
+     * @param capacity Largest number of responses kept
+     */
+    public ResponseCache(int capacity) {
+        this.responses = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of responses kept, set with -Dkokbot.cache.size
+     *
+     * @return Number of responses kept, 0 to disable caching
+     */
+    public static int getConfiguredCapacity() {
+        return Integer.getInteger("kokbot.cache.size", DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the response to a command rendered from the given version of the task list
+     *
+     * @param command Command carried out
+     * @param version Version of the task list
+     * @return Cached response, or null if there is none
+     */
+    public String get(Command command, long version) {
+        return responses.get(new Key(command, version));
+    }
+
+    /**
+     * Caches the response to a command rendered from the given version of the task list
+     *
+     * @param command  Command carried out
+     * @param version  Version of the task list
+     * @param response Response rendered
+     */
+    public void put(Command command, long version, String response) {
+        responses.put(new Key(command, version), response);
+    }
+
+    /**
+     * Removes all cached responses, such as when the task list is replaced
+     */
+    public void clear() {
+        responses.clear();
+    }
+
+    public int getSize() {
+        return responses.size();
+    }
+}
@@ -0,0 +1,228 @@
+package kokbot;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Represents the rolling gzip snapshots of a data file, kept in a directory beside it.
+ * Each snapshot is compressed into a temporary file which is synced and then renamed into place,
+ * so a snapshot is either whole or absent. Only the newest snapshots are kept.
+ */
+public class SnapshotStore {
+
+    /**
+     * Represents a snapshot which was taken
+     */
+    public static class Snapshot {
+        private final Path path;
+        private final long originalBytes;
+        private final long compressedBytes;
+        private final long nanos;
+
+        private Snapshot(Path path, long originalBytes, long compressedBytes, long nanos) {
+            this.path = path;
+            this.originalBytes = originalBytes;
+            this.compressedBytes = compressedBytes;
+            this.nanos = nanos;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getOriginalBytes() {
+            return originalBytes;
+        }
+
+        public long getCompressedBytes() {
+            return compressedBytes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Format of the time in snapshot names, which sorts in the order the snapshots were taken
+     */
+    private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final String SUFFIX = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Data file which is snapshotted
+     */
+    private final Path filePath;
+
+    /**
+     * Directory holding the snapshots
+     */
+    private final Path directory;
+
+    /**
+     * Largest number of snapshots kept, or 0 if no snapshots are taken
+     */
+    private final int retainedCount;
+
+    /**
+     * Least time between two snapshots, in nanoseconds
+     */
+    private final long intervalNanos;
+
+    /**
+     * When the last snapshot was taken, and the checksum of the file it was taken of
+     */
+    private long lastSnapshotTime;
+    private long lastChecksum = -1;
+
+    /**
+     * Constructor for SnapshotStore
+     *
+     * @param filePath        Data file which is snapshotted
+     * @param directory       Directory holding the snapshots
+     * @param retainedCount   Largest number of snapshots kept, or 0 to take none
+     * @param intervalSeconds Least time between two snapshots, in seconds
+     */
+    public SnapshotStore(Path filePath, Path directory, int retainedCount, long intervalSeconds) {
+        this.filePath = filePath;
+        this.directory = directory;
+        this.retainedCount = retainedCount;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+    }
+
+    /**
+     * Returns the snapshot store of a data file as configured by -Dkokbot.snapshot.dir (by default "snapshots"
+     * beside the file), -Dkokbot.snapshot.retain (10 by default, 0 to take none) and
+     * -Dkokbot.snapshot.interval (300 seconds by default)
+     *
+     * @param filePath Data file which is snapshotted
+     * @return Configured snapshot store
+     */
+    public static SnapshotStore createConfigured(Path filePath) {
+        String directory = System.getProperty("kokbot.snapshot.dir");
+        return new SnapshotStore(filePath,
+                directory == null ? filePath.toAbsolutePath().resolveSibling("snapshots") : Path.of(directory),
+                Integer.getInteger("kokbot.snapshot.retain", 10),
+                Long.getLong("kokbot.snapshot.interval", 300));
+    }
+
+    /**
+     * Returns whether a snapshot should be taken of the file: snapshots are enabled, the interval has passed
+     * since the last one and the file changed since
+     *
+     * @param checksum Checksum of the file as last written
+     * @return Whether a snapshot is due
+     */
+    public boolean isDue(long checksum) {
+        return retainedCount > 0 && checksum != lastChecksum
+                && (lastChecksum < 0 || System.nanoTime() - lastSnapshotTime >= intervalNanos);
+    }
+
+    /**
+     * Takes a snapshot of the file by streaming it through gzip, then drops the oldest snapshots beyond those kept
+     *
+     * @param checksum Checksum of the file as last written
+     * @return Snapshot taken
+     * @throws IOException If there is an error reading the file or writing the snapshot
+     */
+    public Snapshot take(long checksum) throws IOException {
+        long startTime = System.nanoTime();
+        Files.createDirectories(directory);
+        Path target = getNewPath();
+        Path temporary = Files.createTempFile(directory, filePath.getFileName().toString(), ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(filePath);
+                    FileOutputStream file = new FileOutputStream(temporary.toFile());
+                    GZIPOutputStream out = new GZIPOutputStream(file, BUFFER_SIZE)) {
+                in.transferTo(out);
+                out.finish();
+                file.getFD().sync();
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        lastSnapshotTime = System.nanoTime();
+        lastChecksum = checksum;
+        prune();
+        return new Snapshot(target, Files.size(filePath), Files.size(target), lastSnapshotTime - startTime);
+    }
+
+    /**
+     * Returns the path of a new snapshot, named after the current time or a later one if that name is taken
+     */
+    private Path getNewPath() {
+        LocalDateTime time = LocalDateTime.now();
+        Path path;
+        do {
+            path = directory.resolve(filePath.getFileName() + "." + time.format(NAME_FORMATTER) + SUFFIX);
+            time = time.plusNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        } while (Files.exists(path));
+        return path;
+    }
+
+    /**
+     * Deletes the oldest snapshots beyond those kept
+     */
+    private void prune() throws IOException {
+        List<Path> snapshots = getSnapshots();
+        for (int i = retainedCount; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /**
+     * Returns the snapshots of the file, newest first
+     *
+     * @return Paths of the snapshots, newest first
+     * @throws IOException If there is an error listing the directory
+     */
+    public List<Path> getSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<Path>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        String glob = filePath.getFileName() + ".*" + SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        }
+        snapshots.sort(Collections.reverseOrder());
+        return snapshots;
+    }
+
+    /**
+     * Reads the contents of a snapshot, which gzip checks against the length and CRC in its trailer
+     *
+     * @param snapshot Path of the snapshot
+     * @return Contents of the data file when the snapshot was taken
+     * @throws IOException If the snapshot cannot be read or is damaged
+     */
+    public static byte[] read(Path snapshot) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshot), BUFFER_SIZE)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package kokbot;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Represents the measurement of startup time, from process start to the first frame
+ * and from the first frame to the tasks being ready
+ */
+public class StartupTimer {
+
+    /**
+     * Time the process started in epoch milliseconds
+     */
+    private final long processStartMillis;
+
+    /**
+     * Time the first frame was shown in epoch milliseconds, or -1 if not yet shown
+     */
+    private volatile long firstFrameMillis = -1;
+
+    /**
+     * Time the tasks were ready in epoch milliseconds, or -1 if not yet ready
+     */
+    private volatile long tasksReadyMillis = -1;
+
+    /**
+     * Path of the log which each completed measurement is appended to
+     */
+    private final Path logPath;
+
+    /**
+     * Constructor for StartupTimer
+     *
+     * @param logPath Path of the log which each completed measurement is appended to
+     */
+    public StartupTimer(Path logPath) {
+        this.processStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        this.logPath = logPath;
+    }
+
+    /**
+     * Records that the first frame has been shown
+     */
+    public void markFirstFrame() {
+        if (firstFrameMillis < 0) {
+            firstFrameMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Records that the tasks are ready and logs the measurement
+     */
+    public void markTasksReady() {
+        if (tasksReadyMillis >= 0) {
+            return;
+        }
+        tasksReadyMillis = System.currentTimeMillis();
+        markFirstFrame();
+        log();
+    }
+
+    /**
+     * Returns the milliseconds from process start to the first frame
+     *
+     * @return Milliseconds taken, or -1 if the first frame is not yet shown
+     */
+    public long getTimeToFirstFrame() {
+        return firstFrameMillis < 0 ? -1 : firstFrameMillis - processStartMillis;
+    }
+
+    /**
+     * Returns the milliseconds from the first frame to the tasks being ready
+     *
+     * @return Milliseconds taken, or -1 if the tasks are not yet ready
+     */
+    public long getTimeToTasksReady() {
+        return tasksReadyMillis < 0 ? -1 : tasksReadyMillis - firstFrameMillis;
+    }
+
+    /**
+     * Appends the measurement to the log as "time,firstFrameMs,tasksReadyMs"
+     */
+    private void log() {
+        String line = String.format("%s,%d,%d%n", LocalDateTime.now(), getTimeToFirstFrame(), getTimeToTasksReady());
+        try {
+            Files.createDirectories(logPath.toAbsolutePath().getParent());
+            Files.write(logPath, line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Error writing startup log: " + e.getMessage());
+        }
+    }
+}
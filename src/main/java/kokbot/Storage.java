@@ -1,19 +1,32 @@
 package kokbot;
 
+import kokbot.jfr.StorageEvent;
 import kokbot.task.Deadline;
 import kokbot.task.Event;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.RecurringEvent;
 import kokbot.task.Task;
 import kokbot.task.Todo;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32;
 
 /**
  * Represents the file storage of tasks
@@ -25,13 +38,62 @@ public class Storage {
      */
     protected Path filePath;
 
+    /**
+     * Whether each line is written with a checksum, so that corrupt lines can be skipped on loading
+     */
+    protected boolean hasChecksums = Boolean.parseBoolean(System.getProperty("kokbot.storage.checksum", "true"));
+
+    /**
+     * Lines skipped by the last load, each as "line N: reason"
+     */
+    private final List<String> skippedLines = new ArrayList<String>();
+
+    /**
+     * Header written before the records, or null if there is none
+     */
+    private String header;
+
+    /**
+     * Size, modification time and checksum of the file as last loaded or written by Kokbot,
+     * to tell changes made by other programs apart from Kokbot's own
+     */
+    private long lastSize = -1;
+    private FileTime lastModifiedTime;
+    private long lastChecksum = -1;
+
+    /**
+     * Rolling compressed snapshots of the file, which the file is restored from when it is lost or unreadable
+     */
+    private SnapshotStore snapshots;
+
+    /**
+     * Snapshot the last load restored the file from, or null if the file itself was loaded
+     */
+    private Path restoredSnapshot;
+
+    /**
+     * Snapshots the last load could not read while restoring the file, each as "name: reason"
+     */
+    private final List<String> damagedSnapshots = new ArrayList<String>();
+
     /**
      * Constructor for Storage
      *
      * @param newFilePath Path of the file
      */
     public Storage(Path newFilePath) {
+        this(newFilePath, SnapshotStore.createConfigured(newFilePath));
+    }
+
+    /**
+     * Constructor for Storage
+     *
+     * @param newFilePath Path of the file
+     * @param snapshots   Snapshots of the file
+     */
+    public Storage(Path newFilePath, SnapshotStore snapshots) {
         this.filePath = newFilePath;
+        this.snapshots = snapshots;
     }
 
     /**
@@ -45,7 +107,9 @@ public class Storage {
         File file = path.toFile();
         if (!file.exists()) {
             try {
-                file.getParentFile().mkdirs();
+                if (file.getParentFile() != null) {
+                    file.getParentFile().mkdirs();
+                }
                 file.createNewFile();
             } catch (IOException e) {
                 throw new DukeException("Error creating file");
@@ -58,21 +122,31 @@ public class Storage {
      * Updates the file with the given list of task Strings
      *
      * @param tasks list of task Strings to be written to the file
+     * @return Number of bytes written
      * @throws DukeException If there is an error updating the file
      */
-    public void updateFile(String[] tasks) throws DukeException {
-        File file;
-
-        file = getFile(filePath);
+    public long updateFile(String[] tasks) throws DukeException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        getFile(filePath);
 
+        ByteArrayOutputStream content = new ByteArrayOutputStream(tasks.length * 64);
+        byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        if (header != null) {
+            RecordCodec.writeLine(content, RecordCodec.HEADER_PREFIX + header, hasChecksums, lineSeparator);
+        }
+        for (String task : tasks) {
+            RecordCodec.writeLine(content, task, hasChecksums, lineSeparator);
+        }
+        byte[] bytes = content.toByteArray();
         try {
-            List<String> lines = Files.readAllLines(filePath);
-            lines.clear();
-            lines.addAll(Arrays.asList(tasks));
-            Files.write(filePath, lines);
+            Files.write(filePath, bytes);
+            recordFingerprint(bytes);
         } catch (IOException e) {
             throw new DukeException("Error updating file");
         }
+        commitEvent(event, "update", tasks.length, bytes.length);
+        return bytes.length;
     }
 
     /**
@@ -82,33 +156,393 @@ public class Storage {
      * @throws DukeException If there is an error loading the file
      */
     public ArrayList<Task> load() throws DukeException {
-        File file;
+        return load(progress -> { });
+    }
 
-        file = getFile(filePath);
+    /**
+     * Loads the file and returns the list of parsed Task objects, reporting the progress made.
+     * Corrupt lines are skipped and can be retrieved through getSkippedLines.
+     *
+     * @param progress Receives the fraction of the file loaded so far, at most once per percent
+     * @return List of tasks
+     * @throws DukeException If there is an error loading the file
+     */
+    public ArrayList<Task> load(DoubleConsumer progress) throws DukeException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        restoredSnapshot = null;
+        damagedSnapshots.clear();
+        boolean isMissing = !Files.exists(filePath);
+        ByteBuffer buffer = readFile();
+        ArrayList<Task> tasks = parseTasks(buffer, progress);
+        if (isMissing || (tasks.isEmpty() && !skippedLines.isEmpty())) {
+            ArrayList<Task> restoredTasks = restore(isMissing);
+            if (restoredTasks != null) {
+                tasks = restoredTasks;
+            }
+        }
+        progress.accept(1.0);
+        commitEvent(event, restoredSnapshot == null ? "load" : "restore", tasks.size(), buffer.limit());
+        return tasks;
+    }
 
+    /**
+     * Parses the records of the contents of the file, skipping corrupt lines
+     *
+     * @param buffer   Contents of the file
+     * @param progress Receives the fraction of the contents parsed so far, at most once per percent
+     * @return List of tasks
+     */
+    private ArrayList<Task> parseTasks(ByteBuffer buffer, DoubleConsumer progress) {
+        skippedLines.clear();
+        header = null;
+        long totalBytes = Math.max(buffer.limit(), 1);
+        long nextReport = 0;
         ArrayList<Task> tasks = new ArrayList<Task>();
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                String[] parts = line.split(",");
-                switch (parts[0]) {
-                    case "T":
-                        tasks.add(new Todo(parts[2]));
-                        break;
-                    case "D":
-                        tasks.add(new Deadline(parts[2], parts[3]));
-                        break;
-                    case "E":
-                        tasks.add(new Event(parts[2], parts[3], parts[4]));
-                        break;
-                }
-                if (parts[1].equals("X")) {
-                    tasks.get(tasks.size() - 1).markAsDone();
+        RecordReader reader = new RecordReader(buffer);
+        while (reader.next()) {
+            if (reader.getBytesRead() >= nextReport) {
+                progress.accept(Math.min(1.0, (double) reader.getBytesRead() / totalBytes));
+                nextReport = reader.getBytesRead() + totalBytes / 100;
+            }
+            if (reader.getError() != null) {
+                skipLine(reader.getLineNumber(), reader.getError());
+            } else if (reader.isHeader()) {
+                header = reader.getRecord().substring(RecordCodec.HEADER_PREFIX.length());
+            } else if (!reader.isBlank()) {
+                try {
+                    tasks.add(parseTask(reader.getFields()));
+                } catch (DukeException | DateTimeParseException | IllegalArgumentException e) {
+                    skipLine(reader.getLineNumber(), e.getMessage());
                 }
             }
-        } catch (FileNotFoundException e) {
-            System.out.println("File not found: " + e.getMessage());
         }
         return tasks;
     }
+
+    /**
+     * Restores the file from the newest snapshot which decompresses and parses without skipping a line.
+     * An unreadable file is first kept aside as "kokbot.txt.corrupt" so nothing is lost.
+     *
+     * @param isMissing Whether the file was missing rather than unreadable
+     * @return Tasks of the snapshot restored, or null if no snapshot could be restored
+     * @throws DukeException If there is an error writing the restored file
+     */
+    private ArrayList<Task> restore(boolean isMissing) throws DukeException {
+        List<String> fileSkippedLines = new ArrayList<String>(skippedLines);
+        String fileHeader = header;
+        List<Path> candidates;
+        try {
+            candidates = snapshots.getSnapshots();
+        } catch (IOException e) {
+            candidates = Collections.emptyList();
+        }
+        for (Path snapshot : candidates) {
+            byte[] bytes;
+            try {
+                bytes = SnapshotStore.read(snapshot);
+            } catch (IOException e) {
+                damagedSnapshots.add(snapshot.getFileName() + ": " + e.getMessage());
+                continue;
+            }
+            ArrayList<Task> tasks = parseTasks(ByteBuffer.wrap(bytes), progress -> { });
+            if (!skippedLines.isEmpty()) {
+                continue;
+            }
+            try {
+                if (!isMissing) {
+                    Files.copy(filePath, getCorruptPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.write(filePath, bytes);
+                recordFingerprint(bytes);
+            } catch (IOException e) {
+                throw new DukeException("Error restoring file");
+            }
+            restoredSnapshot = snapshot;
+            return tasks;
+        }
+        skippedLines.clear();
+        skippedLines.addAll(fileSkippedLines);
+        header = fileHeader;
+        return null;
+    }
+
+    private Path getCorruptPath() {
+        return filePath.resolveSibling(filePath.getFileName() + ".corrupt");
+    }
+
+    /**
+     * Returns the snapshot the last load restored the file from
+     *
+     * @return Path of the snapshot restored, or null if the file itself was loaded
+     */
+    public Path getRestoredSnapshot() {
+        return restoredSnapshot;
+    }
+
+    /**
+     * Returns the snapshots the last load could not read while restoring the file
+     *
+     * @return Damaged snapshots, each as "name: reason"
+     */
+    public List<String> getDamagedSnapshots() {
+        return damagedSnapshots;
+    }
+
+    /**
+     * Takes a compressed snapshot of the file if the snapshot interval has passed and the file changed since
+     * the last one
+     *
+     * @return Snapshot taken, or null if none was due
+     * @throws DukeException If there is an error taking the snapshot
+     */
+    public SnapshotStore.Snapshot takeSnapshotIfDue() throws DukeException {
+        if (lastChecksum < 0 || !snapshots.isDue(lastChecksum)) {
+            return null;
+        }
+        try {
+            return snapshots.take(lastChecksum);
+        } catch (IOException e) {
+            throw new DukeException("Error taking snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the whole file into a buffer, noting its fingerprint
+     *
+     * @return Buffer holding the contents of the file
+     * @throws DukeException If there is an error reading the file
+     */
+    private ByteBuffer readFile() throws DukeException {
+        try {
+            byte[] bytes = Files.readAllBytes(getFile(filePath).toPath());
+            recordFingerprint(bytes);
+            return ByteBuffer.wrap(bytes);
+        } catch (IOException e) {
+            throw new DukeException("Error loading file");
+        }
+    }
+
+    private void recordFingerprint(byte[] bytes) throws IOException {
+        lastSize = bytes.length;
+        lastModifiedTime = Files.getLastModifiedTime(filePath);
+        lastChecksum = getChecksum(bytes);
+    }
+
+    private static long getChecksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Returns whether another program changed the file since Kokbot last loaded or wrote it.
+     * The contents are only read when the size or modification time of the file differ.
+     *
+     * @return Whether the file was changed by another program
+     */
+    public boolean hasExternalChanges() {
+        if (lastChecksum < 0 || !Files.exists(filePath)) {
+            // a deleted file is recreated by the next save rather than emptying the task list
+            return false;
+        }
+        try {
+            if (Files.size(filePath) == lastSize && Files.getLastModifiedTime(filePath).equals(lastModifiedTime)) {
+                return false;
+            }
+            return getChecksum(Files.readAllBytes(filePath)) != lastChecksum;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compares the records of the file with the records of the tasks in memory.
+     * Records are matched by their content, so only records which differ are parsed.
+     * Corrupt lines are skipped and can be retrieved through getSkippedLines.
+     *
+     * @param fileStrings Records of the tasks in memory, in order
+     * @return Differences between the tasks in memory and the file
+     * @throws DukeException If there is an error reading the file
+     */
+    public FileDiff diff(String[] fileStrings) throws DukeException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        skippedLines.clear();
+        long previousChecksum = lastChecksum;
+        ByteBuffer buffer = readFile();
+        if (lastChecksum == previousChecksum) {
+            // the file is as Kokbot last loaded or wrote it, such as after Kokbot's own save
+            return new FileDiff(new ArrayList<Integer>(), new ArrayList<Task>(), new ArrayList<Integer>());
+        }
+
+        Map<String, Deque<Integer>> unmatchedIndexes = new HashMap<String, Deque<Integer>>();
+        for (int i = 0; i < fileStrings.length; i++) {
+            unmatchedIndexes.computeIfAbsent(fileStrings[i], record -> new ArrayDeque<Integer>()).add(i);
+        }
+        boolean[] isMatched = new boolean[fileStrings.length];
+        List<Task> newTasks = new ArrayList<Task>();
+        List<Integer> newAnchors = new ArrayList<Integer>();
+        // index in memory after the task of the last record of the file which is still in memory
+        int anchor = 0;
+        RecordReader reader = new RecordReader(buffer);
+        while (reader.next()) {
+            if (reader.getError() != null) {
+                skipLine(reader.getLineNumber(), reader.getError());
+                continue;
+            } else if (reader.isBlank() || reader.isHeader()) {
+                continue;
+            }
+            Deque<Integer> indexes = unmatchedIndexes.get(reader.getRecord());
+            if (indexes != null && !indexes.isEmpty()) {
+                int matched = indexes.poll();
+                isMatched[matched] = true;
+                anchor = matched + 1;
+                continue;
+            }
+            try {
+                newTasks.add(parseTask(reader.getFields()));
+                newAnchors.add(anchor);
+            } catch (DukeException | DateTimeParseException | IllegalArgumentException e) {
+                skipLine(reader.getLineNumber(), e.getMessage());
+            }
+        }
+        List<Integer> staleIndexes = new ArrayList<Integer>();
+        for (int i = 0; i < fileStrings.length && skippedLines.isEmpty(); i++) {
+            // a skipped line may be the record of any unmatched task, so none are dropped
+            if (!isMatched[i]) {
+                staleIndexes.add(i);
+            }
+        }
+        commitEvent(event, "diff", staleIndexes.size() + newTasks.size(), buffer.limit());
+        return new FileDiff(staleIndexes, newTasks, newAnchors);
+    }
+
+    /**
+     * Returns the header of the file as last loaded or set
+     *
+     * @return Header of the file, or null if there is none
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Sets the header written before the records on each update of the file
+     *
+     * @param newHeader Header to be written, or null to write none
+     */
+    public void setHeader(String newHeader) {
+        assert newHeader == null || newHeader.indexOf('\n') < 0 : "Header should be a single line";
+        this.header = newHeader;
+    }
+
+    /**
+     * Creates the task of a single record in file format
+     *
+     * @param record Record of the task
+     * @return Task of the record
+     * @throws DukeException If the record is not valid
+     */
+    public static Task parseRecord(String record) throws DukeException {
+        RecordReader reader = new RecordReader(ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8)));
+        reader.next();
+        try {
+            return parseTask(reader.getFields());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new DukeException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the path of the file
+     *
+     * @return Path of the file
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Creates the task of a record
+     *
+     * @param parts Fields of the record
+     * @return Task of the record
+     * @throws DukeException If the record has an unknown type or too few fields
+     */
+    private static Task parseTask(List<String> parts) throws DukeException {
+        String labels = null;
+        String lastField = parts.get(parts.size() - 1);
+        if (parts.size() > 3 && (lastField.startsWith(Task.TAG_PREFIX) || lastField.startsWith(Task.PRIORITY_PREFIX))) {
+            // only a labels field starts with "#" or "!" after the third field
+            labels = lastField;
+            parts = parts.subList(0, parts.size() - 1);
+        }
+        Task task;
+        switch (parts.get(0)) {
+            case "T":
+                checkFieldCount(parts, 3);
+                task = new Todo(parts.get(2));
+                break;
+            case "D":
+                checkFieldCount(parts, 4);
+                task = parts.size() > 4
+                        ? new RecurringDeadline(parts.get(2), parts.get(3), parts.get(4))
+                        : new Deadline(parts.get(2), parts.get(3));
+                break;
+            case "E":
+                checkFieldCount(parts, 5);
+                task = parts.size() > 5
+                        ? new RecurringEvent(parts.get(2), parts.get(3), parts.get(4), parts.get(5))
+                        : new Event(parts.get(2), parts.get(3), parts.get(4));
+                break;
+            default:
+                throw new DukeException(String.format("unknown task type \"%s\"", parts.get(0)));
+        }
+        if (parts.get(1).equals("X")) {
+            task.markAsDone();
+        }
+        if (labels != null) {
+            task.setLabels(labels);
+        }
+        return task;
+    }
+
+    private static void checkFieldCount(List<String> parts, int count) throws DukeException {
+        if (parts.size() < count) {
+            throw new DukeException(String.format("expected %d fields but found %d", count, parts.size()));
+        }
+    }
+
+    private void skipLine(long lineNumber, String reason) {
+        String skippedLine = String.format("line %d: %s", lineNumber, reason);
+        skippedLines.add(skippedLine);
+    }
+
+    /**
+     * Returns the lines skipped by the last load as corrupt
+     *
+     * @return Lines skipped by the last load, each as "line N: reason"
+     */
+    public List<String> getSkippedLines() {
+        return Collections.unmodifiableList(skippedLines);
+    }
+
+    /**
+     * Commits the JFR event of an operation on the file if it is enabled
+     *
+     * @param event     Event begun before the operation
+     * @param operation Name of the operation
+     * @param taskCount Number of tasks loaded or saved
+     * @param bytes     Number of bytes read or written
+     */
+    private void commitEvent(StorageEvent event, String operation, int taskCount, long bytes) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = filePath.toString();
+            event.taskCount = taskCount;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package kokbot;
+
+import kokbot.task.Deadline;
+import kokbot.task.Recurrence;
+import kokbot.task.Recurring;
+import kokbot.task.Task;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents the number of tasks of each type which are done and not done, kept up to date in O(1) as tasks
+ * are added, removed and marked, along with the number of deadlines which are overdue.
+ * Undone deadlines are kept ordered by due date behind a cursor at the last time asked about, so the overdue
+ * count only moves past the deadlines which fell due since it was last asked for.
+ */
+public class TaskCounters {
+
+    /**
+     * Number of tasks of each type, as [undone, done]
+     */
+    private final Map<String, int[]> byType = new HashMap<String, int[]>();
+
+    private int doneCount;
+    private int undoneCount;
+
+    /**
+     * Number of undone deadlines falling due at each date-time
+     */
+    private final TreeMap<LocalDateTime, Integer> undoneDeadlines = new TreeMap<LocalDateTime, Integer>();
+
+    /**
+     * Time the overdue count was last brought up to, and the number of undone deadlines falling due before it
+     */
+    private LocalDateTime overdueCursor = LocalDateTime.MIN;
+    private int overdueCount;
+
+    /**
+     * Counts a task which was added to the list
+     *
+     * @param task Task added
+     */
+    public void add(Task task) {
+        update(task, 1);
+    }
+
+    /**
+     * Stops counting a task which was removed from the list
+     *
+     * @param task Task removed
+     */
+    public void remove(Task task) {
+        update(task, -1);
+    }
+
+    private void update(Task task, int change) {
+        byType.computeIfAbsent(task.getType(), type -> new int[2])[task.isDone() ? 1 : 0] += change;
+        if (task.isDone()) {
+            doneCount += change;
+        } else {
+            undoneCount += change;
+        }
+        LocalDateTime dueDate = getUndoneDueDate(task);
+        if (dueDate == null) {
+            return;
+        }
+        undoneDeadlines.merge(dueDate, change, (count, delta) -> count + delta == 0 ? null : count + delta);
+        if (dueDate.isBefore(overdueCursor)) {
+            overdueCount += change;
+        }
+    }
+
+    /**
+     * Returns when a deadline which is not done falls due: its due date, or the date of the first undone
+     * occurrence of a recurring deadline
+     *
+     * @return Due date, or null if the task is not an undone deadline
+     */
+    private static LocalDateTime getUndoneDueDate(Task task) {
+        if (!(task instanceof Deadline) || task.isDone()) {
+            return null;
+        }
+        if (!(task instanceof Recurring)) {
+            return task.getDateTime();
+        }
+        Recurring series = (Recurring) task;
+        Recurrence recurrence = series.getRecurrence();
+        int firstUndone = recurrence.getFirstUndoneOccurrence();
+        return firstUndone < series.getOccurrenceCount()
+                ? recurrence.getOccurrence(series.getSeriesStart(), firstUndone)
+                : null;
+    }
+
+    /**
+     * Returns the number of tasks of a type which are done or not done
+     *
+     * @param type   Type of the tasks
+     * @param isDone Whether the tasks are done
+     * @return Number of tasks
+     */
+    public int getCount(String type, boolean isDone) {
+        int[] counts = byType.get(type);
+        return counts == null ? 0 : counts[isDone ? 1 : 0];
+    }
+
+    public int getDoneCount() {
+        return doneCount;
+    }
+
+    public int getUndoneCount() {
+        return undoneCount;
+    }
+
+    /**
+     * Returns the number of undone deadlines falling due before a time, moving the cursor to it.
+     * As time moves forward, only the deadlines between the last time asked about and this one are read.
+     *
+     * @param now Current time
+     * @return Number of overdue deadlines
+     */
+    public int getOverdueCount(LocalDateTime now) {
+        if (now.isBefore(overdueCursor)) {
+            // the clock went back, so the deadlines passed since are taken back out
+            for (int count : undoneDeadlines.subMap(now, true, overdueCursor, false).values()) {
+                overdueCount -= count;
+            }
+        } else {
+            for (int count : undoneDeadlines.subMap(overdueCursor, true, now, false).values()) {
+                overdueCount += count;
+            }
+        }
+        overdueCursor = now;
+        return overdueCount;
+    }
+}
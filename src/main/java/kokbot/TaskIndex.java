@@ -0,0 +1,418 @@
+package kokbot;
+
+import kokbot.task.Priority;
+import kokbot.task.Recurrence;
+import kokbot.task.Recurring;
+import kokbot.task.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Represents the indexes kept over a TaskList, by type, by done flag and by date.
+ * Tasks within each index entry are kept in id order, which is the order of the list.
+ * The ids of the tasks of each type, done flag, tag and priority are also kept in compressed bitmaps,
+ * so that a filter on several of them is answered by intersecting bitmaps.
+ * Tasks are also hashed by their type, normalised description and dates, so exact duplicates are found in O(1),
+ * and counted by type and done flag, so a summary of the list is answered without reading it.
+ */
+public class TaskIndex {
+
+    private static final CompressedBitmap EMPTY_BITMAP = new CompressedBitmap();
+
+    /**
+     * Tasks by id
+     */
+    private final TreeMap<Integer, Task> byId = new TreeMap<Integer, Task>();
+
+    /**
+     * Tasks by type, then by id
+     */
+    private final Map<String, TreeMap<Integer, Task>> byType = new HashMap<String, TreeMap<Integer, Task>>();
+
+    /**
+     * Tasks which are done, by id
+     */
+    private final TreeMap<Integer, Task> done = new TreeMap<Integer, Task>();
+
+    /**
+     * Tasks which are not done, by id
+     */
+    private final TreeMap<Integer, Task> undone = new TreeMap<Integer, Task>();
+
+    /**
+     * Tasks by date, then by id
+     */
+    private final TreeMap<LocalDateTime, TreeMap<Integer, Task>> byDate =
+            new TreeMap<LocalDateTime, TreeMap<Integer, Task>>();
+
+    /**
+     * Ids of the tasks of each type, done flag, tag and priority
+     */
+    private final Map<String, CompressedBitmap> typeBitmaps = new HashMap<String, CompressedBitmap>();
+    private final CompressedBitmap doneBitmap = new CompressedBitmap();
+    private final CompressedBitmap undoneBitmap = new CompressedBitmap();
+    private final Map<String, CompressedBitmap> tagBitmaps = new HashMap<String, CompressedBitmap>();
+    private final Map<Priority, CompressedBitmap> priorityBitmaps =
+            new EnumMap<Priority, CompressedBitmap>(Priority.class);
+
+    /**
+     * Tasks by the tokens of their descriptions, for typo-tolerant search
+     */
+    private final FuzzyIndex byToken = new FuzzyIndex();
+
+    /**
+     * Dated tasks by the days they fall on, for agendas
+     */
+    private final CalendarIndex byDay = new CalendarIndex();
+
+    /**
+     * Descriptions of the tasks, for completing descriptions as they are typed
+     */
+    private final PrefixTrie descriptions = new PrefixTrie();
+
+    /**
+     * Tasks by their duplicate key, then by id
+     */
+    private final Map<String, TreeMap<Integer, Task>> byDuplicateKey = new HashMap<String, TreeMap<Integer, Task>>();
+
+    /**
+     * Number of tasks by type and done flag, and of overdue deadlines
+     */
+    private final TaskCounters counters = new TaskCounters();
+
+    /**
+     * Adds a task to the indexes
+     *
+     * @param task Task with an id assigned
+     */
+    public void add(Task task) {
+        assert task.getId() >= 0 : "Task should have an id";
+        byId.put(task.getId(), task);
+        byType.computeIfAbsent(task.getType(), type -> new TreeMap<Integer, Task>()).put(task.getId(), task);
+        (task.isDone() ? done : undone).put(task.getId(), task);
+        byDate.computeIfAbsent(task.getDateTime(), date -> new TreeMap<Integer, Task>()).put(task.getId(), task);
+        byToken.add(task);
+        descriptions.add(task.getDescription());
+        byDay.add(task);
+        byDuplicateKey.computeIfAbsent(getDuplicateKey(task), key -> new TreeMap<Integer, Task>())
+                .put(task.getId(), task);
+        counters.add(task);
+        typeBitmaps.computeIfAbsent(task.getType(), type -> new CompressedBitmap()).add(task.getId());
+        (task.isDone() ? doneBitmap : undoneBitmap).add(task.getId());
+        for (String tag : task.getTags()) {
+            tagBitmaps.computeIfAbsent(tag, key -> new CompressedBitmap()).add(task.getId());
+        }
+        priorityBitmaps.computeIfAbsent(task.getPriority(), priority -> new CompressedBitmap()).add(task.getId());
+    }
+
+    /**
+     * Removes a task from the indexes
+     *
+     * @param task Task to be removed
+     */
+    public void remove(Task task) {
+        byId.remove(task.getId());
+        TreeMap<Integer, Task> sameType = byType.get(task.getType());
+        if (sameType != null) {
+            sameType.remove(task.getId());
+        }
+        done.remove(task.getId());
+        undone.remove(task.getId());
+        TreeMap<Integer, Task> sameDate = byDate.get(task.getDateTime());
+        if (sameDate != null) {
+            sameDate.remove(task.getId());
+            if (sameDate.isEmpty()) {
+                byDate.remove(task.getDateTime());
+            }
+        }
+        byToken.remove(task);
+        descriptions.remove(task.getDescription());
+        byDay.remove(task);
+        String duplicateKey = getDuplicateKey(task);
+        TreeMap<Integer, Task> duplicates = byDuplicateKey.get(duplicateKey);
+        if (duplicates != null) {
+            duplicates.remove(task.getId());
+            if (duplicates.isEmpty()) {
+                byDuplicateKey.remove(duplicateKey);
+            }
+        }
+        counters.remove(task);
+        removeFromBitmap(typeBitmaps, task.getType(), task.getId());
+        doneBitmap.remove(task.getId());
+        undoneBitmap.remove(task.getId());
+        for (String tag : task.getTags()) {
+            removeFromBitmap(tagBitmaps, tag, task.getId());
+        }
+        removeFromBitmap(priorityBitmaps, task.getPriority(), task.getId());
+    }
+
+    /**
+     * Removes an id from the bitmap of a key, dropping the bitmap once it is empty so that the keys stay bounded
+     */
+    private static <K> void removeFromBitmap(Map<K, CompressedBitmap> bitmaps, K key, int id) {
+        CompressedBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.getCardinality() == 0) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Replaces a task in the indexes with a copy of it which may have been marked or unmarked
+     *
+     * @param oldTask Task in the indexes
+     * @param newTask Copy of the task with the same id, description, type, date and labels
+     */
+    public void replace(Task oldTask, Task newTask) {
+        assert oldTask.getId() == newTask.getId() : "Copy should keep the id of the task";
+        assert oldTask.getLabels().equals(newTask.getLabels()) : "Copy should keep the labels of the task";
+        byId.put(newTask.getId(), newTask);
+        byType.get(newTask.getType()).put(newTask.getId(), newTask);
+        done.remove(oldTask.getId());
+        undone.remove(oldTask.getId());
+        (newTask.isDone() ? done : undone).put(newTask.getId(), newTask);
+        byDate.get(newTask.getDateTime()).put(newTask.getId(), newTask);
+        byDay.remove(oldTask);
+        byDay.add(newTask);
+        byDuplicateKey.get(getDuplicateKey(newTask)).put(newTask.getId(), newTask);
+        counters.remove(oldTask);
+        counters.add(newTask);
+        (oldTask.isDone() ? doneBitmap : undoneBitmap).remove(oldTask.getId());
+        (newTask.isDone() ? doneBitmap : undoneBitmap).add(newTask.getId());
+    }
+
+    /**
+     * Returns the task of the given id
+     *
+     * @param id Id of the task
+     * @return Task of the given id, or null if there is none
+     */
+    public Task getById(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns all tasks in list order
+     *
+     * @return All tasks in list order
+     */
+    public Collection<Task> getAll() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Returns the tasks of a type in list order
+     *
+     * @param type Type of the tasks
+     * @return Tasks of the type
+     */
+    public Collection<Task> getByType(String type) {
+        TreeMap<Integer, Task> sameType = byType.get(type);
+        return sameType == null ? Collections.<Task>emptyList() : Collections.unmodifiableCollection(sameType.values());
+    }
+
+    /**
+     * Returns the tasks which are done or not done in list order
+     *
+     * @param isDone Whether the tasks are done
+     * @return Tasks which are done or not done
+     */
+    public Collection<Task> getByDone(boolean isDone) {
+        return Collections.unmodifiableCollection((isDone ? done : undone).values());
+    }
+
+    /**
+     * Returns the ids of the tasks of a type
+     *
+     * @param type Type of the tasks
+     * @return Bitmap of ids, which should not be changed
+     */
+    public CompressedBitmap getTypeBitmap(String type) {
+        return typeBitmaps.getOrDefault(type, EMPTY_BITMAP);
+    }
+
+    /**
+     * Returns the ids of the tasks which are done or not done
+     *
+     * @param isDone Whether the tasks are done
+     * @return Bitmap of ids, which should not be changed
+     */
+    public CompressedBitmap getDoneBitmap(boolean isDone) {
+        return isDone ? doneBitmap : undoneBitmap;
+    }
+
+    /**
+     * Returns the ids of the tasks with a tag
+     *
+     * @param tag Tag without its leading "#"
+     * @return Bitmap of ids, which should not be changed
+     */
+    public CompressedBitmap getTagBitmap(String tag) {
+        return tagBitmaps.getOrDefault(tag, EMPTY_BITMAP);
+    }
+
+    /**
+     * Returns the ids of the tasks whose priority falls within a range
+     *
+     * @param lowest  Lowest priority, inclusive
+     * @param highest Highest priority, inclusive
+     * @return Bitmap of ids, which should not be changed
+     */
+    public CompressedBitmap getPriorityBitmap(Priority lowest, Priority highest) {
+        CompressedBitmap bitmap = EMPTY_BITMAP;
+        for (Priority priority : Priority.values()) {
+            CompressedBitmap samePriority = priorityBitmaps.get(priority);
+            if (samePriority == null || priority.compareTo(lowest) < 0 || priority.compareTo(highest) > 0) {
+                continue;
+            }
+            bitmap = bitmap == EMPTY_BITMAP ? samePriority : CompressedBitmap.or(bitmap, samePriority);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Returns the tasks of the ids in a bitmap, in list order
+     *
+     * @param ids Bitmap of ids of tasks in the index
+     * @return Tasks of the ids
+     */
+    public List<Task> getByIds(CompressedBitmap ids) {
+        List<Task> tasks = new ArrayList<Task>(ids.getCardinality());
+        ids.forEach(id -> tasks.add(byId.get(id)));
+        return tasks;
+    }
+
+    /**
+     * Returns the tasks whose date falls within a range, in date order and then list order
+     *
+     * @param from Start of the range, inclusive, or null if unbounded
+     * @param to   End of the range, exclusive, or null if unbounded
+     * @return Tasks within the range
+     */
+    public List<Task> getByDate(LocalDateTime from, LocalDateTime to) {
+        List<Task> tasks = new ArrayList<Task>();
+        for (TreeMap<Integer, Task> sameDate : getDateRange(from, to).values()) {
+            tasks.addAll(sameDate.values());
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the number of tasks whose date falls within a range, counting no further than the limit
+     *
+     * @param from  Start of the range, inclusive, or null if unbounded
+     * @param to    End of the range, exclusive, or null if unbounded
+     * @param limit Count after which counting stops
+     * @return Number of tasks within the range, or a number above the limit
+     */
+    public int countByDate(LocalDateTime from, LocalDateTime to, int limit) {
+        int count = 0;
+        for (TreeMap<Integer, Task> sameDate : getDateRange(from, to).values()) {
+            count += sameDate.size();
+            if (count > limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain tokens close to those of the keyword,
+     * closest first and then most recently added first
+     *
+     * @param keyword Keyword to be searched for, which may be misspelt
+     * @param limit   Largest number of tasks returned
+     * @return Tasks found, closest first
+     */
+    public List<Task> getByFuzzyKeyword(String keyword, int limit) {
+        return byToken.search(keyword, limit, byId::get);
+    }
+
+    /**
+     * Returns the dated tasks falling on each day of a window, reading only the buckets of those days
+     *
+     * @param from First day of the window
+     * @param to   Last day of the window
+     * @return Tasks by day, in day order and then time order, leaving out days without tasks
+     */
+    public NavigableMap<LocalDate, List<Task>> getByDay(LocalDate from, LocalDate to) {
+        return byDay.getDays(from, to);
+    }
+
+    /**
+     * Returns the first task in list order which is an exact duplicate of a task
+     *
+     * @param task Task which may not be in the index
+     * @return Task with the same duplicate key, or null if there is none
+     */
+    public Task getDuplicate(Task task) {
+        TreeMap<Integer, Task> duplicates = byDuplicateKey.get(getDuplicateKey(task));
+        return duplicates == null ? null : duplicates.firstEntry().getValue();
+    }
+
+    /**
+     * Returns the key under which a task is hashed to find its duplicates: its type, its description with case
+     * and runs of whitespace ignored, its dates and its recurrence rule. Labels and the done flag are left out,
+     * so they may be merged from a duplicate.
+     *
+     * @param task Task to be hashed
+     * @return Duplicate key of the task
+     */
+    public static String getDuplicateKey(Task task) {
+        StringBuilder key = new StringBuilder(task.getDescription().length() + 48);
+        key.append(task.getType()).append('\0')
+                .append(String.join(" ", task.getDescription().trim().toLowerCase().split("\\s+")))
+                .append('\0').append(task.getDateTime()).append('\0').append(task.getEndDateTime());
+        if (task instanceof Recurring) {
+            Recurrence recurrence = ((Recurring) task).getRecurrence();
+            key.append('\0').append(recurrence.getFrequency()).append('\0')
+                    .append(recurrence.getUntil() == null ? recurrence.getCount() : recurrence.getUntil());
+        }
+        return key.toString();
+    }
+
+    public TaskCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * Returns the trie of task descriptions, which may be read from any thread
+     *
+     * @return Trie of task descriptions
+     */
+    public PrefixTrie getDescriptions() {
+        return descriptions;
+    }
+
+    /**
+     * Returns the number of tasks indexed
+     *
+     * @return Number of tasks indexed
+     */
+    public int getSize() {
+        return byId.size();
+    }
+
+    private NavigableMap<LocalDateTime, TreeMap<Integer, Task>> getDateRange(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDateTime, TreeMap<Integer, Task>> range = byDate;
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, false);
+        }
+        return range;
+    }
+}
@@ -1,9 +1,32 @@
 package kokbot;
 
+import kokbot.change.TaskChange;
+import kokbot.change.TaskChangePublisher;
+import kokbot.change.TaskRow;
+import kokbot.jfr.TaskListEvent;
+import kokbot.query.Query;
+import kokbot.query.QueryPlan;
+import kokbot.query.QueryPlanner;
+import kokbot.replication.Mutation;
+import kokbot.replication.MutationListener;
+import kokbot.task.Recurring;
 import kokbot.task.Task;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Represents the list of tasks
@@ -11,15 +34,54 @@ import java.util.Comparator;
 public class TaskList {
 
     /**
-     * List of tasks
+     * Current version of the list of tasks, which is never changed but replaced by a new version with each change.
+     * Each task within it is also never changed once the list is published, but replaced by a changed copy.
+     */
+    protected volatile PersistentVector<Task> tasks;
+
+    /**
+     * Number of tasks from which scans and sorts are split across the common fork-join pool.
+     * With a single processor the split is pure overhead, so scans then never run in parallel unless the
+     * threshold is set explicitly.
+     */
+    private static volatile int parallelThreshold = Integer.getInteger("kokbot.parallel.threshold",
+            Runtime.getRuntime().availableProcessors() > 1 ? 10000 : Integer.MAX_VALUE);
+
+    /**
+     * Largest number of tasks returned by a fuzzy find
+     */
+    public static final int FUZZY_MATCH_LIMIT = 50;
+
+    /**
+     * Indexes over the tasks by type, done flag, date and description tokens
+     */
+    protected TaskIndex index = new TaskIndex();
+
+    /**
+     * Id to be given to the next task added
+     */
+    protected int nextId = 0;
+
+    /**
+     * Modification version, increased by every change to the tasks
+     */
+    protected long version = 0;
+
+    /**
+     * Listener told of every change to the tasks, or null if there is none
      */
-    protected ArrayList<Task> tasks;
+    protected MutationListener mutationListener;
+
+    /**
+     * Publisher which change events are recorded to, or null if there is none
+     */
+    protected TaskChangePublisher changePublisher;
 
     /**
      * Constructor for TaskList
      */
     public TaskList() {
-        this.tasks = new ArrayList<Task>();
+        this.tasks = PersistentVector.empty();
     }
 
     /**
@@ -28,7 +90,11 @@ public class TaskList {
      * @param newTasks ArrayList of tasks
      */
     public TaskList(ArrayList<Task> newTasks) {
-        this.tasks = newTasks;
+        this.tasks = PersistentVector.of(newTasks);
+        for (Task task : newTasks) {
+            task.setId(nextId++);
+            index.add(task);
+        }
     }
 
     /**
@@ -37,7 +103,78 @@ public class TaskList {
      * @param newTask Task to be added
      */
     public void addTask(Task newTask) {
-        this.tasks.add(newTask);
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        newTask.setId(nextId++);
+        this.tasks = this.tasks.plus(newTask);
+        index.add(newTask);
+        recordChange(TaskChange.Kind.ADDED, this.tasks.size() - 1, newTask);
+        commitEvent(event, "add", 1);
+    }
+
+    /**
+     * Adds a batch of tasks to the list of tasks, publishing the new version of the list once for the whole batch
+     *
+     * @param newTasks Tasks to be added
+     */
+    public void addTasks(List<Task> newTasks) {
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        PersistentVector<Task> newVersion = this.tasks;
+        for (Task newTask : newTasks) {
+            newTask.setId(nextId++);
+            newVersion = newVersion.plus(newTask);
+            index.add(newTask);
+        }
+        int firstIndex = this.tasks.size();
+        this.tasks = newVersion;
+        for (int i = firstIndex; i < newVersion.size(); i++) {
+            recordChange(TaskChange.Kind.ADDED, i, newVersion.get(i));
+        }
+        commitEvent(event, "add batch", newTasks.size());
+    }
+
+    /**
+     * Inserts a batch of tasks into the list of tasks before the task of an index.
+     * As ids increase along the list, the tasks after those inserted are indexed again under new ids, so inserting
+     * anywhere but at the end takes time in proportion to the number of tasks after the index.
+     *
+     * @param index    Index the first task is inserted at, which may be the size of the list to add them at the end
+     * @param newTasks Tasks to be inserted, in order
+     */
+    public void insertTasks(int index, List<Task> newTasks) {
+        assert index >= 0 && index <= this.tasks.size() : "Index out of bounds";
+        if (index == this.tasks.size()) {
+            addTasks(newTasks);
+            return;
+        }
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        PersistentVector<Task> newVersion = this.tasks;
+        List<Task> movedTasks = new ArrayList<Task>(newVersion.size() - index);
+        for (int i = newVersion.size() - 1; i >= index; i--) {
+            movedTasks.add(newVersion.get(i));
+            this.index.remove(newVersion.get(i));
+            newVersion = newVersion.minus(i);
+        }
+        Collections.reverse(movedTasks);
+        for (Task newTask : newTasks) {
+            newTask.setId(nextId++);
+            newVersion = newVersion.plus(newTask);
+            this.index.add(newTask);
+        }
+        for (Task movedTask : movedTasks) {
+            // older versions of the list still hold the task under its old id
+            Task moved = movedTask.copy();
+            moved.setId(nextId++);
+            newVersion = newVersion.plus(moved);
+            this.index.add(moved);
+        }
+        this.tasks = newVersion;
+        for (int i = index; i < index + newTasks.size(); i++) {
+            recordChange(TaskChange.Kind.ADDED, i, newVersion.get(i));
+        }
+        commitEvent(event, "insert batch", newTasks.size());
     }
 
     /**
@@ -48,7 +185,126 @@ public class TaskList {
      */
     public Task deleteTask(int index) {
         assert index >= 0 && index < this.tasks.size() : "Index out of bounds";
-        return this.tasks.remove(index);
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Task deletedTask = this.tasks.get(index);
+        this.tasks = this.tasks.minus(index);
+        this.index.remove(deletedTask);
+        recordChange(TaskChange.Kind.REMOVED, index, deletedTask);
+        commitEvent(event, "delete", 1);
+        return deletedTask;
+    }
+
+    /**
+     * Replaces the task of the given index, keeping its id
+     *
+     * @param index   Index of the task to be replaced
+     * @param newTask Task to replace it with
+     * @return Task that was replaced
+     */
+    public Task replaceTask(int index, Task newTask) {
+        assert index >= 0 && index < this.tasks.size() : "Index out of bounds";
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Task oldTask = this.tasks.get(index);
+        this.index.remove(oldTask);
+        newTask.setId(oldTask.getId());
+        this.tasks = this.tasks.with(index, newTask);
+        this.index.add(newTask);
+        recordChange(TaskChange.Kind.REPLACED, index, newTask);
+        commitEvent(event, "replace", 1);
+        return oldTask;
+    }
+
+    /**
+     * Returns the index of the first task which is an exact duplicate of a task, found through the hash index
+     *
+     * @param task Task which may not be in the list
+     * @return Index of the duplicate, or -1 if there is none
+     */
+    public int findDuplicate(Task task) {
+        Task duplicate = this.index.getDuplicate(task);
+        return duplicate == null ? -1 : getPosition(duplicate.getId());
+    }
+
+    /**
+     * Merges a duplicate into the task of the given index, which gains the tags of the duplicate and the higher
+     * of their priorities, and is done if either of them is done
+     *
+     * @param index     Index of the task kept
+     * @param duplicate Duplicate of the task, which is not added
+     * @return Task after the merge
+     */
+    public Task mergeDuplicate(int index, Task duplicate) {
+        Task merged = merge(this.tasks.get(index), duplicate);
+        replaceTask(index, merged);
+        return merged;
+    }
+
+    /**
+     * Collapses every set of exact duplicates into the first task of the set in a single pass,
+     * merging the others into it before deleting them
+     *
+     * @return Number of tasks deleted
+     */
+    public int removeDuplicates() {
+        PersistentVector<Task> current = this.tasks;
+        Map<String, Integer> firstIndexes = new HashMap<String, Integer>();
+        Map<Integer, Task> mergedTasks = new LinkedHashMap<Integer, Task>();
+        List<Integer> duplicateIndexes = new ArrayList<Integer>();
+        int i = 0;
+        for (Task task : current) {
+            Integer first = firstIndexes.putIfAbsent(TaskIndex.getDuplicateKey(task), i);
+            if (first != null) {
+                mergedTasks.put(first, merge(mergedTasks.getOrDefault(first, current.get(first)), task));
+                duplicateIndexes.add(i);
+            }
+            i++;
+        }
+        for (Map.Entry<Integer, Task> merged : mergedTasks.entrySet()) {
+            if (!merged.getValue().toRecord().equals(current.get(merged.getKey()).toRecord())) {
+                replaceTask(merged.getKey(), merged.getValue());
+            }
+        }
+        // deleting from the back keeps the indexes of the duplicates still to be deleted
+        for (int j = duplicateIndexes.size() - 1; j >= 0; j--) {
+            deleteTask(duplicateIndexes.get(j));
+        }
+        return duplicateIndexes.size();
+    }
+
+    private static Task merge(Task task, Task duplicate) {
+        Task merged = task.copy();
+        List<String> tags = new ArrayList<String>(task.getTags());
+        tags.addAll(duplicate.getTags());
+        merged.setTags(tags);
+        if (duplicate.getPriority().compareTo(task.getPriority()) > 0) {
+            merged.setPriority(duplicate.getPriority());
+        }
+        if (duplicate.isDone()) {
+            merged.markAsDone();
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the index of the task of the given id, searching by id as ids increase along the list
+     */
+    private int getPosition(int id) {
+        int low = 0;
+        int high = this.tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = this.tasks.get(middle).getId();
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -58,7 +314,14 @@ public class TaskList {
      */
     public void markTaskAsDone(int index) {
         assert index >= 0 && index < this.tasks.size() : "Index out of bounds";
-        this.tasks.get(index).markAsDone();
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Task markedTask = this.tasks.get(index).copy();
+        markedTask.markAsDone();
+        this.index.replace(this.tasks.get(index), markedTask);
+        this.tasks = this.tasks.with(index, markedTask);
+        recordChange(TaskChange.Kind.MARKED, index, markedTask);
+        commitEvent(event, "mark", 1);
     }
 
     /**
@@ -68,7 +331,44 @@ public class TaskList {
      */
     public void markTaskAsUndone(int index) {
         assert index >= 0 && index < this.tasks.size() : "Index out of bounds";
-        this.tasks.get(index).markAsUndone();
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Task unmarkedTask = this.tasks.get(index).copy();
+        unmarkedTask.markAsUndone();
+        this.index.replace(this.tasks.get(index), unmarkedTask);
+        this.tasks = this.tasks.with(index, unmarkedTask);
+        recordChange(TaskChange.Kind.UNMARKED, index, unmarkedTask);
+        commitEvent(event, "unmark", 1);
+    }
+
+    /**
+     * Marks an occurrence of the recurring task of the given index as done or undone
+     *
+     * @param index      Index of the recurring task
+     * @param occurrence Number of the occurrence, starting from 0
+     * @param isDone     Whether the occurrence is done
+     * @return Occurrence after being marked
+     * @throws DukeException If the task is not recurring or has no such occurrence
+     */
+    public Task markOccurrence(int index, int occurrence, boolean isDone) throws DukeException {
+        assert index >= 0 && index < this.tasks.size() : "Index out of bounds";
+        if (!(this.tasks.get(index) instanceof Recurring)) {
+            throw new DukeException("Unknown usage - only recurring tasks have occurrences to be marked");
+        }
+        Recurring series = (Recurring) this.tasks.get(index);
+        if (occurrence < 0 || occurrence >= series.getOccurrenceCount()) {
+            throw new DukeException(String.format("Unknown usage - task %d only has %d occurrences",
+                    index + 1, series.getOccurrenceCount()));
+        }
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Task markedSeries = this.tasks.get(index).copy();
+        ((Recurring) markedSeries).getRecurrence().markOccurrence(occurrence, isDone);
+        this.index.replace(this.tasks.get(index), markedSeries);
+        this.tasks = this.tasks.with(index, markedSeries);
+        recordChange(TaskChange.Kind.REPLACED, index, markedSeries);
+        commitEvent(event, isDone ? "mark occurrence" : "unmark occurrence", 1);
+        return ((Recurring) markedSeries).getOccurrence(occurrence);
     }
 
     /**
@@ -82,6 +382,16 @@ public class TaskList {
         return this.tasks.get(index);
     }
 
+    /**
+     * Returns the current version of the list of tasks in O(1). The version never changes, so it can be read
+     * from any thread without locks while later changes publish newer versions.
+     *
+     * @return Current version of the list of tasks
+     */
+    public List<Task> snapshot() {
+        return this.tasks;
+    }
+
     /**
      * Returns the number of tasks in the list
      *
@@ -97,49 +407,433 @@ public class TaskList {
      * @return List of tasks to be printed to the user
      */
     public String[] getTaskStrings(String sortBy) throws DukeException{
-        ArrayList<Task> sortedTasks = new ArrayList<Task>(this.tasks);
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Task[] sortedTasks;
         if (sortBy.equals("bytype")) {
-            sortedTasks.sort(Comparator.comparing(Task::getType));
+            sortedTasks = sortTasks(this.tasks, Comparator.comparing(Task::getType));
         } else if (sortBy.equals("bydate")) {
-            sortedTasks.sort(Comparator.comparing(Task::getDateTime));
+            sortedTasks = sortTasks(expandOccurrences(this.tasks), Comparator.comparing(Task::getDateTime));
         } else if (sortBy.equals("bydesc")) {
-            sortedTasks.sort(Comparator.comparing(Task::getDescription));
-        } else if (!sortBy.equals("")){
+            sortedTasks = sortTasks(this.tasks, Comparator.comparing(Task::getDescription));
+        } else if (sortBy.equals("")) {
+            sortedTasks = this.tasks.toArray(new Task[0]);
+        } else {
             throw new DukeException("list usage: list [bytype/bydate/bydesc]");
         }
-        String[] taskStrings = new String[sortedTasks.size()];
+        String[] taskStrings = new String[sortedTasks.length];
+        IntStream indexes = IntStream.range(0, sortedTasks.length);
+        if (sortedTasks.length >= parallelThreshold) {
+            indexes = indexes.parallel();
+        }
         if (sortBy.equals("")) {
-            for (int i = 0; i < sortedTasks.size(); i++) {
-                taskStrings[i] = String.format("%d. %s", i + 1, sortedTasks.get(i).toString());
+            indexes.forEach(i -> taskStrings[i] = String.format("%d. %s", i + 1, sortedTasks[i].toString()));
+        } else {
+            indexes.forEach(i -> taskStrings[i] = String.format("- %s", sortedTasks[i].toString()));
+        }
+        commitEvent(event, sortBy.isEmpty() ? "list" : "list " + sortBy, taskStrings.length);
+        return taskStrings;
+    }
+
+    /**
+     * Returns the first tasks of the list to be printed to the user, selecting them with a bounded heap
+     * so that only the tasks shown are sorted and formatted
+     *
+     * @param sortBy Order of the list, or "" for list order
+     * @param limit  Number of tasks to be returned
+     * @return First tasks of the list to be printed to the user
+     * @throws DukeException If the order is not valid
+     */
+    public String[] getTaskStrings(String sortBy, int limit) throws DukeException {
+        assert limit > 0 : "Limit should be positive";
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        Comparator<Task> comparator;
+        if (sortBy.equals("bytype")) {
+            comparator = Comparator.comparing(Task::getType);
+        } else if (sortBy.equals("bydate")) {
+            comparator = Comparator.comparing(Task::getDateTime);
+        } else if (sortBy.equals("bydesc")) {
+            comparator = Comparator.comparing(Task::getDescription);
+        } else if (sortBy.equals("")) {
+            int size = Math.min(limit, this.tasks.size());
+            String[] taskStrings = new String[size];
+            for (int i = 0; i < size; i++) {
+                taskStrings[i] = String.format("%d. %s", i + 1, this.tasks.get(i).toString());
             }
+            commitEvent(event, "list " + limit, taskStrings.length);
+            return taskStrings;
         } else {
-            for (int i = 0; i < sortedTasks.size(); i++) {
-                taskStrings[i] = String.format("- %s", sortedTasks.get(i).toString());
+            throw new DukeException("list usage: list [bytype/bydate/bydesc] [limit]");
+        }
+
+        // ties are broken by position, so the selection matches the first tasks of a stable sort
+        Comparator<RankedTask> ranking = Comparator.<RankedTask, Task>comparing(ranked -> ranked.task, comparator)
+                .thenComparingInt(ranked -> ranked.position)
+                .thenComparingInt(ranked -> ranked.occurrence);
+        PriorityQueue<RankedTask> heap = new PriorityQueue<RankedTask>(limit + 1, ranking.reversed());
+        int position = -1;
+        for (Task task : this.tasks) {
+            position++;
+            if (!(task instanceof Recurring) || !sortBy.equals("bydate")) {
+                offer(heap, new RankedTask(task, position, 0), limit, ranking);
+                continue;
+            }
+            // occurrences come in date order, so the rest of the series can be skipped once one misses the heap
+            Recurring series = (Recurring) task;
+            int count = series.getOccurrenceCount();
+            for (int j = 0; j < count; j++) {
+                if (!offer(heap, new RankedTask(series.getOccurrence(j), position, j), limit, ranking)) {
+                    break;
+                }
             }
         }
+
+        String[] taskStrings = new String[heap.size()];
+        for (int i = taskStrings.length - 1; i >= 0; i--) {
+            taskStrings[i] = String.format("- %s", heap.poll().task.toString());
+        }
+        commitEvent(event, "list " + sortBy + " " + limit, taskStrings.length);
         return taskStrings;
     }
 
+    /**
+     * Offers a task to a bounded max-heap holding the smallest tasks seen so far
+     *
+     * @return Whether the task was kept
+     */
+    private static boolean offer(PriorityQueue<RankedTask> heap, RankedTask candidate, int limit,
+            Comparator<RankedTask> ranking) {
+        if (heap.size() < limit) {
+            heap.add(candidate);
+            return true;
+        }
+        if (ranking.compare(candidate, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(candidate);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Represents a task, or occurrence of a recurring task, along with its position in the list
+     */
+    private static class RankedTask {
+        private final Task task;
+        private final int position;
+        private final int occurrence;
+
+        private RankedTask(Task task, int position, int occurrence) {
+            this.task = task;
+            this.position = position;
+            this.occurrence = occurrence;
+        }
+    }
+
+    /**
+     * Returns the tasks sorted stably, using a parallel sort for large lists.
+     * Both sorts are stable, so the order is the same either way.
+     *
+     * @param tasks      Tasks to be sorted
+     * @param comparator Ordering of the tasks
+     * @return Sorted array of tasks
+     */
+    private static Task[] sortTasks(List<Task> tasks, Comparator<Task> comparator) {
+        Task[] sortedTasks = tasks.toArray(new Task[0]);
+        if (sortedTasks.length >= parallelThreshold) {
+            Arrays.parallelSort(sortedTasks, comparator);
+        } else {
+            Arrays.sort(sortedTasks, comparator);
+        }
+        return sortedTasks;
+    }
+
+    /**
+     * Returns the number of tasks from which scans and sorts are split across the common fork-join pool
+     *
+     * @return Number of tasks from which scans run in parallel
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the number of tasks from which scans and sorts are split across the common fork-join pool
+     *
+     * @param threshold Number of tasks from which scans run in parallel
+     */
+    public static void setParallelThreshold(int threshold) {
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns the tasks, and occurrences of recurring tasks, falling within a window sorted by date
+     *
+     * @param from Start of the window, inclusive
+     * @param to   End of the window, inclusive
+     * @return List of tasks within the window to be printed to the user
+     */
+    public String[] getUpcomingTasks(LocalDateTime from, LocalDateTime to) {
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        ArrayList<Task> upcomingTasks = new ArrayList<Task>();
+        for (Task task : this.tasks) {
+            if (task instanceof Recurring) {
+                upcomingTasks.addAll(((Recurring) task).getOccurrencesBetween(from, to));
+            } else if (!task.getDateTime().isBefore(from) && !task.getDateTime().isAfter(to)) {
+                upcomingTasks.add(task);
+            }
+        }
+        upcomingTasks.sort(Comparator.comparing(Task::getDateTime));
+        String[] taskStrings = new String[upcomingTasks.size()];
+        for (int i = 0; i < upcomingTasks.size(); i++) {
+            taskStrings[i] = String.format("- %s", upcomingTasks.get(i).toString());
+        }
+        commitEvent(event, "upcoming", taskStrings.length);
+        return taskStrings;
+    }
+
+    /**
+     * Returns the deadlines and events, and occurrences of recurring ones, falling on each day of a window.
+     * Only the day buckets within the window are read, and an event spanning several days is shown on each.
+     *
+     * @param from First day of the window
+     * @param to   Last day of the window
+     * @return Task strings by day, in day order and then time order, leaving out days without tasks
+     */
+    public LinkedHashMap<LocalDate, List<String>> getAgenda(LocalDate from, LocalDate to) {
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        LinkedHashMap<LocalDate, List<String>> agenda = new LinkedHashMap<LocalDate, List<String>>();
+        int count = 0;
+        for (Map.Entry<LocalDate, List<Task>> day : this.index.getByDay(from, to).entrySet()) {
+            List<String> taskStrings = new ArrayList<String>(day.getValue().size());
+            for (Task task : day.getValue()) {
+                taskStrings.add(task.toString());
+            }
+            agenda.put(day.getKey(), taskStrings);
+            count += taskStrings.size();
+        }
+        commitEvent(event, "agenda", count);
+        return agenda;
+    }
+
+    /**
+     * Plans a filter query against the indexes of the list
+     *
+     * @param query Query to be planned
+     * @return Plan of the query
+     */
+    public QueryPlan planQuery(Query query) {
+        return QueryPlanner.plan(query, this.index);
+    }
+
+    /**
+     * Carries out a planned filter query
+     *
+     * @param plan Plan of the query
+     * @return List of matching tasks to be printed to the user
+     */
+    public String[] getFilteredTaskStrings(QueryPlan plan) {
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        List<Task> matchingTasks = plan.execute(this.index);
+        String[] taskStrings = new String[matchingTasks.size()];
+        for (int i = 0; i < matchingTasks.size(); i++) {
+            taskStrings[i] = String.format("- %s", matchingTasks.get(i).toString());
+        }
+        commitEvent(event, "filter", taskStrings.length);
+        return taskStrings;
+    }
+
+    /**
+     * Returns the tasks with each recurring task replaced by its occurrences
+     *
+     * @param tasks Tasks to be expanded
+     * @return Expanded list of tasks
+     */
+    private static ArrayList<Task> expandOccurrences(List<Task> tasks) {
+        ArrayList<Task> expandedTasks = new ArrayList<Task>(tasks.size());
+        for (Task task : tasks) {
+            if (task instanceof Recurring) {
+                expandedTasks.addAll(((Recurring) task).getOccurrences());
+            } else {
+                expandedTasks.add(task);
+            }
+        }
+        return expandedTasks;
+    }
+
     /**
      * Returns the list of tasks to be saved to file
      *
      * @return List of tasks to be saved to file
      */
     public String[] getFileStrings() {
-        String[] storageStrings = new String[this.tasks.size()];
-        for (int i = 0; i < this.tasks.size(); i++) {
-            storageStrings[i] = this.tasks.get(i).toFileString();
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        PersistentVector<Task> snapshot = this.tasks;
+        String[] storageStrings = new String[snapshot.size()];
+        int i = 0;
+        for (Task task : snapshot) {
+            storageStrings[i++] = task.toRecord();
         }
+        commitEvent(event, "serialize", storageStrings.length);
         return storageStrings;
     }
 
+    /**
+     * Returns the tasks whose description contains the keyword
+     *
+     * @param keyword Keyword to search for
+     * @return List of matching tasks to be printed to the user
+     */
     public ArrayList<String> getMatchingTasks(String keyword) {
-        ArrayList<String> matchingTasks = new ArrayList<String>();
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        ArrayList<String> matchingTasks;
+        if (this.tasks.size() >= parallelThreshold) {
+            // an ordered parallel stream merges the results back in list order
+            matchingTasks = this.tasks.parallelStream()
+                    .filter(task -> task.matchesKeyword(keyword))
+                    .flatMap(task -> task instanceof Recurring
+                            ? ((Recurring) task).getOccurrences().stream()
+                            : Stream.of(task))
+                    .map(Task::toString)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            commitEvent(event, "find", matchingTasks.size());
+            return matchingTasks;
+        }
+        matchingTasks = new ArrayList<String>();
         for (Task task : this.tasks) {
-            if (task.matchesKeyword(keyword)) {
+            if (!task.matchesKeyword(keyword)) {
+                continue;
+            }
+            if (task instanceof Recurring) {
+                for (Task occurrence : ((Recurring) task).getOccurrences()) {
+                    matchingTasks.add(occurrence.toString());
+                }
+            } else {
                 matchingTasks.add(task.toString());
             }
         }
+        commitEvent(event, "find", matchingTasks.size());
         return matchingTasks;
     }
+
+    /**
+     * Returns the tasks whose descriptions are close to the keyword, tolerating typos in each of its words.
+     * Tasks are ranked by edit distance and then by how recently they were added.
+     *
+     * @param keyword Keyword to be searched for
+     * @return Tasks found, closest first
+     */
+    public ArrayList<String> getFuzzyMatchingTasks(String keyword) {
+        TaskListEvent event = new TaskListEvent();
+        event.begin();
+        ArrayList<String> matchingTasks = new ArrayList<String>();
+        for (Task task : this.index.getByFuzzyKeyword(keyword, FUZZY_MATCH_LIMIT)) {
+            matchingTasks.add(task.toString());
+        }
+        commitEvent(event, "fuzzy find", matchingTasks.size());
+        return matchingTasks;
+    }
+
+    /**
+     * Returns the number of tasks by type and done flag, and of overdue deadlines, kept up to date as tasks
+     * are added, removed and marked
+     *
+     * @return Counters of the tasks, which should only be read from the thread changing the list
+     */
+    public TaskCounters getCounters() {
+        return this.index.getCounters();
+    }
+
+    /**
+     * Returns the trie of task descriptions, kept up to date as tasks are added and removed
+     *
+     * @return Trie of task descriptions, which may be read from any thread
+     */
+    public PrefixTrie getDescriptions() {
+        return this.index.getDescriptions();
+    }
+
+    /**
+     * Sets the listener told of every change to the tasks
+     *
+     * @param listener Listener to be told of changes, or null to tell no one
+     */
+    public void setMutationListener(MutationListener listener) {
+        this.mutationListener = listener;
+    }
+
+    /**
+     * Returns the modification version, which increases with every change to the tasks.
+     * Results computed from the list stay valid for as long as the version stays the same.
+     *
+     * @return Modification version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the publisher which change events are recorded to while it has subscribers
+     *
+     * @param publisher Publisher of change events, or null to record none
+     */
+    public void setChangePublisher(TaskChangePublisher publisher) {
+        this.changePublisher = publisher;
+    }
+
+    /**
+     * Returns a view of every task, in order
+     *
+     * @return View of every task
+     */
+    public List<TaskRow> getRows() {
+        List<TaskRow> rows = new ArrayList<TaskRow>(this.tasks.size());
+        for (Task task : this.tasks) {
+            rows.add(new TaskRow(task));
+        }
+        return rows;
+    }
+
+    /**
+     * Increases the modification version and tells the listener and publisher, if any, of a change to a task
+     *
+     * @param kind  Kind of change
+     * @param index Index of the task changed
+     * @param task  Task after the change, or before it if the task was removed
+     */
+    private void recordChange(TaskChange.Kind kind, int index, Task task) {
+        version++;
+        if (mutationListener != null) {
+            Mutation.Op op = kind == TaskChange.Kind.ADDED ? Mutation.Op.ADD
+                    : kind == TaskChange.Kind.REMOVED ? Mutation.Op.DELETE
+                    : Mutation.Op.REPLACE;
+            String record = op == Mutation.Op.DELETE ? "" : task.toRecord();
+            mutationListener.onMutation(new Mutation(op, index, record));
+        }
+        if (changePublisher != null && changePublisher.hasSubscribers()) {
+            changePublisher.record(new TaskChange(kind, index, new TaskRow(task)));
+        }
+    }
+
+    /**
+     * Commits the JFR event of an operation if it is enabled
+     *
+     * @param event       Event begun before the operation
+     * @param operation   Name of the operation
+     * @param resultCount Number of tasks affected or returned by the operation
+     */
+    private void commitEvent(TaskListEvent event, String operation, int resultCount) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.taskCount = this.tasks.size();
+            event.resultCount = resultCount;
+            event.commit();
+        }
+    }
 }
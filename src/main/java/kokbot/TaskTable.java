@@ -0,0 +1,146 @@
+package kokbot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import kokbot.change.TaskChange;
+import kokbot.change.TaskChangeBatch;
+import kokbot.change.TaskRow;
+
+/**
+ * Represents a table of the tasks which is kept up to date by applying the published change batches,
+ * so that only the rows a command changed are updated instead of the whole list being rebuilt.
+ */
+public class TaskTable extends TableView<TaskRow> implements Flow.Subscriber<TaskChangeBatch> {
+
+    private Flow.Subscription subscription;
+
+    /**
+     * Sequence expected of the next batch, or -1 until the first reset is received
+     */
+    private long expectedSequence = -1;
+
+    /**
+     * Asks for a reset batch when a batch was missed
+     */
+    private Runnable resync = () -> { };
+
+    /**
+     * Constructor for TaskTable
+     */
+    public TaskTable() {
+        TableColumn<TaskRow, Integer> numberColumn = new TableColumn<TaskRow, Integer>("#");
+        numberColumn.setSortable(false);
+        numberColumn.setCellFactory(column -> new TableCell<TaskRow, Integer>() {
+            @Override
+            protected void updateItem(Integer item, boolean isEmpty) {
+                super.updateItem(item, isEmpty);
+                setText(isEmpty || getTableRow() == null || getTableRow().getItem() == null
+                        ? null : Integer.toString(getIndex() + 1));
+            }
+        });
+        TableColumn<TaskRow, String> typeColumn = column("Type", 45);
+        typeColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<String>(cell.getValue().getType()));
+        TableColumn<TaskRow, String> doneColumn = column("Done", 45);
+        doneColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<String>(
+                cell.getValue().isDone() ? "X" : ""));
+        TableColumn<TaskRow, String> descriptionColumn = column("Description", 160);
+        descriptionColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<String>(
+                cell.getValue().getDescription()));
+        TableColumn<TaskRow, String> whenColumn = column("When", 110);
+        whenColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<String>(cell.getValue().getWhen()));
+        numberColumn.setPrefWidth(35);
+        getColumns().add(numberColumn);
+        getColumns().add(typeColumn);
+        getColumns().add(doneColumn);
+        getColumns().add(descriptionColumn);
+        getColumns().add(whenColumn);
+        setFocusTraversable(false);
+    }
+
+    private static TableColumn<TaskRow, String> column(String title, double width) {
+        TableColumn<TaskRow, String> column = new TableColumn<TaskRow, String>(title);
+        column.setSortable(false);
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    /**
+     * Sets what is run to ask for a reset batch when a batch was missed
+     *
+     * @param resync Asks the publisher for a reset batch
+     */
+    public void setResync(Runnable resync) {
+        this.resync = resync;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(TaskChangeBatch batch) {
+        // the next batch is only requested once this one is applied, so batches wait in the publisher's buffer
+        Platform.runLater(() -> {
+            apply(batch);
+            subscription.request(1);
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.out.println("Error receiving task changes: " + throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * Applies the batch to the rows, asking for a reset instead if an earlier batch was missed
+     *
+     * @param batch Batch of changes received
+     */
+    private void apply(TaskChangeBatch batch) {
+        ObservableList<TaskRow> rows = getItems();
+        if (batch.isReset()) {
+            // replacing every row at once fires a single change, however many tasks there are
+            List<TaskRow> resetRows = new ArrayList<TaskRow>(batch.getChanges().size());
+            for (TaskChange change : batch.getChanges()) {
+                resetRows.add(change.getRow());
+            }
+            rows.setAll(resetRows);
+            expectedSequence = batch.getSequence() + 1;
+            return;
+        } else if (expectedSequence < 0 || batch.getSequence() != expectedSequence) {
+            // a batch arriving while waiting for a reset means the reset may have been dropped too
+            expectedSequence = -1;
+            resync.run();
+            return;
+        }
+        expectedSequence = batch.getSequence() + 1;
+        for (TaskChange change : batch.getChanges()) {
+            switch (change.getKind()) {
+            case ADDED:
+                rows.add(change.getIndex(), change.getRow());
+                break;
+            case REMOVED:
+                rows.remove(change.getIndex());
+                break;
+            default:
+                rows.set(change.getIndex(), change.getRow());
+                break;
+            }
+        }
+    }
+}
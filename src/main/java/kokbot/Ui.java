@@ -1,12 +1,27 @@
 package kokbot;
 
+import kokbot.io.TransferReport;
 import kokbot.task.Task;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class Ui {
 
+    /**
+     * Format of the day headings of an agenda
+     */
+    private static final DateTimeFormatter AGENDA_DAY_FORMATTER = DateTimeFormatter.ofPattern("EEE d MMM yyyy");
+
+    /**
+     * Types of task in the order they are summarised, with their names
+     */
+    private static final String[][] SUMMARY_TYPES = {{"T", "To-dos"}, {"D", "Deadlines"}, {"E", "Events"}};
+
     /**
      * Name of the bot
      */
@@ -43,6 +58,76 @@ public class Ui {
         return errorMessage;
     }
 
+    /**
+     * Shows that the data file was restored from a snapshot as it was missing or unreadable
+     *
+     * @param snapshotName Name of the snapshot restored
+     * @param taskCount    Number of tasks restored
+     * @return Message naming the snapshot restored
+     */
+    public String showRestored(String snapshotName, int taskCount) {
+        return String.format(" The data file was missing or unreadable, so %d tasks were restored from snapshot %s.%n",
+                taskCount, snapshotName);
+    }
+
+    /**
+     * Shows the snapshots skipped as damaged while restoring the data file
+     *
+     * @param damagedSnapshots Snapshots skipped, each as "name: reason"
+     * @return Message listing the snapshots skipped
+     */
+    public String showDamagedSnapshots(List<String> damagedSnapshots) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Skipped %d damaged snapshots:%n", damagedSnapshots.size()));
+        for (String damagedSnapshot : damagedSnapshots) {
+            stringBuilder.append(String.format("  %s%n", damagedSnapshot));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows the lines of the file skipped as corrupt when loading
+     *
+     * @param skippedLines Lines skipped, each as "line N: reason"
+     * @return Message listing the lines skipped
+     */
+    public String showSkippedLines(List<String> skippedLines) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Skipped %d corrupt lines of the data file:%n", skippedLines.size()));
+        int shownCount = Math.min(skippedLines.size(), TransferReport.MAX_REJECTIONS_SHOWN);
+        for (String skippedLine : skippedLines.subList(0, shownCount)) {
+            stringBuilder.append(String.format("  %s%n", skippedLine));
+        }
+        if (skippedLines.size() > shownCount) {
+            stringBuilder.append(String.format("  ...and %d more%n", skippedLines.size() - shownCount));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows the changes made to the data file by another program which were applied to the list of tasks
+     *
+     * @param addedCount   Number of tasks added
+     * @param removedCount Number of tasks removed
+     * @param changedCount Number of tasks changed in place
+     * @param skippedLines Lines of the file skipped as corrupt
+     * @return Summary of the changes applied
+     */
+    public String showExternalChanges(int addedCount, int removedCount, int changedCount, List<String> skippedLines) {
+        String summary = String.format(" The data file was changed outside Kokbot: %d tasks added, %d removed, "
+                + "%d changed.%n", addedCount, removedCount, changedCount);
+        return skippedLines.isEmpty() ? summary : summary + showSkippedLines(skippedLines);
+    }
+
+    /**
+     * Shows the message for a change rejected by a read-only follower
+     *
+     * @return Message for a rejected change
+     */
+    public String showReadOnly() {
+        return " This Kokbot is a read-only replica. Make changes on the primary instead.";
+    }
+
     /**
      * Shows welcome message
      */
@@ -107,6 +192,51 @@ public class Ui {
         return stringBuilder.toString();
     }
 
+    /**
+     * Shows a warning that the task just added duplicates one already in the list
+     *
+     * @param number Number of the task it duplicates, starting from 1
+     * @return Warning about the duplicate
+     */
+    public String showDuplicateWarning(int number) {
+        return String.format("%nWarning: this is the same as task %d. Use \"dedupe\" to collapse duplicates.", number);
+    }
+
+    /**
+     * Shows that a task was not added as it duplicates one already in the list
+     *
+     * @param task   Task already in the list
+     * @param number Number of the task, starting from 1
+     * @return Reason the task was not added
+     */
+    public String showDuplicateRejected(Task task, int number) {
+        return String.format("This task is already in the list as task %d:%n  %s", number, task);
+    }
+
+    /**
+     * Shows a task which a duplicate was merged into
+     *
+     * @param task   Task after the merge
+     * @param number Number of the task, starting from 1
+     * @return String representation of the merged task
+     */
+    public String showTaskMerged(Task task, int number) {
+        return String.format("This task is already in the list, so I've merged it into task %d:%n  %s", number, task);
+    }
+
+    /**
+     * Shows how many duplicate tasks were collapsed
+     *
+     * @param count Number of duplicates deleted
+     * @param len   Number of tasks left in the list
+     * @return Outcome of collapsing duplicates
+     */
+    public String showDuplicatesRemoved(int count, int len) {
+        return count == 0
+                ? "There are no duplicate tasks in the list."
+                : String.format("Removed %d duplicate tasks. Now you have %d tasks in the list.", count, len);
+    }
+
 
     /**
      * Shows a string representation of the task deleted
@@ -144,4 +274,147 @@ public class Ui {
 
         return stringBuilder.toString();
     }
+
+    /**
+     * Shows the tasks closest to a keyword which may be misspelt, closest first
+     * @param matchingTasks Tasks found, closest first
+     * @param keyword Keyword searched for
+     */
+    public String showFuzzyMatchingTasks(ArrayList<String> matchingTasks, String keyword) {
+        if (matchingTasks.isEmpty()) {
+            return String.format(" There are no tasks close to \"%s\" in your list.%n", keyword);
+        }
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Here are the tasks closest to \"%s\" in your list:%n", keyword));
+
+        for (String task : matchingTasks) {
+            stringBuilder.append(String.format("   %s%n", task));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows the latency and throughput metrics
+     * @param report Report of the metrics
+     */
+    public String showStats(String report) {
+        return " Here are my stats:\n" + report;
+    }
+
+    /**
+     * Shows the number of tasks of each type which are done and not done, and of overdue deadlines
+     * @param counters Counters of the tasks
+     * @param overdueCount Number of overdue deadlines
+     */
+    public String showSummary(TaskCounters counters, int overdueCount) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Here is a summary of your tasks:%n"));
+        stringBuilder.append(String.format("  Total: %d (%d undone, %d done)%n",
+                counters.getUndoneCount() + counters.getDoneCount(), counters.getUndoneCount(),
+                counters.getDoneCount()));
+        for (String[] type : SUMMARY_TYPES) {
+            int undone = counters.getCount(type[0], false);
+            int done = counters.getCount(type[0], true);
+            if (undone + done > 0) {
+                stringBuilder.append(String.format("  %s: %d (%d undone, %d done%s)%n", type[1], undone + done,
+                        undone, done, type[0].equals("D") ? ", " + overdueCount + " overdue" : ""));
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows a string representation of the tasks falling within the coming days
+     * @param tasks Tasks falling within the coming days
+     * @param days Number of days looked ahead
+     */
+    public String showUpcomingTasks(String[] tasks, int days) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Here are the tasks in the next %d days:%n", days));
+
+        for (String task : tasks) {
+            stringBuilder.append(String.format("%s%n", task));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows a string representation of the tasks falling on each day of an agenda
+     * @param agenda Task strings by day, leaving out days without tasks
+     * @param window Description of the days covered
+     */
+    public String showAgenda(Map<LocalDate, List<String>> agenda, String window) {
+        if (agenda.isEmpty()) {
+            return String.format(" There is nothing on your agenda for %s.%n", window);
+        }
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Here is your agenda for %s:%n", window));
+
+        for (Map.Entry<LocalDate, List<String>> day : agenda.entrySet()) {
+            stringBuilder.append(String.format(" %s%n", day.getKey().format(AGENDA_DAY_FORMATTER)));
+            for (String task : day.getValue()) {
+                stringBuilder.append(String.format("   %s%n", task));
+            }
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows a string representation of the tasks matching a filter
+     * @param tasks Tasks matching the filter
+     * @param accessPath Description of how the tasks were found
+     */
+    public String showFilteredTasks(String[] tasks, String accessPath) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Here are the %d matching tasks (via %s):%n", tasks.length, accessPath));
+
+        for (String task : tasks) {
+            stringBuilder.append(String.format("%s%n", task));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows the outcome of importing tasks from a file
+     *
+     * @param report Report of the import
+     * @param path   Path to the file imported from
+     * @return Outcome of the import
+     */
+    public String showImported(TransferReport report, String path) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(" Imported %d tasks from %s in %d ms (%d rows/s).%n",
+                report.getAcceptedCount(), path, report.getElapsedMillis(), report.getRowsPerSecond()));
+        if (report.isIncremental()) {
+            stringBuilder.append(String.format(" Updated %d, removed %d and left %d unchanged.%n",
+                    report.getUpdatedCount(), report.getRemovedCount(), report.getUnchangedCount()));
+        }
+        if (report.getRejectedCount() > 0) {
+            stringBuilder.append(String.format(" Rejected %d rows:%n", report.getRejectedCount()));
+            for (String rejection : report.getRejections()) {
+                stringBuilder.append(String.format("  %s%n", rejection));
+            }
+            if (report.getRejectedCount() > report.getRejections().size()) {
+                stringBuilder.append(String.format("  ...and %d more%n",
+                        report.getRejectedCount() - report.getRejections().size()));
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Shows the outcome of exporting tasks to a file
+     *
+     * @param report Report of the export
+     * @param path   Path to the file exported to
+     * @return Outcome of the export
+     */
+    public String showExported(TransferReport report, String path) {
+        return String.format(" Exported %d tasks to %s in %d ms (%d rows/s).%n",
+                report.getAcceptedCount(), path, report.getElapsedMillis(), report.getRowsPerSecond());
+    }
 }
@@ -0,0 +1,60 @@
+package kokbot.change;
+
+/**
+ * Represents a change to a single task of the task list
+ */
+public class TaskChange {
+
+    /**
+     * Represents the kind of change
+     */
+    public enum Kind {
+        ADDED, REMOVED, MARKED, UNMARKED, REPLACED
+    }
+
+    private final Kind kind;
+
+    /**
+     * Position of the task in the list when the change was made
+     */
+    private final int index;
+
+    /**
+     * Task after the change, or before it if the task was removed
+     */
+    private final TaskRow row;
+
+    /**
+     * Constructor for TaskChange
+     *
+     * @param kind  Kind of change
+     * @param index Position of the task in the list when the change was made
+     * @param row   Task after the change, or before it if the task was removed
+     */
+    public TaskChange(Kind kind, int index, TaskRow row) {
+        this.kind = kind;
+        this.index = index;
+        this.row = row;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public TaskRow getRow() {
+        return row;
+    }
+
+    /**
+     * Returns the id of the task changed, which stays the same for as long as the task list is not replaced
+     *
+     * @return Id of the task changed
+     */
+    public int getId() {
+        return row.getId();
+    }
+}
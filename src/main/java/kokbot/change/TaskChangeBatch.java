@@ -0,0 +1,44 @@
+package kokbot.change;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the changes made to the task list by a single command, to be applied in order.
+ * A reset batch instead lists every task as added, replacing whatever the subscriber held before.
+ */
+public class TaskChangeBatch {
+
+    /**
+     * Position of the batch in the stream, increasing by one with each batch published
+     */
+    private final long sequence;
+
+    private final boolean isReset;
+    private final List<TaskChange> changes;
+
+    /**
+     * Constructor for TaskChangeBatch
+     *
+     * @param sequence Position of the batch in the stream
+     * @param isReset  Whether the batch lists every task, replacing all earlier changes
+     * @param changes  Changes to be applied in order
+     */
+    public TaskChangeBatch(long sequence, boolean isReset, List<TaskChange> changes) {
+        this.sequence = sequence;
+        this.isReset = isReset;
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isReset() {
+        return isReset;
+    }
+
+    public List<TaskChange> getChanges() {
+        return changes;
+    }
+}
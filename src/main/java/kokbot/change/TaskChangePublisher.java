@@ -0,0 +1,114 @@
+package kokbot.change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the publisher of changes to the task list, which publishes the changes of each command as one batch.
+ * Each subscriber has a bounded buffer and receives batches as fast as it requests them. A batch which does not
+ * fit into a subscriber's buffer is dropped for that subscriber, which then sees a gap in the sequence and should
+ * ask for a reset, rather than holding up the commands.
+ */
+public class TaskChangePublisher implements Flow.Publisher<TaskChangeBatch>, AutoCloseable {
+
+    /**
+     * Number of batches buffered for each subscriber when none is configured
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "kokbot-task-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SubmissionPublisher<TaskChangeBatch> publisher = new SubmissionPublisher<TaskChangeBatch>(
+            executor, Integer.getInteger("kokbot.changes.buffer", DEFAULT_BUFFER_CAPACITY));
+
+    /**
+     * Changes recorded since the last batch was published
+     */
+    private List<TaskChange> pending = new ArrayList<TaskChange>();
+
+    private long nextSequence = 0;
+    private final LongAdder droppedCount = new LongAdder();
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super TaskChangeBatch> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Returns whether anyone is subscribed, so that changes need not be recorded otherwise
+     *
+     * @return Whether anyone is subscribed
+     */
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    /**
+     * Records a change to be published with the next batch
+     *
+     * @param change Change made
+     */
+    public void record(TaskChange change) {
+        pending.add(change);
+    }
+
+    /**
+     * Publishes the changes recorded since the last batch, if any
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<TaskChange> changes = pending;
+        pending = new ArrayList<TaskChange>();
+        offer(new TaskChangeBatch(nextSequence++, false, changes));
+    }
+
+    /**
+     * Publishes every task as a reset batch, discarding the changes not yet published
+     *
+     * @param rows Every task, in order
+     */
+    public void publishReset(List<TaskRow> rows) {
+        pending = new ArrayList<TaskChange>();
+        List<TaskChange> changes = new ArrayList<TaskChange>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            changes.add(new TaskChange(TaskChange.Kind.ADDED, i, rows.get(i)));
+        }
+        offer(new TaskChangeBatch(nextSequence++, true, changes));
+    }
+
+    private void offer(TaskChangeBatch batch) {
+        publisher.offer(batch, (subscriber, dropped) -> {
+            droppedCount.increment();
+            return false;
+        });
+    }
+
+    /**
+     * Returns the number of batches dropped for subscribers whose buffers were full
+     *
+     * @return Number of batches dropped
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Completes the stream for all subscribers
+     */
+    @Override
+    public void close() {
+        publisher.close();
+        executor.shutdown();
+    }
+}
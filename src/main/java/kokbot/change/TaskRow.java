@@ -0,0 +1,60 @@
+package kokbot.change;
+
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Task;
+
+/**
+ * Represents an immutable view of a task at the time of a change, which can be read from any thread
+ */
+public class TaskRow {
+
+    private final int id;
+    private final String type;
+    private final boolean isDone;
+    private final String description;
+
+    /**
+     * When the task is due or takes place, or empty for a Todo
+     */
+    private final String when;
+
+    /**
+     * Constructor for TaskRow
+     *
+     * @param task Task to be viewed
+     */
+    public TaskRow(Task task) {
+        this.id = task.getId();
+        this.type = task.getType();
+        this.isDone = task.isDone();
+        this.description = task.getDescription();
+        if (task instanceof Deadline) {
+            this.when = "by " + ((Deadline) task).formatDueDate();
+        } else if (task instanceof Event) {
+            this.when = ((Event) task).formatStartDate() + " to " + ((Event) task).formatEndDate();
+        } else {
+            this.when = "";
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getWhen() {
+        return when;
+    }
+}
@@ -0,0 +1,568 @@
+package kokbot.io;
+
+import kokbot.DukeException;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Priority;
+import kokbot.task.Recurrence;
+import kokbot.task.Recurring;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.RecurringEvent;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a VEVENT or VTODO component of an iCalendar (RFC 5545) file, as its unfolded content lines.
+ * A VEVENT maps to an Event, and a VTODO to a Deadline, or to a Todo if it has no due date.
+ */
+public class IcsComponent {
+
+    /**
+     * Largest number of octets in a content line, beyond which it is folded onto the next line
+     */
+    public static final int FOLD_LENGTH = 75;
+
+    public static final String EVENT = "VEVENT";
+    public static final String TODO = "VTODO";
+
+    /**
+     * Property marking an event as done, as the STATUS of an event cannot say so
+     */
+    public static final String DONE_PROPERTY = "X-KOKBOT-DONE";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Represents a content line split into its name, parameters and value
+     */
+    private static final class Property {
+        private final String name;
+        private final Map<String, String> parameters = new HashMap<String, String>();
+        private final String value;
+
+        private Property(String line) {
+            int i = 0;
+            while (i < line.length() && line.charAt(i) != ';' && line.charAt(i) != ':') {
+                i++;
+            }
+            this.name = line.substring(0, i).toUpperCase();
+            while (i < line.length() && line.charAt(i) == ';') {
+                int start = ++i;
+                boolean isQuoted = false;
+                while (i < line.length() && (isQuoted || (line.charAt(i) != ';' && line.charAt(i) != ':'))) {
+                    isQuoted ^= line.charAt(i) == '"';
+                    i++;
+                }
+                String parameter = line.substring(start, i);
+                int equals = parameter.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(parameter.substring(0, equals).toUpperCase(),
+                            parameter.substring(equals + 1).replace("\"", ""));
+                }
+            }
+            this.value = i < line.length() ? line.substring(i + 1) : "";
+        }
+    }
+
+    private final String kind;
+    private final long lineNumber;
+    private final List<String> lines;
+
+    /**
+     * Properties of the component itself, leaving out those of components nested in it such as VALARM
+     */
+    private Map<String, List<Property>> properties;
+
+    private IcsComponent(String kind, long lineNumber, List<String> lines) {
+        this.kind = kind;
+        this.lineNumber = lineNumber;
+        this.lines = lines;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the UID of the component
+     *
+     * @return UID of the component, or null if it has none
+     */
+    public String getUid() {
+        for (String line : lines) {
+            if (line.regionMatches(true, 0, "UID:", 0, 4)) {
+                return line.substring(4).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of the content lines, leaving out DTSTAMP, which changes every time a
+     * calendar is written even if the component does not
+     *
+     * @return Hash of the content of the component
+     */
+    public long getHash() {
+        long hash = FNV_OFFSET_BASIS;
+        for (String line : lines) {
+            if (line.regionMatches(true, 0, "DTSTAMP", 0, 7)) {
+                continue;
+            }
+            for (int i = 0; i < line.length(); i++) {
+                hash = (hash ^ line.charAt(i)) * FNV_PRIME;
+            }
+            hash = (hash ^ '\n') * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Creates the task described by the component, validating every property it maps from
+     *
+     * @return Task described by the component
+     * @throws DukeException If a property is missing or not valid
+     */
+    public Task toTask() throws DukeException {
+        String summary = getText("SUMMARY");
+        if (summary.isEmpty()) {
+            throw new DukeException("component has no SUMMARY");
+        }
+        Recurrence recurrence = getRecurrence();
+        Task task;
+        if (kind.equals(EVENT)) {
+            Property start = getProperty("DTSTART");
+            if (start == null) {
+                throw new DukeException("VEVENT has no DTSTART");
+            }
+            LocalDateTime startDate = parseDateTime(start);
+            LocalDateTime endDate = getEndDateTime(start, startDate);
+            if (startDate.isAfter(endDate)) {
+                throw new DukeException("DTSTART is after DTEND");
+            }
+            checkOccurrenceCount(recurrence, startDate);
+            task = recurrence == null
+                    ? new Event(summary, startDate, endDate)
+                    : new RecurringEvent(summary, startDate, endDate, recurrence);
+        } else if (getProperty("DUE") != null) {
+            LocalDateTime dueDate = parseDateTime(getProperty("DUE"));
+            checkOccurrenceCount(recurrence, dueDate);
+            task = recurrence == null
+                    ? new Deadline(summary, dueDate)
+                    : new RecurringDeadline(summary, dueDate, recurrence);
+        } else {
+            task = new Todo(summary);
+        }
+        if (getProperty("COMPLETED") != null || getValue("STATUS").equalsIgnoreCase("COMPLETED")
+                || getValue(DONE_PROPERTY).equalsIgnoreCase("TRUE")) {
+            task.markAsDone();
+        }
+        List<String> tags = new ArrayList<String>();
+        for (Property categories : properties.getOrDefault("CATEGORIES", Collections.<Property>emptyList())) {
+            for (String category : unescape(categories.value, true)) {
+                if (!category.isBlank()) {
+                    tags.add(category.trim().replaceAll("\\s+", "-"));
+                }
+            }
+        }
+        task.setTags(tags);
+        task.setPriority(toPriority(getValue("PRIORITY")));
+        return task;
+    }
+
+    private LocalDateTime getEndDateTime(Property start, LocalDateTime startDate) throws DukeException {
+        Property end = getProperty("DTEND");
+        if (end != null) {
+            LocalDateTime endDate = parseDateTime(end);
+            // the end of an all-day event is the start of the day after it
+            return isDate(end) && endDate.isAfter(startDate) ? endDate.minusMinutes(1) : endDate;
+        }
+        String duration = getValue("DURATION");
+        if (!duration.isEmpty()) {
+            try {
+                return duration.endsWith("W")
+                        ? startDate.plusWeeks(Long.parseLong(duration.substring(duration.indexOf('P') + 1,
+                                duration.length() - 1)) * (duration.startsWith("-") ? -1 : 1))
+                        : startDate.plus(Duration.parse(duration));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new DukeException(String.format("DURATION \"%s\" is not valid", duration));
+            }
+        }
+        return isDate(start) ? startDate.plusDays(1).minusMinutes(1) : startDate;
+    }
+
+    private void checkOccurrenceCount(Recurrence recurrence, LocalDateTime start) throws DukeException {
+        try {
+            if (recurrence != null) {
+                recurrence.checkOccurrenceCount(start);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new DukeException(String.format("RRULE \"%s\" has more than %d occurrences", getValue("RRULE"),
+                    Recurrence.MAX_OCCURRENCES));
+        }
+    }
+
+    /**
+     * Returns the recurrence of the component from its RRULE, which may only repeat daily, weekly or monthly
+     */
+    private Recurrence getRecurrence() throws DukeException {
+        String rule = getValue("RRULE");
+        if (rule.isEmpty() || (kind.equals(TODO) && getProperty("DUE") == null)) {
+            return null;
+        }
+        Map<String, String> parts = new HashMap<String, String>();
+        for (String part : rule.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals > 0) {
+                parts.put(part.substring(0, equals).toUpperCase(), part.substring(equals + 1));
+            }
+        }
+        if (!parts.getOrDefault("INTERVAL", "1").equals("1") || parts.containsKey("BYDAY")
+                || parts.containsKey("BYMONTHDAY")) {
+            throw new DukeException(String.format("RRULE \"%s\" is not supported", rule));
+        }
+        try {
+            Recurrence.Frequency frequency = Recurrence.Frequency.valueOf(parts.getOrDefault("FREQ", ""));
+            if (parts.containsKey("UNTIL")) {
+                return new Recurrence(frequency, parseDateTime("UNTIL", parts.get("UNTIL"), null, null));
+            }
+            return new Recurrence(frequency, Integer.parseInt(
+                    parts.getOrDefault("COUNT", String.valueOf(Recurrence.MAX_OCCURRENCES))));
+        } catch (IllegalArgumentException e) {
+            throw new DukeException(String.format("RRULE \"%s\" is not supported", rule));
+        }
+    }
+
+    private static Priority toPriority(String value) throws DukeException {
+        if (value.isEmpty()) {
+            return Priority.NONE;
+        }
+        int priority;
+        try {
+            priority = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new DukeException(String.format("PRIORITY \"%s\" is not valid", value));
+        }
+        if (priority <= 0) {
+            return Priority.NONE;
+        } else if (priority < 5) {
+            return Priority.HIGH;
+        }
+        return priority == 5 ? Priority.MEDIUM : Priority.LOW;
+    }
+
+    private static String fromPriority(Priority priority) {
+        switch (priority) {
+        case HIGH:
+            return "1";
+        case MEDIUM:
+            return "5";
+        case LOW:
+            return "9";
+        default:
+            return null;
+        }
+    }
+
+    private static boolean isDate(Property property) {
+        return property.value.trim().length() == 8 || "DATE".equalsIgnoreCase(property.parameters.get("VALUE"));
+    }
+
+    private static LocalDateTime parseDateTime(Property property) throws DukeException {
+        return parseDateTime(property.name, property.value.trim(), property.parameters.get("VALUE"),
+                property.parameters.get("TZID"));
+    }
+
+    /**
+     * Parses a DATE or DATE-TIME value, converting a time in UTC or in a named time zone to local time.
+     * A floating time, or one in a time zone Java does not know, is taken as local time.
+     */
+    private static LocalDateTime parseDateTime(String name, String value, String valueType, String timeZone)
+            throws DukeException {
+        try {
+            if (value.length() == 8 || "DATE".equalsIgnoreCase(valueType)) {
+                return LocalDate.parse(value.substring(0, Math.min(8, value.length())), DATE_FORMATTER)
+                        .atStartOfDay();
+            }
+            boolean isUtc = value.endsWith("Z");
+            LocalDateTime dateTime = LocalDateTime.parse(isUtc ? value.substring(0, value.length() - 1) : value,
+                    DATE_TIME_FORMATTER);
+            ZoneId zone = isUtc ? ZoneOffset.UTC : null;
+            if (timeZone != null) {
+                try {
+                    zone = ZoneId.of(timeZone);
+                } catch (DateTimeException e) {
+                    // unknown time zones are taken as local time
+                }
+            }
+            return zone == null
+                    ? dateTime
+                    : dateTime.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            throw new DukeException(String.format("%s \"%s\" is not a valid date-time", name, value));
+        }
+    }
+
+    private Property getProperty(String name) {
+        if (properties == null) {
+            parseProperties();
+        }
+        List<Property> values = properties.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    private String getValue(String name) {
+        Property property = getProperty(name);
+        return property == null ? "" : property.value;
+    }
+
+    private String getText(String name) {
+        return String.join(",", unescape(getValue(name), false)).trim();
+    }
+
+    private void parseProperties() {
+        properties = new HashMap<String, List<Property>>();
+        int depth = 0;
+        for (int i = 1; i < lines.size() - 1; i++) {
+            String line = lines.get(i);
+            if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+                depth++;
+            } else if (line.regionMatches(true, 0, "END:", 0, 4)) {
+                depth--;
+            } else if (depth == 0) {
+                Property property = new Property(line);
+                properties.computeIfAbsent(property.name, name -> new ArrayList<Property>(1)).add(property);
+            }
+        }
+    }
+
+    /**
+     * Unescapes a TEXT value, splitting it at unescaped commas if asked to
+     */
+    private static List<String> unescape(String value, boolean isList) {
+        List<String> values = new ArrayList<String>(1);
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                text.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else if (c == ',' && isList) {
+                values.add(text.toString());
+                text.setLength(0);
+            } else {
+                text.append(c);
+            }
+        }
+        values.add(text.toString());
+        return values;
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == ';' || c == ',') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c != '\r') {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Creates the component of a task, with its date-times as floating local times
+     *
+     * @param task  Task to be written
+     * @param uid   UID of the component
+     * @param stamp Time the calendar is written, in UTC
+     * @return Component of the task
+     */
+    public static IcsComponent fromTask(Task task, String uid, LocalDateTime stamp) {
+        String kind = task instanceof Event ? EVENT : TODO;
+        List<String> lines = new ArrayList<String>(12);
+        lines.add("BEGIN:" + kind);
+        lines.add("UID:" + uid);
+        lines.add("DTSTAMP:" + stamp.format(DATE_TIME_FORMATTER) + "Z");
+        lines.add("SUMMARY:" + escape(task.getDescription()));
+        if (task instanceof Event) {
+            lines.add("DTSTART:" + task.getDateTime().format(DATE_TIME_FORMATTER));
+            lines.add("DTEND:" + task.getEndDateTime().format(DATE_TIME_FORMATTER));
+        } else if (task instanceof Deadline) {
+            lines.add("DUE:" + task.getDateTime().format(DATE_TIME_FORMATTER));
+        }
+        if (task instanceof Recurring) {
+            Recurrence recurrence = ((Recurring) task).getRecurrence();
+            lines.add("RRULE:FREQ=" + recurrence.getFrequency() + (recurrence.getUntil() == null
+                    ? ";COUNT=" + recurrence.getCount()
+                    : ";UNTIL=" + recurrence.getUntil().format(DATE_TIME_FORMATTER)));
+        }
+        if (kind.equals(TODO)) {
+            lines.add(task.isDone() ? "STATUS:COMPLETED" : "STATUS:NEEDS-ACTION");
+        } else {
+            // events have no status for being done, so it is kept in a property other applications ignore
+            lines.add("STATUS:CONFIRMED");
+            if (task.isDone()) {
+                lines.add(DONE_PROPERTY + ":TRUE");
+            }
+        }
+        if (!task.getTags().isEmpty()) {
+            List<String> categories = new ArrayList<String>(task.getTags().size());
+            for (String tag : task.getTags()) {
+                categories.add(escape(tag));
+            }
+            lines.add("CATEGORIES:" + String.join(",", categories));
+        }
+        String priority = fromPriority(task.getPriority());
+        if (priority != null) {
+            lines.add("PRIORITY:" + priority);
+        }
+        lines.add("END:" + kind);
+        return new IcsComponent(kind, 0, lines);
+    }
+
+    /**
+     * Writes the content lines of the component, folding those longer than FOLD_LENGTH octets
+     *
+     * @param writer Writer to be written to
+     * @throws IOException If there is an error writing
+     */
+    public void write(Writer writer) throws IOException {
+        for (String line : lines) {
+            writeLine(writer, line);
+        }
+    }
+
+    /**
+     * Writes a content line ended by CRLF, folding it without splitting a UTF-8 sequence
+     *
+     * @param writer Writer to be written to
+     * @param line   Unfolded content line
+     * @throws IOException If there is an error writing
+     */
+    public static void writeLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > FOLD_LENGTH) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            int length = Character.charCount(codePoint);
+            writer.write(line, i, length);
+            octets += size;
+            i += length;
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Represents a reader which streams the VEVENT and VTODO components of a calendar one at a time,
+     * unfolding their content lines and skipping every other component
+     */
+    public static class Reader {
+        private final BufferedReader reader;
+        private String nextLine;
+        private long lineNumber = 0;
+        private long nextLineNumber = 0;
+
+        /**
+         * Constructor for Reader
+         *
+         * @param reader Reader of the calendar file
+         */
+        public Reader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the next VEVENT or VTODO component
+         *
+         * @return Next component, or null at the end of the file
+         * @throws IOException If the file cannot be read
+         */
+        public IcsComponent next() throws IOException {
+            String line;
+            while ((line = readLine()) != null) {
+                if (!line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+                    continue;
+                }
+                String kind = line.substring(6).trim().toUpperCase();
+                if (!kind.equals(EVENT) && !kind.equals(TODO)) {
+                    continue;
+                }
+                long startLineNumber = lineNumber;
+                List<String> lines = new ArrayList<String>(16);
+                lines.add("BEGIN:" + kind);
+                int depth = 0;
+                while ((line = readLine()) != null) {
+                    lines.add(line);
+                    if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+                        depth++;
+                    } else if (line.regionMatches(true, 0, "END:", 0, 4) && depth-- == 0) {
+                        break;
+                    }
+                }
+                return new IcsComponent(kind, startLineNumber, lines);
+            }
+            return null;
+        }
+
+        /**
+         * Reads the next content line, joining the lines folded from it
+         */
+        private String readLine() throws IOException {
+            String line = nextLine != null ? nextLine : reader.readLine();
+            lineNumber = nextLine != null ? nextLineNumber : lineNumber + 1;
+            nextLine = null;
+            if (line == null) {
+                return null;
+            }
+            StringBuilder unfolded = null;
+            long physicalLineNumber = lineNumber;
+            String next;
+            while ((next = reader.readLine()) != null) {
+                physicalLineNumber++;
+                if (next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+                    nextLine = next;
+                    nextLineNumber = physicalLineNumber;
+                    break;
+                }
+                if (unfolded == null) {
+                    unfolded = new StringBuilder(line);
+                }
+                unfolded.append(next, 1, next.length());
+            }
+            return unfolded == null ? line : unfolded.toString();
+        }
+    }
+}
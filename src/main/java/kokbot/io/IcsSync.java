@@ -0,0 +1,308 @@
+package kokbot.io;
+
+import kokbot.DukeException;
+import kokbot.RecordCodec;
+import kokbot.TaskList;
+import kokbot.task.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Represents an incremental sync of a task list with an iCalendar (.ics) file.
+ * The UID and content hash of every component synced are kept in a state file beside the calendar, along with
+ * the record of the task it maps to. Syncing the calendar again then skips every component whose hash is
+ * unchanged, and only parses and touches the tasks of components which were added, changed or removed since.
+ */
+public class IcsSync {
+
+    /**
+     * Suffix added to the name of a calendar to name its state file
+     */
+    public static final String STATE_SUFFIX = ".sync";
+
+    private static final String STATE_HEADER = RecordCodec.HEADER_PREFIX + " kokbot ics sync state: hash, uid, record";
+
+    private static final String UID_SUFFIX = "@kokbot";
+
+    /**
+     * Represents what was last synced of a component: its content hash and the record of its task
+     */
+    private static final class SyncEntry {
+        private final long hash;
+        private final String record;
+
+        private SyncEntry(long hash, String record) {
+            this.hash = hash;
+            this.record = record;
+        }
+    }
+
+    private final TaskList tasks;
+
+    /**
+     * Positions of the tasks in the list by their records, found only once a changed or removed component
+     * needs its task
+     */
+    private Map<String, ArrayDeque<Integer>> positions;
+
+    /**
+     * Constructor for IcsSync
+     *
+     * @param tasks Task list to be synced
+     */
+    public IcsSync(TaskList tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Returns the path of the state file of a calendar
+     *
+     * @param path Path to the calendar
+     * @return Path to its state file
+     */
+    public static Path getStatePath(Path path) {
+        return path.resolveSibling(path.getFileName() + STATE_SUFFIX);
+    }
+
+    /**
+     * Syncs the tasks with the VEVENT and VTODO components of a calendar. New components are added as tasks,
+     * changed ones replace the task they were last synced to and removed ones delete it. A task edited since
+     * the last sync is left alone, and the new version of its component is added beside it.
+     *
+     * @param path Path to the calendar
+     * @return Report of the sync
+     * @throws DukeException If the calendar cannot be read or the state cannot be written
+     */
+    public TransferReport importFile(Path path) throws DukeException {
+        TransferReport report = new TransferReport();
+        long startTime = System.nanoTime();
+        Path statePath = getStatePath(path);
+        Map<String, SyncEntry> state = readState(statePath);
+        Map<String, SyncEntry> newState = new HashMap<String, SyncEntry>(state.size() * 2);
+        List<Task> chunk = new ArrayList<Task>(TaskImporter.CHUNK_SIZE);
+        positions = null;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            IcsComponent.Reader components = new IcsComponent.Reader(reader);
+            IcsComponent component;
+            while ((component = components.next()) != null) {
+                String uid = component.getUid();
+                if (uid == null || uid.isEmpty() || uid.indexOf('\t') >= 0) {
+                    report.reject(component.getLineNumber(), component.getKind() + " has no valid UID");
+                    continue;
+                } else if (newState.containsKey(uid)) {
+                    report.reject(component.getLineNumber(), String.format("UID \"%s\" is repeated", uid));
+                    continue;
+                }
+                SyncEntry entry = state.get(uid);
+                long hash = component.getHash();
+                if (entry != null && entry.hash == hash) {
+                    newState.put(uid, entry);
+                    report.skip();
+                    continue;
+                }
+                Task task;
+                try {
+                    task = component.toTask();
+                } catch (DukeException e) {
+                    report.reject(component.getLineNumber(), e.getMessage());
+                    if (entry != null) {
+                        // keeps the task of the last valid version, so it is not deleted as removed
+                        newState.put(uid, entry);
+                    }
+                    continue;
+                }
+                newState.put(uid, new SyncEntry(hash, task.toRecord()));
+                Integer position = entry == null ? null : takePosition(entry.record);
+                if (position == null) {
+                    chunk.add(task);
+                    report.accept();
+                    if (chunk.size() == TaskImporter.CHUNK_SIZE) {
+                        flush(chunk);
+                    }
+                } else {
+                    tasks.replaceTask(position, task);
+                    report.update();
+                }
+            }
+        } catch (NoSuchFileException e) {
+            throw new DukeException("Import file not found: " + path);
+        } catch (IOException e) {
+            throw new DukeException("Error reading import file: " + e.getMessage());
+        }
+        flush(chunk);
+        deleteRemoved(state, newState, report);
+        writeState(statePath, newState);
+        report.setElapsedNanos(System.nanoTime() - startTime);
+        return report;
+    }
+
+    /**
+     * Deletes the tasks of components which were synced before but are no longer in the calendar
+     */
+    private void deleteRemoved(Map<String, SyncEntry> state, Map<String, SyncEntry> newState,
+            TransferReport report) {
+        List<Integer> removed = new ArrayList<Integer>();
+        for (Map.Entry<String, SyncEntry> entry : state.entrySet()) {
+            if (!newState.containsKey(entry.getKey())) {
+                Integer position = takePosition(entry.getValue().record);
+                if (position != null) {
+                    removed.add(position);
+                }
+            }
+        }
+        // deleting from the back keeps the positions of the tasks still to be deleted
+        removed.sort(Collections.reverseOrder());
+        for (int position : removed) {
+            tasks.deleteTask(position);
+            report.remove();
+        }
+    }
+
+    /**
+     * Returns the position of a task with the given record, taking it so that it is not returned again
+     */
+    private Integer takePosition(String record) {
+        if (positions == null) {
+            positions = new HashMap<String, ArrayDeque<Integer>>(tasks.getSize() * 2);
+            List<Task> snapshot = tasks.snapshot();
+            for (int i = 0; i < snapshot.size(); i++) {
+                positions.computeIfAbsent(snapshot.get(i).toRecord(), key -> new ArrayDeque<Integer>(1)).add(i);
+            }
+        }
+        ArrayDeque<Integer> found = positions.get(record);
+        return found == null ? null : found.poll();
+    }
+
+    private void flush(List<Task> chunk) {
+        if (!chunk.isEmpty()) {
+            tasks.addTasks(chunk);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Writes every task to a calendar, one component at a time, replacing the file if it exists.
+     * A task synced before keeps its UID, so other calendar applications see it as the same entry.
+     *
+     * @param path Path to the calendar
+     * @return Report of the export
+     * @throws DukeException If the calendar or the state cannot be written
+     */
+    public TransferReport exportFile(Path path) throws DukeException {
+        TransferReport report = new TransferReport();
+        long startTime = System.nanoTime();
+        Path statePath = getStatePath(path);
+        Map<String, ArrayDeque<String>> uids = new HashMap<String, ArrayDeque<String>>();
+        for (Map.Entry<String, SyncEntry> entry : readState(statePath).entrySet()) {
+            uids.computeIfAbsent(entry.getValue().record, key -> new ArrayDeque<String>(1)).add(entry.getKey());
+        }
+        Map<String, SyncEntry> newState = new HashMap<String, SyncEntry>(tasks.getSize() * 2);
+        LocalDateTime stamp = LocalDateTime.now(ZoneOffset.UTC);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                IcsComponent.writeLine(writer, "BEGIN:VCALENDAR");
+                IcsComponent.writeLine(writer, "VERSION:2.0");
+                IcsComponent.writeLine(writer, "PRODID:-//kokbot//kokbot//EN");
+                for (Task task : tasks.snapshot()) {
+                    String record = task.toRecord();
+                    ArrayDeque<String> known = uids.get(record);
+                    String uid = known == null || known.isEmpty() ? UUID.randomUUID() + UID_SUFFIX : known.poll();
+                    IcsComponent component = IcsComponent.fromTask(task, uid, stamp);
+                    component.write(writer);
+                    newState.put(uid, new SyncEntry(component.getHash(), record));
+                    report.accept();
+                }
+                IcsComponent.writeLine(writer, "END:VCALENDAR");
+            }
+        } catch (IOException e) {
+            throw new DukeException("Error writing export file: " + e.getMessage());
+        }
+        writeState(statePath, newState);
+        report.setElapsedNanos(System.nanoTime() - startTime);
+        return report;
+    }
+
+    /**
+     * Reads the state file of a calendar, skipping lines which cannot be parsed
+     */
+    private static Map<String, SyncEntry> readState(Path statePath) throws DukeException {
+        Map<String, SyncEntry> state = new HashMap<String, SyncEntry>();
+        if (!Files.exists(statePath)) {
+            return state;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(statePath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int uidStart = line.indexOf('\t') + 1;
+                int recordStart = line.indexOf('\t', uidStart) + 1;
+                if (line.startsWith(RecordCodec.HEADER_PREFIX) || uidStart == 0 || recordStart == 0) {
+                    continue;
+                }
+                try {
+                    long hash = Long.parseUnsignedLong(line.substring(0, uidStart - 1), 16);
+                    state.put(line.substring(uidStart, recordStart - 1),
+                            new SyncEntry(hash, line.substring(recordStart)));
+                } catch (NumberFormatException e) {
+                    // a damaged line only costs its component being synced as new
+                }
+            }
+        } catch (IOException e) {
+            throw new DukeException("Error reading sync state: " + e.getMessage());
+        }
+        return state;
+    }
+
+    /**
+     * Writes the state file of a calendar into a temporary file renamed into place, so it is either whole or
+     * as it was. Records never hold tabs or line breaks, as they are escaped.
+     */
+    private static void writeState(Path statePath, Map<String, SyncEntry> state) throws DukeException {
+        Path directory = statePath.toAbsolutePath().getParent();
+        try {
+            Path temporary = Files.createTempFile(directory, statePath.getFileName().toString(), ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    writer.write(STATE_HEADER);
+                    writer.newLine();
+                    for (Map.Entry<String, SyncEntry> entry : state.entrySet()) {
+                        writer.write(Long.toHexString(entry.getValue().hash));
+                        writer.write('\t');
+                        writer.write(entry.getKey());
+                        writer.write('\t');
+                        writer.write(entry.getValue().record);
+                        writer.newLine();
+                    }
+                }
+                try {
+                    Files.move(temporary, statePath, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, statePath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new DukeException("Error writing sync state: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package kokbot.io;
+
+import kokbot.DukeException;
+import kokbot.TaskList;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Represents an exporter which streams a task list to a CSV, JSON Lines or iCalendar file
+ */
+public class TaskExporter {
+
+    private final TaskList tasks;
+
+    /**
+     * Constructor for TaskExporter
+     *
+     * @param tasks Task list to be exported
+     */
+    public TaskExporter(TaskList tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Writes every task to a file, one row at a time, replacing the file if it exists
+     *
+     * @param path Path to the file
+     * @return Report of the export
+     * @throws DukeException If the file cannot be written
+     */
+    public TransferReport exportFile(Path path) throws DukeException {
+        TaskFormat format = TaskFormat.fromPath(path);
+        if (format == TaskFormat.ICS) {
+            return new IcsSync(tasks).exportFile(path);
+        }
+        TransferReport report = new TransferReport();
+        long startTime = System.nanoTime();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                if (format == TaskFormat.CSV) {
+                    writeCsvRow(writer, TaskRecord.FIELDS);
+                }
+                for (int i = 0; i < tasks.getSize(); i++) {
+                    String[] fields = TaskRecord.fromTask(tasks.getTask(i)).toFields();
+                    if (format == TaskFormat.CSV) {
+                        writeCsvRow(writer, fields);
+                    } else {
+                        writeJsonLine(writer, fields);
+                    }
+                    report.accept();
+                }
+            }
+        } catch (IOException e) {
+            throw new DukeException("Error writing export file: " + e.getMessage());
+        }
+        report.setElapsedNanos(System.nanoTime() - startTime);
+        return report;
+    }
+
+    private static void writeCsvRow(BufferedWriter writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i];
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0
+                    && field.indexOf('\r') < 0) {
+                writer.write(field);
+            } else {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+        writer.newLine();
+    }
+
+    private static void writeJsonLine(BufferedWriter writer, String[] fields) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJsonString(writer, TaskRecord.FIELDS[i]);
+            writer.write(':');
+            if (i == 1) {
+                writer.write(fields[i].isEmpty() ? "false" : "true");
+            } else {
+                writeJsonString(writer, fields[i]);
+            }
+        }
+        writer.write('}');
+        writer.newLine();
+    }
+
+    private static void writeJsonString(BufferedWriter writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c == '\n') {
+                writer.write("\\n");
+            } else if (c == '\r') {
+                writer.write("\\r");
+            } else if (c == '\t') {
+                writer.write("\\t");
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
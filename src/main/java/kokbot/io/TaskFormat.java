@@ -0,0 +1,31 @@
+package kokbot.io;
+
+import kokbot.DukeException;
+
+import java.nio.file.Path;
+
+/**
+ * Represents a file format tasks can be imported from and exported to
+ */
+public enum TaskFormat {
+    CSV, JSONL, ICS;
+
+    /**
+     * Returns the format of a file from its extension
+     *
+     * @param path Path to the file
+     * @return Format of the file
+     * @throws DukeException If the extension is not of a known format
+     */
+    public static TaskFormat fromPath(Path path) throws DukeException {
+        String name = path.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSONL;
+        } else if (name.endsWith(".ics")) {
+            return ICS;
+        }
+        throw new DukeException("Unknown usage - files must end with .csv, .jsonl, .ndjson or .ics");
+    }
+}
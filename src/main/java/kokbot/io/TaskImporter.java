@@ -0,0 +1,315 @@
+package kokbot.io;
+
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.task.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents an importer which streams tasks from a CSV or JSON Lines file into a task list,
+ * or syncs them from an iCalendar file
+ */
+public class TaskImporter {
+
+    /**
+     * Number of parsed tasks added to the task list at a time
+     */
+    public static final int CHUNK_SIZE = 1000;
+
+    private final TaskList tasks;
+
+    /**
+     * Constructor for TaskImporter
+     *
+     * @param tasks Task list to be imported into
+     */
+    public TaskImporter(TaskList tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Imports every valid row of a file, rejecting invalid rows without stopping
+     *
+     * @param path Path to the file
+     * @return Report of the import
+     * @throws DukeException If the file cannot be read
+     */
+    public TransferReport importFile(Path path) throws DukeException {
+        TaskFormat format = TaskFormat.fromPath(path);
+        if (format == TaskFormat.ICS) {
+            return new IcsSync(tasks).importFile(path);
+        }
+        TransferReport report = new TransferReport();
+        long startTime = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            if (format == TaskFormat.CSV) {
+                importCsv(new CsvReader(reader), report);
+            } else {
+                importJsonLines(reader, report);
+            }
+        } catch (NoSuchFileException e) {
+            throw new DukeException("Import file not found: " + path);
+        } catch (IOException e) {
+            throw new DukeException("Error reading import file: " + e.getMessage());
+        }
+        report.setElapsedNanos(System.nanoTime() - startTime);
+        return report;
+    }
+
+    private void importCsv(CsvReader reader, TransferReport report) throws IOException {
+        List<Task> chunk = new ArrayList<Task>(CHUNK_SIZE);
+        String[] row = reader.readRow();
+        if (row != null && !row[0].trim().equalsIgnoreCase(TaskRecord.FIELDS[0])) {
+            // no header, so the first row is a task
+            addRow(TaskRecord.fromFields(row), reader.getRowLineNumber(), chunk, report);
+        }
+        while ((row = reader.readRow()) != null) {
+            if (row.length == 1 && row[0].trim().isEmpty()) {
+                continue;
+            }
+            addRow(TaskRecord.fromFields(row), reader.getRowLineNumber(), chunk, report);
+        }
+        flush(chunk);
+    }
+
+    private void importJsonLines(BufferedReader reader, TransferReport report) throws IOException {
+        List<Task> chunk = new ArrayList<Task>(CHUNK_SIZE);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                addRow(TaskRecord.fromJson(parseJsonObject(line)), lineNumber, chunk, report);
+            } catch (DukeException e) {
+                report.reject(lineNumber, e.getMessage());
+            }
+        }
+        flush(chunk);
+    }
+
+    private void addRow(TaskRecord record, long lineNumber, List<Task> chunk, TransferReport report) {
+        try {
+            chunk.add(record.toTask());
+            report.accept();
+        } catch (DukeException e) {
+            report.reject(lineNumber, e.getMessage());
+            return;
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+            flush(chunk);
+        }
+    }
+
+    private void flush(List<Task> chunk) {
+        if (!chunk.isEmpty()) {
+            tasks.addTasks(chunk);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Parses a flat JSON object whose values are strings, booleans, numbers or null
+     *
+     * @param line Line holding the JSON object
+     * @return Keys and values of the object, with every value as a string
+     * @throws DukeException If the line is not a flat JSON object
+     */
+    static Map<String, String> parseJsonObject(String line) throws DukeException {
+        Map<String, String> object = new HashMap<String, String>();
+        int[] position = {skipWhitespace(line, 0)};
+        expect(line, position, '{');
+        if (peek(line, position) == '}') {
+            position[0]++;
+        } else {
+            while (true) {
+                String key = readJsonString(line, position);
+                expect(line, position, ':');
+                object.put(key, readJsonValue(line, position));
+                char next = peek(line, position);
+                position[0]++;
+                if (next == '}') {
+                    break;
+                } else if (next != ',') {
+                    throw new DukeException("expected ',' or '}' in JSON object");
+                }
+            }
+        }
+        if (skipWhitespace(line, position[0]) != line.length()) {
+            throw new DukeException("unexpected text after JSON object");
+        }
+        return object;
+    }
+
+    private static String readJsonValue(String line, int[] position) throws DukeException {
+        if (peek(line, position) == '"') {
+            return readJsonString(line, position);
+        }
+        int start = position[0];
+        while (position[0] < line.length() && ",} \t".indexOf(line.charAt(position[0])) < 0) {
+            position[0]++;
+        }
+        String literal = line.substring(start, position[0]);
+        if (literal.isEmpty() || literal.equals("{") || literal.startsWith("[")) {
+            throw new DukeException("JSON values must be strings, booleans, numbers or null");
+        }
+        return literal.equals("null") ? "" : literal;
+    }
+
+    private static String readJsonString(String line, int[] position) throws DukeException {
+        expect(line, position, '"');
+        StringBuilder value = new StringBuilder();
+        int i = position[0];
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (c == '"') {
+                position[0] = i;
+                return value.toString();
+            } else if (c != '\\') {
+                value.append(c);
+            } else if (i < line.length()) {
+                char escaped = line.charAt(i++);
+                switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 > line.length()) {
+                        throw new DukeException("incomplete \\u escape in JSON string");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(line.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new DukeException("invalid \\u escape in JSON string");
+                    }
+                    i += 4;
+                    break;
+                default:
+                    value.append(escaped);
+                }
+            }
+        }
+        throw new DukeException("unterminated JSON string");
+    }
+
+    private static void expect(String line, int[] position, char expected) throws DukeException {
+        if (peek(line, position) != expected) {
+            throw new DukeException(String.format("expected '%c' in JSON object", expected));
+        }
+        position[0]++;
+    }
+
+    private static char peek(String line, int[] position) {
+        position[0] = skipWhitespace(line, position[0]);
+        return position[0] < line.length() ? line.charAt(position[0]) : '\0';
+    }
+
+    private static int skipWhitespace(String line, int position) {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Represents a reader of RFC 4180 CSV rows, where quoted fields may hold commas, quotes and line breaks
+     */
+    static class CsvReader {
+        private final BufferedReader reader;
+        private long lineNumber = 0;
+        private long rowLineNumber = 0;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the next row, which may span several lines if a quoted field holds line breaks
+         *
+         * @return Fields of the row, or null at the end of the file
+         * @throws IOException If the file cannot be read
+         */
+        String[] readRow() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            rowLineNumber = lineNumber;
+            List<String> fields = new ArrayList<String>();
+            StringBuilder field = new StringBuilder();
+            boolean isQuoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!isQuoted) {
+                        break;
+                    }
+                    String nextLine = reader.readLine();
+                    if (nextLine == null) {
+                        // an unterminated quote runs to the end of the file
+                        break;
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    line = nextLine;
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (isQuoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        isQuoted = false;
+                    }
+                } else if (c == '"') {
+                    isQuoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
+        }
+
+        /**
+         * Returns the line the last row read started on
+         *
+         * @return Line number, starting from 1
+         */
+        long getRowLineNumber() {
+            return rowLineNumber;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package kokbot.io;
+
+import kokbot.DukeException;
+import kokbot.Kokbot;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Recurrence;
+import kokbot.task.Recurring;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.RecurringEvent;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Represents a task as a flat record of strings, as exchanged through CSV and JSON Lines files
+ */
+public class TaskRecord {
+
+    /**
+     * Column names of the CSV format, also used as keys of the JSON Lines format
+     */
+    public static final String[] FIELDS = {"type", "done", "description", "start", "end", "recurrence",
+            "labels"};
+
+    protected String type;
+    protected boolean isDone;
+    protected String description;
+
+    /**
+     * Due date of a Deadline or start date of an Event, or empty
+     */
+    protected String start = "";
+
+    /**
+     * End date of an Event, or empty
+     */
+    protected String end = "";
+
+    /**
+     * Recurrence in file format, or empty if the task does not recur
+     */
+    protected String recurrence = "";
+
+    /**
+     * Tags and priority as written by the user, such as "#work !high", or empty if the task has none
+     */
+    protected String labels = "";
+
+    /**
+     * Creates the record of a task
+     *
+     * @param task Task to be recorded
+     * @return Record of the task
+     */
+    public static TaskRecord fromTask(Task task) {
+        TaskRecord record = new TaskRecord();
+        record.type = task.getType();
+        record.isDone = task.isDone();
+        record.description = task.getDescription();
+        if (task instanceof Deadline) {
+            record.start = task.getDateTime().toString();
+        } else if (task instanceof Event) {
+            record.start = task.getDateTime().toString();
+            record.end = ((Event) task).getEndDateTime().toString();
+        }
+        if (task instanceof Recurring) {
+            record.recurrence = ((Recurring) task).getRecurrence().toFileString();
+        }
+        record.labels = task.getLabels();
+        return record;
+    }
+
+    /**
+     * Creates a record from fields in the order of FIELDS; missing trailing fields are empty
+     *
+     * @param fields Fields of the record
+     * @return Record of the fields
+     */
+    public static TaskRecord fromFields(String[] fields) {
+        TaskRecord record = new TaskRecord();
+        record.type = getField(fields, 0);
+        record.isDone = isTrue(getField(fields, 1));
+        record.description = getField(fields, 2);
+        record.start = getField(fields, 3);
+        record.end = getField(fields, 4);
+        record.recurrence = getField(fields, 5);
+        record.labels = getField(fields, 6);
+        return record;
+    }
+
+    /**
+     * Creates a record from the keys and values of a JSON object
+     *
+     * @param object Keys and values of the JSON object
+     * @return Record of the object
+     */
+    public static TaskRecord fromJson(Map<String, String> object) {
+        String[] fields = new String[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            fields[i] = object.getOrDefault(FIELDS[i], "");
+        }
+        return fromFields(fields);
+    }
+
+    /**
+     * Returns the fields of the record in the order of FIELDS
+     *
+     * @return Fields of the record
+     */
+    public String[] toFields() {
+        return new String[]{type, isDone ? "X" : "", description, start, end, recurrence, labels};
+    }
+
+    /**
+     * Creates the task described by the record, validating every field
+     *
+     * @return Task described by the record
+     * @throws DukeException If a field is not valid
+     */
+    public Task toTask() throws DukeException {
+        if (description.isEmpty()) {
+            throw new DukeException("description is empty");
+        }
+        Task task;
+        switch (type) {
+        case "T":
+            task = new Todo(description);
+            break;
+        case "D":
+            LocalDateTime dueDate = parseDateTime(start, "due date");
+            task = recurrence.isEmpty()
+                    ? new Deadline(description, dueDate)
+                    : new RecurringDeadline(description, dueDate, parseRecurrence(dueDate));
+            break;
+        case "E":
+            LocalDateTime startDate = parseDateTime(start, "start date");
+            LocalDateTime endDate = parseDateTime(end, "end date");
+            if (startDate.isAfter(endDate)) {
+                throw new DukeException("start date is after end date");
+            }
+            task = recurrence.isEmpty()
+                    ? new Event(description, startDate, endDate)
+                    : new RecurringEvent(description, startDate, endDate, parseRecurrence(startDate));
+            break;
+        default:
+            throw new DukeException(String.format("unknown type \"%s\"", type));
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        try {
+            task.setLabels(labels);
+        } catch (IllegalArgumentException e) {
+            throw new DukeException(e.getMessage());
+        }
+        return task;
+    }
+
+    /**
+     * Parses a date-time, trying the ISO format written by exports before the formats accepted from users
+     */
+    private static LocalDateTime parseDateTime(String input, String name) throws DukeException {
+        if (input.length() >= 16 && input.charAt(10) == 'T') {
+            try {
+                return LocalDateTime.parse(input);
+            } catch (DateTimeParseException e) {
+                // fall back to the formats accepted from users
+            }
+        }
+        LocalDateTime dateTime = Kokbot.createDateTime(input);
+        if (dateTime == null) {
+            throw new DukeException(String.format("%s \"%s\" is not a valid date-time", name, input));
+        }
+        return dateTime;
+    }
+
+    private Recurrence parseRecurrence(LocalDateTime start) throws DukeException {
+        try {
+            Recurrence parsed = Recurrence.fromFileString(recurrence);
+            parsed.checkOccurrenceCount(start);
+            return parsed;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new DukeException(String.format("recurrence \"%s\" is not valid", recurrence));
+        }
+    }
+
+    private static String getField(String[] fields, int index) {
+        return index < fields.length && fields[index] != null ? fields[index].trim() : "";
+    }
+
+    private static boolean isTrue(String field) {
+        return field.equalsIgnoreCase("X") || field.equalsIgnoreCase("true") || field.equalsIgnoreCase("yes");
+    }
+}
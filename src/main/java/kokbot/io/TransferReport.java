@@ -0,0 +1,125 @@
+package kokbot.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the outcome of an import or export
+ */
+public class TransferReport {
+
+    /**
+     * Number of rejected rows whose reasons are kept, so a badly broken file cannot flood the reply
+     */
+    public static final int MAX_REJECTIONS_SHOWN = 10;
+
+    private long acceptedCount;
+    private long rejectedCount;
+    private long updatedCount;
+    private long removedCount;
+    private long unchangedCount;
+    private long elapsedNanos;
+    private final List<String> rejections = new ArrayList<String>();
+
+    /**
+     * Records a row that was imported or exported
+     */
+    public void accept() {
+        acceptedCount++;
+    }
+
+    /**
+     * Records a row that was rejected
+     *
+     * @param lineNumber Line of the file the row started on
+     * @param reason     Reason the row was rejected
+     */
+    public void reject(long lineNumber, String reason) {
+        rejectedCount++;
+        if (rejections.size() < MAX_REJECTIONS_SHOWN) {
+            rejections.add(String.format("line %d: %s", lineNumber, reason));
+        }
+    }
+
+    /**
+     * Records a task that was replaced by a newer version of its row, when syncing a calendar
+     */
+    public void update() {
+        updatedCount++;
+    }
+
+    /**
+     * Records a task that was deleted as its row was removed, when syncing a calendar
+     */
+    public void remove() {
+        removedCount++;
+    }
+
+    /**
+     * Records a row that was skipped as it is unchanged since it was last synced
+     */
+    public void skip() {
+        unchangedCount++;
+    }
+
+    /**
+     * Records how long the transfer took
+     *
+     * @param elapsedNanos Duration of the transfer in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public long getRemovedCount() {
+        return removedCount;
+    }
+
+    public long getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    /**
+     * Returns whether the transfer was a sync which updated, removed or skipped any tasks
+     *
+     * @return Whether the transfer found tasks synced before
+     */
+    public boolean isIncremental() {
+        return updatedCount + removedCount + unchangedCount > 0;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Returns the number of rows accepted per second
+     *
+     * @return Number of rows accepted per second
+     */
+    public long getRowsPerSecond() {
+        return elapsedNanos == 0 ? acceptedCount : acceptedCount * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * Returns the reasons of the first rejected rows
+     *
+     * @return Reasons of at most MAX_REJECTIONS_SHOWN rejected rows
+     */
+    public List<String> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+}
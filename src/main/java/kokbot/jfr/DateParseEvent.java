@@ -0,0 +1,27 @@
+package kokbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a JFR event emitted for each date-time string parsed
+ */
+@Name("kokbot.DateParse")
+@Label("Parse Date-Time")
+@Category("Kokbot")
+@Description("Parsing of a date-time string against the accepted formats")
+@Enabled(false)
+@StackTrace(false)
+public class DateParseEvent extends Event {
+
+    @Label("Input")
+    public String input;
+
+    @Label("Successful")
+    public boolean isSuccessful;
+}
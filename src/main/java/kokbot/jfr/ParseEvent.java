@@ -0,0 +1,27 @@
+package kokbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a JFR event emitted for each input parsed into a Command
+ */
+@Name("kokbot.Parse")
+@Label("Parse Command")
+@Category("Kokbot")
+@Description("Parsing of user input into a Command")
+@Enabled(false)
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("Input Length")
+    public int inputLength;
+
+    @Label("Command Type")
+    public String commandType;
+}
@@ -0,0 +1,35 @@
+package kokbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a JFR event emitted for each load or update of the data file
+ */
+@Name("kokbot.Storage")
+@Label("Storage Operation")
+@Category("Kokbot")
+@Description("Loading or updating of the data file")
+@Enabled(false)
+@StackTrace(false)
+public class StorageEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Task Count")
+    public int taskCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,30 @@
+package kokbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a JFR event emitted for each mutation or query of a TaskList
+ */
+@Name("kokbot.TaskList")
+@Label("Task List Operation")
+@Category("Kokbot")
+@Description("Mutation or query of the list of tasks")
+@Enabled(false)
+@StackTrace(false)
+public class TaskListEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Task Count")
+    public int taskCount;
+
+    @Label("Result Count")
+    public int resultCount;
+}
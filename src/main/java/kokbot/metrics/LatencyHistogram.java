@@ -0,0 +1,120 @@
+package kokbot.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Represents a low-overhead histogram of latencies in nanoseconds.
+ * Values are counted in log-linear buckets: each power of two is split into 8 sub-buckets,
+ * so recording is a few bit operations and an atomic increment, and percentiles are accurate to 12.5%.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits used for the sub-buckets within each power of two
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * Number of sub-buckets within each power of two
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Counts of values recorded in each bucket
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    /**
+     * Number of values recorded
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * Largest value recorded
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(getBucketIndex(value));
+        totalCount.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the number of values recorded
+     *
+     * @return Number of values recorded
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the largest value recorded
+     *
+     * @return Largest value recorded in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall
+     *
+     * @param percentile Percentage between 0 and 100
+     * @return Upper bound of the bucket containing the percentile in nanoseconds, capped at the maximum
+     */
+    public long getPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the index of the bucket which the value falls into
+     *
+     * @param value Non-negative value
+     * @return Index of the bucket
+     */
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value which falls into the bucket
+     *
+     * @param index Index of the bucket
+     * @return Largest value of the bucket
+     */
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int highestBit = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lowerBound = (1L << highestBit) | (subBucket << (highestBit - SUB_BUCKET_BITS));
+        return lowerBound + (1L << (highestBit - SUB_BUCKET_BITS)) - 1;
+    }
+}
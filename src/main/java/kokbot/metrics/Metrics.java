@@ -0,0 +1,310 @@
+package kokbot.metrics;
+
+import kokbot.Kokbot;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Represents the latency and throughput metrics of a Kokbot
+ */
+public class Metrics implements MetricsMXBean {
+
+    /**
+     * Represents the phases a command goes through
+     */
+    public enum Phase {
+        PARSE, EXECUTE, RENDER, PERSIST
+    }
+
+    /**
+     * Name which the metrics are registered under in JMX
+     */
+    public static final String OBJECT_NAME = "kokbot:type=Metrics";
+
+    /**
+     * Latency histograms of each phase of each type of command
+     */
+    private final Map<Kokbot.CommandType, LatencyHistogram[]> latencies =
+            new EnumMap<Kokbot.CommandType, LatencyHistogram[]>(Kokbot.CommandType.class);
+
+    private final LongAdder commandCount = new LongAdder();
+    private final LongAdder failedCommandCount = new LongAdder();
+    private final LongAdder saveCount = new LongAdder();
+    private final LongAdder failedSaveCount = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /**
+     * Response cache hits and misses of each type of command, at indexes 0 and 1
+     */
+    private final Map<Kokbot.CommandType, LongAdder[]> cacheLookups =
+            new EnumMap<Kokbot.CommandType, LongAdder[]>(Kokbot.CommandType.class);
+
+    private volatile long loadTimeNanos;
+    private volatile long loadedTaskCount;
+
+    private final LongAdder snapshotCount = new LongAdder();
+    private final LongAdder failedSnapshotCount = new LongAdder();
+    private volatile long lastSnapshotNanos;
+    private volatile double lastSnapshotCompressionRatio;
+
+    /**
+     * Constructor for Metrics
+     */
+    public Metrics() {
+        for (Kokbot.CommandType type : Kokbot.CommandType.values()) {
+            LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+            latencies.put(type, histograms);
+            cacheLookups.put(type, new LongAdder[]{new LongAdder(), new LongAdder()});
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, replacing any metrics registered before
+     *
+     * @throws JMException If the metrics cannot be registered
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * Records the time taken by a phase of a command
+     *
+     * @param type  Type of the command
+     * @param phase Phase of the command
+     * @param nanos Time taken in nanoseconds
+     */
+    public void recordPhase(Kokbot.CommandType type, Phase phase, long nanos) {
+        latencies.get(type)[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records that a command was carried out
+     *
+     * @param isSuccessful Whether the command was carried out without error
+     */
+    public void recordCommand(boolean isSuccessful) {
+        commandCount.increment();
+        if (!isSuccessful) {
+            failedCommandCount.increment();
+        }
+    }
+
+    /**
+     * Records a lookup of the response cache
+     *
+     * @param type  Type of the command looked up
+     * @param isHit Whether a cached response was found
+     */
+    public void recordCacheLookup(Kokbot.CommandType type, boolean isHit) {
+        cacheLookups.get(type)[isHit ? 0 : 1].increment();
+    }
+
+    /**
+     * Records a successful save
+     *
+     * @param bytes Number of bytes written
+     */
+    public void recordSave(long bytes) {
+        saveCount.increment();
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Records a failed save
+     */
+    public void recordFailedSave() {
+        saveCount.increment();
+        failedSaveCount.increment();
+    }
+
+    /**
+     * Records the loading of tasks from file
+     *
+     * @param nanos     Time taken in nanoseconds
+     * @param taskCount Number of tasks loaded
+     */
+    public void recordLoad(long nanos, long taskCount) {
+        loadTimeNanos = nanos;
+        loadedTaskCount = taskCount;
+    }
+
+    /**
+     * Records a compressed snapshot of the data file
+     *
+     * @param nanos           Time taken in nanoseconds
+     * @param originalBytes   Size of the data file
+     * @param compressedBytes Size of the snapshot
+     */
+    public void recordSnapshot(long nanos, long originalBytes, long compressedBytes) {
+        snapshotCount.increment();
+        lastSnapshotNanos = nanos;
+        lastSnapshotCompressionRatio = compressedBytes == 0 ? 0.0 : (double) originalBytes / compressedBytes;
+    }
+
+    /**
+     * Records a failed snapshot
+     */
+    public void recordFailedSnapshot() {
+        snapshotCount.increment();
+        failedSnapshotCount.increment();
+    }
+
+    @Override
+    public long getCommandCount() {
+        return commandCount.sum();
+    }
+
+    @Override
+    public long getFailedCommandCount() {
+        return failedCommandCount.sum();
+    }
+
+    @Override
+    public long getSaveCount() {
+        return saveCount.sum();
+    }
+
+    @Override
+    public long getFailedSaveCount() {
+        return failedSaveCount.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getLoadTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadTimeNanos);
+    }
+
+    @Override
+    public long getLoadedTaskCount() {
+        return loadedTaskCount;
+    }
+
+    @Override
+    public long getSnapshotCount() {
+        return snapshotCount.sum();
+    }
+
+    @Override
+    public long getFailedSnapshotCount() {
+        return failedSnapshotCount.sum();
+    }
+
+    @Override
+    public long getLastSnapshotMicros() {
+        return toMicros(lastSnapshotNanos);
+    }
+
+    @Override
+    public double getLastSnapshotCompressionRatio() {
+        return lastSnapshotCompressionRatio;
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return sumCacheLookups(0);
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return sumCacheLookups(1);
+    }
+
+    private long sumCacheLookups(int index) {
+        long sum = 0;
+        for (LongAdder[] lookups : cacheLookups.values()) {
+            sum += lookups[index].sum();
+        }
+        return sum;
+    }
+
+    @Override
+    public Map<String, Double> getCacheHitRates() {
+        Map<String, Double> result = new TreeMap<String, Double>();
+        for (Map.Entry<Kokbot.CommandType, LongAdder[]> entry : cacheLookups.entrySet()) {
+            long hits = entry.getValue()[0].sum();
+            long lookups = hits + entry.getValue()[1].sum();
+            if (lookups > 0) {
+                result.put(entry.getKey().name(), (double) hits / lookups);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyMicros() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<Kokbot.CommandType, LatencyHistogram[]> entry : latencies.entrySet()) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = entry.getValue()[phase.ordinal()];
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                String prefix = entry.getKey() + "." + phase.name().toLowerCase() + ".";
+                result.put(prefix + "p50", toMicros(histogram.getPercentile(50)));
+                result.put(prefix + "p99", toMicros(histogram.getPercentile(99)));
+                result.put(prefix + "max", toMicros(histogram.getMax()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format("Commands: %d (%d failed)%n", getCommandCount(), getFailedCommandCount()));
+        stringBuilder.append("Latency in us (p50/p99/max):\n");
+        for (Map.Entry<Kokbot.CommandType, LatencyHistogram[]> entry : latencies.entrySet()) {
+            LatencyHistogram[] histograms = entry.getValue();
+            if (histograms[Phase.PARSE.ordinal()].getCount() == 0) {
+                continue;
+            }
+            stringBuilder.append(String.format("  %s x%d%n", entry.getKey(), histograms[Phase.PARSE.ordinal()].getCount()));
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = histograms[phase.ordinal()];
+                stringBuilder.append(String.format("    %-8s %d/%d/%d%n", phase.name().toLowerCase(),
+                        toMicros(histogram.getPercentile(50)), toMicros(histogram.getPercentile(99)),
+                        toMicros(histogram.getMax())));
+            }
+        }
+        stringBuilder.append(String.format("Saves: %d (%d failed), %d bytes written%n",
+                getSaveCount(), getFailedSaveCount(), getBytesWritten()));
+        stringBuilder.append(String.format("Load: %d tasks in %d ms%n", getLoadedTaskCount(), getLoadTimeMillis()));
+        stringBuilder.append(String.format("Snapshots: %d (%d failed), last in %d us at %.1fx compression%n",
+                getSnapshotCount(), getFailedSnapshotCount(), getLastSnapshotMicros(),
+                getLastSnapshotCompressionRatio()));
+        long lookups = getCacheHitCount() + getCacheMissCount();
+        stringBuilder.append(String.format("Response cache: %d hits, %d misses (%.0f%% hit rate)%n",
+                getCacheHitCount(), getCacheMissCount(), lookups == 0 ? 0.0 : 100.0 * getCacheHitCount() / lookups));
+        for (Map.Entry<String, Double> entry : getCacheHitRates().entrySet()) {
+            stringBuilder.append(String.format("  %s %.0f%%%n", entry.getKey(), 100 * entry.getValue()));
+        }
+        return stringBuilder.toString();
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
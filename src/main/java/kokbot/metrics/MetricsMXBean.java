@@ -0,0 +1,61 @@
+package kokbot.metrics;
+
+import java.util.Map;
+
+/**
+ * Represents the JMX view of Kokbot's metrics, registered as "kokbot:type=Metrics"
+ */
+public interface MetricsMXBean {
+
+    long getCommandCount();
+
+    long getFailedCommandCount();
+
+    long getSaveCount();
+
+    long getFailedSaveCount();
+
+    long getBytesWritten();
+
+    long getLoadTimeMillis();
+
+    long getLoadedTaskCount();
+
+    long getSnapshotCount();
+
+    long getFailedSnapshotCount();
+
+    long getLastSnapshotMicros();
+
+    /**
+     * Returns the size of the data file over the size of its last compressed snapshot
+     *
+     * @return Compression ratio of the last snapshot, or 0 if none was taken
+     */
+    double getLastSnapshotCompressionRatio();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    /**
+     * Returns the fraction of response cache lookups which hit, for each type of command looked up
+     *
+     * @return Map from command types such as "LIST" to hit rates between 0 and 1
+     */
+    Map<String, Double> getCacheHitRates();
+
+    /**
+     * Returns the latency percentiles of every phase recorded, in microseconds
+     *
+     * @return Map from keys such as "TODO.execute.p99" to latencies in microseconds
+     */
+    Map<String, Long> getLatencyMicros();
+
+    /**
+     * Returns a human-readable report of all metrics
+     *
+     * @return Report of all metrics
+     */
+    String getReport();
+}
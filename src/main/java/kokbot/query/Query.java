@@ -0,0 +1,182 @@
+package kokbot.query;
+
+import kokbot.task.Priority;
+import kokbot.task.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Represents a parsed "filter" query: the predicates a task has to satisfy, and how the results are ordered
+ */
+public class Query {
+
+    /**
+     * Type the tasks should have, or null if any
+     */
+    protected String type;
+
+    /**
+     * Whether the tasks should be done, or null if either
+     */
+    protected Boolean isDone;
+
+    /**
+     * Date the tasks should be on or after, or null if unbounded
+     */
+    protected LocalDateTime after;
+
+    /**
+     * Date the tasks should be before, or null if unbounded
+     */
+    protected LocalDateTime before;
+
+    /**
+     * Substrings the descriptions should contain
+     */
+    protected List<String> keywords = new ArrayList<String>();
+
+    /**
+     * Patterns the descriptions should contain a match of
+     */
+    protected List<Pattern> patterns = new ArrayList<Pattern>();
+
+    /**
+     * Tags the tasks should all have, without their leading "#"
+     */
+    protected List<String> tags = new ArrayList<String>();
+
+    /**
+     * Lowest and highest priority the tasks should have, or null if unbounded
+     */
+    protected Priority lowestPriority;
+    protected Priority highestPriority;
+
+    /**
+     * Order of the results, either "date", "desc", "type" or null for list order
+     */
+    protected String sortBy;
+
+    /**
+     * Maximum number of results, or 0 if unlimited
+     */
+    protected int limit;
+
+    public String getType() {
+        return type;
+    }
+
+    public Boolean getIsDone() {
+        return isDone;
+    }
+
+    public LocalDateTime getAfter() {
+        return after;
+    }
+
+    public LocalDateTime getBefore() {
+        return before;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public Priority getLowestPriority() {
+        return lowestPriority == null ? Priority.NONE : lowestPriority;
+    }
+
+    public Priority getHighestPriority() {
+        return highestPriority == null ? Priority.HIGH : highestPriority;
+    }
+
+    /**
+     * Returns whether the query has a range over priorities
+     *
+     * @return Whether the query has a range over priorities
+     */
+    public boolean hasPriorityRange() {
+        return lowestPriority != null || highestPriority != null;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns whether the query has a range over dates
+     *
+     * @return Whether the query has a range over dates
+     */
+    public boolean hasDateRange() {
+        return after != null || before != null;
+    }
+
+    /**
+     * Returns whether the task satisfies every predicate of the query
+     *
+     * @param task Task to be checked
+     * @return Whether the task satisfies the query
+     */
+    public boolean matches(Task task) {
+        if (type != null && !type.equals(task.getType())) {
+            return false;
+        }
+        if (isDone != null && isDone != task.isDone()) {
+            return false;
+        }
+        if (after != null && task.getDateTime().isBefore(after)) {
+            return false;
+        }
+        if (before != null && !task.getDateTime().isBefore(before)) {
+            return false;
+        }
+        for (String tag : tags) {
+            if (!task.getTags().contains(tag)) {
+                return false;
+            }
+        }
+        if (hasPriorityRange() && (task.getPriority().compareTo(getLowestPriority()) < 0
+                || task.getPriority().compareTo(getHighestPriority()) > 0)) {
+            return false;
+        }
+        for (String keyword : keywords) {
+            if (!task.matchesKeyword(keyword)) {
+                return false;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (!pattern.matcher(task.getDescription()).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ordering of the results, breaking ties by list order
+     *
+     * @return Ordering of the results
+     */
+    public Comparator<Task> getComparator() {
+        Comparator<Task> byId = Comparator.comparingInt(Task::getId);
+        if (sortBy == null) {
+            return byId;
+        }
+        switch (sortBy) {
+        case "date":
+            return Comparator.comparing(Task::getDateTime).thenComparing(byId);
+        case "desc":
+            return Comparator.comparing(Task::getDescription).thenComparing(byId);
+        default:
+            return Comparator.comparing(Task::getType).thenComparing(byId);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package kokbot.query;
+
+import kokbot.DukeException;
+import kokbot.Kokbot;
+import kokbot.task.Priority;
+import kokbot.task.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Represents a parser of "filter" queries such as
+ * {@code type:D done:no before:2026-12-01 desc:"report" #work priority:>=high sort:date limit:20}
+ */
+public class QueryParser {
+
+    /**
+     * Number of compiled regex patterns kept for reuse
+     */
+    private static final int PATTERN_CACHE_SIZE = 64;
+
+    /**
+     * Compiled regex patterns, least recently used first
+     */
+    private static final Map<String, Pattern> PATTERN_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                    return size() > PATTERN_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Parses a query
+     *
+     * @param input Query string
+     * @return Parsed Query
+     * @throws DukeException If the query is not valid
+     */
+    public static Query parse(String input) throws DukeException {
+        Query query = new Query();
+        for (String[] term : tokenize(input)) {
+            String key = term[0];
+            String value = term[1];
+            switch (key) {
+            case "type":
+                query.type = parseType(value);
+                break;
+            case "done":
+                query.isDone = parseDone(value);
+                break;
+            case "after":
+                query.after = parseDate(value);
+                break;
+            case "before":
+                query.before = parseDate(value);
+                break;
+            case "desc":
+                if (value.length() > 1 && value.startsWith("/") && value.endsWith("/")) {
+                    query.patterns.add(compilePattern(value.substring(1, value.length() - 1)));
+                } else {
+                    query.keywords.add(value);
+                }
+                break;
+            case "tag":
+                query.tags.add(value.startsWith(Task.TAG_PREFIX) ? value.substring(Task.TAG_PREFIX.length()) : value);
+                break;
+            case "priority":
+                parsePriority(query, value);
+                break;
+            case "sort":
+                if (!value.equals("date") && !value.equals("desc") && !value.equals("type")) {
+                    throw new DukeException("Unknown usage - sort should be date, desc or type");
+                }
+                query.sortBy = value;
+                break;
+            case "limit":
+                query.limit = parseLimit(value);
+                break;
+            default:
+                throw new DukeException(String.format("Unknown usage - unknown filter \"%s\"", key));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Splits a query into key-value terms. A value may be wrapped in double quotes, or slashes for regex,
+     * to include spaces.
+     *
+     * @param input Query string
+     * @return List of key-value terms, with regex values keeping their slashes
+     * @throws DukeException If a term is not of the form key:value
+     */
+    private static List<String[]> tokenize(String input) throws DukeException {
+        List<String[]> terms = new ArrayList<String[]>();
+        int i = 0;
+        while (i < input.length()) {
+            if (input.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            int colon = input.indexOf(':', i);
+            int space = input.indexOf(' ', i);
+            int wordEnd = space < 0 ? input.length() : space;
+            if (Task.isTag(input.substring(i, wordEnd))) {
+                // a bare "#work" is short for "tag:work"
+                terms.add(new String[]{"tag", input.substring(i + Task.TAG_PREFIX.length(), wordEnd)});
+                i = wordEnd;
+                continue;
+            }
+            if (colon < 0 || (space >= 0 && space < colon)) {
+                throw new DukeException("Unknown usage - filter terms should be of the form key:value");
+            }
+            String key = input.substring(i, colon);
+            int start = colon + 1;
+            int end;
+            String value;
+            if (start < input.length() && (input.charAt(start) == '"' || input.charAt(start) == '/')) {
+                char delimiter = input.charAt(start);
+                end = input.indexOf(delimiter, start + 1);
+                if (end < 0) {
+                    throw new DukeException(String.format("Unknown usage - missing closing %s in filter", delimiter));
+                }
+                value = delimiter == '"' ? input.substring(start + 1, end) : input.substring(start, end + 1);
+                end++;
+            } else {
+                end = input.indexOf(' ', start);
+                end = end < 0 ? input.length() : end;
+                value = input.substring(start, end);
+            }
+            terms.add(new String[]{key, value});
+            i = end;
+        }
+        return terms;
+    }
+
+    private static String parseType(String value) throws DukeException {
+        switch (value.toLowerCase()) {
+        case "t":
+        case "todo":
+            return "T";
+        case "d":
+        case "deadline":
+            return "D";
+        case "e":
+        case "event":
+            return "E";
+        default:
+            throw new DukeException("Unknown usage - type should be T, D or E");
+        }
+    }
+
+    private static Boolean parseDone(String value) throws DukeException {
+        switch (value.toLowerCase()) {
+        case "yes":
+        case "true":
+            return Boolean.TRUE;
+        case "no":
+        case "false":
+            return Boolean.FALSE;
+        default:
+            throw new DukeException("Unknown usage - done should be yes or no");
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) throws DukeException {
+        try {
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            LocalDateTime dateTime = Kokbot.createDateTime(value);
+            if (dateTime == null) {
+                throw new DukeException(String.format("Unknown usage - \"%s\" is not a valid date", value));
+            }
+            return dateTime;
+        }
+    }
+
+    /**
+     * Parses a priority term such as "high", ">=medium" or "<low" into the priority range of the query
+     */
+    private static void parsePriority(Query query, String value) throws DukeException {
+        String operator = value.startsWith(">=") || value.startsWith("<=") ? value.substring(0, 2)
+                : value.startsWith(">") || value.startsWith("<") ? value.substring(0, 1) : "";
+        Priority priority;
+        try {
+            priority = Priority.fromName(value.substring(operator.length()));
+        } catch (IllegalArgumentException e) {
+            throw new DukeException("Unknown usage - priority should be none, low, medium or high, "
+                    + "optionally after >=, >, <= or <");
+        }
+        Priority[] priorities = Priority.values();
+        switch (operator) {
+        case ">=":
+            query.lowestPriority = priority;
+            break;
+        case ">":
+            if (priority.ordinal() + 1 >= priorities.length) {
+                throw new DukeException("Unknown usage - no priority is above " + priority.getName());
+            }
+            query.lowestPriority = priorities[priority.ordinal() + 1];
+            break;
+        case "<=":
+            query.highestPriority = priority;
+            break;
+        case "<":
+            if (priority.ordinal() == 0) {
+                throw new DukeException("Unknown usage - no priority is below " + priority.getName());
+            }
+            query.highestPriority = priorities[priority.ordinal() - 1];
+            break;
+        default:
+            query.lowestPriority = priority;
+            query.highestPriority = priority;
+            break;
+        }
+    }
+
+    private static int parseLimit(String value) throws DukeException {
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new DukeException("Unknown usage - limit should be a positive number");
+    }
+
+    /**
+     * Returns the compiled pattern of a regex, reusing previously compiled patterns
+     *
+     * @param regex Regex to be compiled
+     * @return Compiled pattern
+     * @throws DukeException If the regex is not valid
+     */
+    private static Pattern compilePattern(String regex) throws DukeException {
+        Pattern pattern = PATTERN_CACHE.get(regex);
+        if (pattern != null) {
+            return pattern;
+        }
+        try {
+            pattern = Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new DukeException("Unknown usage - invalid regex in filter: " + e.getDescription());
+        }
+        PATTERN_CACHE.put(regex, pattern);
+        return pattern;
+    }
+}
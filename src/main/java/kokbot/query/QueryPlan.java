@@ -0,0 +1,170 @@
+package kokbot.query;
+
+import kokbot.CompressedBitmap;
+import kokbot.TaskIndex;
+import kokbot.TaskList;
+import kokbot.task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Represents how a Query is carried out: the index used to find candidate tasks,
+ * and whether the candidates still need to be sorted
+ */
+public class QueryPlan {
+
+    /**
+     * Represents the ways candidate tasks can be found
+     */
+    public enum AccessPath {
+        DATE_INDEX, TYPE_INDEX, DONE_INDEX, BITMAP_INDEX, FULL_SCAN
+    }
+
+    /**
+     * Query being carried out
+     */
+    protected Query query;
+
+    /**
+     * Index used to find candidate tasks
+     */
+    protected AccessPath accessPath;
+
+    /**
+     * Estimated number of candidate tasks
+     */
+    protected int estimatedCount;
+
+    /**
+     * Ids of the candidate tasks when the bitmap index is used, or null
+     */
+    protected CompressedBitmap candidateIds;
+
+    /**
+     * Constructor for QueryPlan
+     *
+     * @param query          Query being carried out
+     * @param accessPath     Index used to find candidate tasks
+     * @param estimatedCount Estimated number of candidate tasks
+     */
+    public QueryPlan(Query query, AccessPath accessPath, int estimatedCount) {
+        this(query, accessPath, estimatedCount, null);
+    }
+
+    /**
+     * Constructor for QueryPlan
+     *
+     * @param query          Query being carried out
+     * @param accessPath     Index used to find candidate tasks
+     * @param estimatedCount Estimated number of candidate tasks
+     * @param candidateIds   Ids of the candidate tasks, found by intersecting bitmaps for the bitmap index
+     */
+    public QueryPlan(Query query, AccessPath accessPath, int estimatedCount, CompressedBitmap candidateIds) {
+        this.query = query;
+        this.accessPath = accessPath;
+        this.estimatedCount = estimatedCount;
+        this.candidateIds = candidateIds;
+    }
+
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    /**
+     * Carries out the plan
+     *
+     * @param index Indexes over the tasks
+     * @return Matching tasks in the order requested
+     */
+    public List<Task> execute(TaskIndex index) {
+        Collection<Task> candidates = getCandidates(index);
+        boolean isOrdered = isOrderedByAccessPath();
+        int limit = query.getLimit();
+        if (candidates.size() >= TaskList.getParallelThreshold() && (!isOrdered || limit == 0)) {
+            // nothing stops the scan early, so split it across the common fork-join pool
+            List<Task> results = candidates.parallelStream()
+                    .filter(query::matches)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            return isOrdered ? results : sortAndLimit(results);
+        }
+        List<Task> results = new ArrayList<Task>();
+        for (Task task : candidates) {
+            if (!query.matches(task)) {
+                continue;
+            }
+            results.add(task);
+            if (isOrdered && limit > 0 && results.size() == limit) {
+                break;
+            }
+        }
+        return isOrdered ? results : sortAndLimit(results);
+    }
+
+    /**
+     * Sorts the matching tasks in the order requested and keeps those within the limit
+     *
+     * @param results Matching tasks
+     * @return Sorted matching tasks within the limit
+     */
+    private List<Task> sortAndLimit(List<Task> results) {
+        Task[] sortedResults = results.toArray(new Task[0]);
+        if (sortedResults.length >= TaskList.getParallelThreshold()) {
+            Arrays.parallelSort(sortedResults, query.getComparator());
+        } else {
+            Arrays.sort(sortedResults, query.getComparator());
+        }
+        int limit = query.getLimit();
+        int size = limit > 0 ? Math.min(limit, sortedResults.length) : sortedResults.length;
+        return Arrays.asList(Arrays.copyOf(sortedResults, size));
+    }
+
+    /**
+     * Describes the plan to the user
+     *
+     * @return Description of the plan
+     */
+    public String describe() {
+        switch (accessPath) {
+        case DATE_INDEX:
+            return "date index";
+        case TYPE_INDEX:
+            return "type index";
+        case DONE_INDEX:
+            return "done index";
+        case BITMAP_INDEX:
+            return "bitmap index";
+        default:
+            return "full scan";
+        }
+    }
+
+    private Collection<Task> getCandidates(TaskIndex index) {
+        switch (accessPath) {
+        case DATE_INDEX:
+            return index.getByDate(query.getAfter(), query.getBefore());
+        case TYPE_INDEX:
+            return index.getByType(query.getType());
+        case DONE_INDEX:
+            return index.getByDone(query.getIsDone());
+        case BITMAP_INDEX:
+            return index.getByIds(candidateIds);
+        default:
+            return index.getAll();
+        }
+    }
+
+    /**
+     * Returns whether candidates come in the requested order, so that no sort is needed
+     */
+    private boolean isOrderedByAccessPath() {
+        String sortBy = query.getSortBy();
+        if (accessPath == AccessPath.DATE_INDEX) {
+            return "date".equals(sortBy);
+        }
+        return sortBy == null;
+    }
+}
@@ -0,0 +1,94 @@
+package kokbot.query;
+
+import kokbot.CompressedBitmap;
+import kokbot.TaskIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Represents a planner which picks the most selective index available for a Query
+ */
+public class QueryPlanner {
+
+    /**
+     * Plans a query against the indexes
+     *
+     * @param query Query to be planned
+     * @param index Indexes over the tasks
+     * @return Plan using the index with the fewest candidate tasks
+     */
+    public static QueryPlan plan(Query query, TaskIndex index) {
+        QueryPlan.AccessPath bestPath = QueryPlan.AccessPath.FULL_SCAN;
+        int bestCount = index.getSize();
+
+        if (query.getType() != null) {
+            int count = index.getByType(query.getType()).size();
+            if (count < bestCount) {
+                bestPath = QueryPlan.AccessPath.TYPE_INDEX;
+                bestCount = count;
+            }
+        }
+        if (query.getIsDone() != null) {
+            int count = index.getByDone(query.getIsDone()).size();
+            if (count < bestCount) {
+                bestPath = QueryPlan.AccessPath.DONE_INDEX;
+                bestCount = count;
+            }
+        }
+        CompressedBitmap bitmap = getBitmap(query, index);
+        if (bitmap != null && bitmap.getCardinality() < bestCount) {
+            bestPath = QueryPlan.AccessPath.BITMAP_INDEX;
+            bestCount = bitmap.getCardinality();
+        }
+        if (query.hasDateRange()) {
+            int count = index.countByDate(query.getAfter(), query.getBefore(), bestCount);
+            // the date index also saves the sort when sorting by date, so it wins ties
+            boolean isPreferred = count < bestCount || (count == bestCount && "date".equals(query.getSortBy()));
+            if (isPreferred) {
+                bestPath = QueryPlan.AccessPath.DATE_INDEX;
+                bestCount = count;
+            }
+        } else if ("date".equals(query.getSortBy()) && bestPath == QueryPlan.AccessPath.FULL_SCAN) {
+            // an ordered scan of the date index avoids the sort and can stop at the limit
+            bestPath = QueryPlan.AccessPath.DATE_INDEX;
+        }
+        return new QueryPlan(query, bestPath, bestCount,
+                bestPath == QueryPlan.AccessPath.BITMAP_INDEX ? bitmap : null);
+    }
+
+    /**
+     * Intersects the bitmaps of every type, done flag, tag and priority term of a query
+     *
+     * @param query Query to be planned
+     * @param index Indexes over the tasks
+     * @return Ids of the tasks satisfying those terms, or null if the query has no tag or priority term,
+     *     as type and done terms alone are answered by their own indexes
+     */
+    private static CompressedBitmap getBitmap(Query query, TaskIndex index) {
+        if (query.getTags().isEmpty() && !query.hasPriorityRange()) {
+            return null;
+        }
+        List<CompressedBitmap> bitmaps = new ArrayList<CompressedBitmap>();
+        if (query.getType() != null) {
+            bitmaps.add(index.getTypeBitmap(query.getType()));
+        }
+        if (query.getIsDone() != null) {
+            bitmaps.add(index.getDoneBitmap(query.getIsDone()));
+        }
+        for (String tag : query.getTags()) {
+            bitmaps.add(index.getTagBitmap(tag));
+        }
+        if (query.hasPriorityRange()) {
+            bitmaps.add(index.getPriorityBitmap(query.getLowestPriority(), query.getHighestPriority()));
+        }
+        // intersecting the smallest bitmaps first keeps the intermediate results small
+        bitmaps.sort(Comparator.comparingInt(CompressedBitmap::getCardinality));
+        CompressedBitmap result = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() && result.getCardinality() > 0; i++) {
+            result = CompressedBitmap.and(result, bitmaps.get(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package kokbot.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a change to the list of tasks, as shipped from a primary to its followers.
+ * Tasks are identified by their index, as followers apply the same changes in the same order.
+ */
+public class Mutation {
+
+    /**
+     * Represents the kind of change
+     */
+    public enum Op {
+        ADD, DELETE, REPLACE
+    }
+
+    private final Op op;
+    private final int index;
+
+    /**
+     * Record of the task added or replaced in file format, or empty for a deletion
+     */
+    private final String record;
+
+    /**
+     * Constructor for Mutation
+     *
+     * @param op     Kind of change
+     * @param index  Index of the task changed, or of the task added
+     * @param record Record of the task added or replaced in file format, or empty for a deletion
+     */
+    public Mutation(Op op, int index, String record) {
+        this.op = op;
+        this.index = index;
+        this.record = record;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getRecord() {
+        return record;
+    }
+
+    /**
+     * Writes the mutation to a stream
+     *
+     * @param out Stream to be written to
+     * @throws IOException If the stream cannot be written to
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(op.ordinal());
+        out.writeInt(index);
+        writeString(out, record);
+    }
+
+    /**
+     * Reads a mutation written by writeTo from a stream
+     *
+     * @param in Stream to be read from
+     * @return Mutation read
+     * @throws IOException If the stream cannot be read or holds no valid mutation
+     */
+    public static Mutation readFrom(DataInputStream in) throws IOException {
+        int op = in.readUnsignedByte();
+        if (op >= Op.values().length) {
+            throw new IOException("Unknown mutation " + op);
+        }
+        return new Mutation(Op.values()[op], in.readInt(), readString(in));
+    }
+
+    /**
+     * Writes a string of any length as its length followed by its UTF-8 bytes
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %d %s", op, index, record);
+    }
+}
@@ -0,0 +1,14 @@
+package kokbot.replication;
+
+/**
+ * Represents a listener which is told of every change made to a list of tasks, in order
+ */
+public interface MutationListener {
+
+    /**
+     * Called after a change is made to the list of tasks, on the thread which made it
+     *
+     * @param mutation Change made
+     */
+    void onMutation(Mutation mutation);
+}
@@ -0,0 +1,48 @@
+package kokbot.replication;
+
+import kokbot.CommandDispatcher;
+import kokbot.Kokbot;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs Kokbot without a window, reading commands from standard input, so that primaries and followers
+ * can run as separate processes on one machine. Each response is followed by a line holding a single ".".
+ * Run with {@code java -Dkokbot.replication.role=primary|follower -Dkokbot.replication.port=4545
+ * -cp kokbot.jar kokbot.replication.ReplicaMain data/kokbot.txt}.
+ */
+public class ReplicaMain {
+
+    /**
+     * Line written after each response
+     */
+    public static final String END_OF_RESPONSE = ".";
+
+    public static void main(String[] args) throws Exception {
+        Kokbot kokbot = new Kokbot(Paths.get(args.length > 0 ? args[0] : "data/kokbot.txt"), "KokBot", true);
+        CommandDispatcher dispatcher = new CommandDispatcher(kokbot);
+        String warning = dispatcher.loadTasks(progress -> { }).get();
+        if (!warning.isEmpty()) {
+            System.out.print(warning);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String input;
+        while ((input = reader.readLine()) != null) {
+            try {
+                System.out.println(dispatcher.submit(input).get().stripTrailing());
+            } catch (ExecutionException e) {
+                System.out.println("Error carrying out command: " + e.getCause().getMessage());
+            }
+            System.out.println(END_OF_RESPONSE);
+            System.out.flush();
+            if (input.equals("bye")) {
+                break;
+            }
+        }
+        dispatcher.shutdown();
+    }
+}
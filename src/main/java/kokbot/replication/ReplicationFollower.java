@@ -0,0 +1,298 @@
+package kokbot.replication;
+
+import kokbot.DukeException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a follower of a replicated list of tasks, which applies the mutation log streamed by its primary.
+ * Its position in the log is saved along with its tasks, so that after a restart it resumes from where it stopped.
+ */
+public class ReplicationFollower implements ReplicationMXBean, AutoCloseable {
+
+    /**
+     * Represents the list of tasks a follower applies changes to
+     */
+    public interface Target {
+
+        /**
+         * Replaces all tasks with the tasks of a snapshot
+         *
+         * @param records  Records of the tasks in file format
+         * @param position Position in the log after the snapshot, to be saved along with the tasks
+         * @throws DukeException If a record cannot be parsed
+         */
+        void applySnapshot(List<String> records, String position) throws DukeException;
+
+        /**
+         * Applies mutations in order
+         *
+         * @param mutations Mutations to be applied
+         * @param position  Position in the log after the mutations, to be saved along with the tasks
+         * @throws DukeException If a mutation cannot be applied
+         */
+        void applyMutations(List<Mutation> mutations, String position) throws DukeException;
+    }
+
+    /**
+     * Time waited before reconnecting to the primary, in milliseconds
+     */
+    private static final long RETRY_MILLIS = 1000;
+
+    /**
+     * Largest number of mutations applied at once
+     */
+    private static final int MAX_BATCH = 1000;
+
+    private static final String POSITION_PREFIX = "replica ";
+
+    private final int port;
+    private final Target target;
+
+    /**
+     * Executor which applies changes, so that they are applied on the same thread as commands
+     */
+    private final Executor executor;
+
+    /**
+     * Position up to which mutations were received, on the receiving thread
+     */
+    private volatile long receivedEpoch;
+    private long receivedOffset;
+
+    /**
+     * Position up to which mutations were applied
+     */
+    private volatile long appliedOffset;
+    private volatile long primaryOffset;
+    private volatile long lagMillis = 0;
+
+    private volatile Socket socket;
+    private volatile boolean isClosed = false;
+
+    /**
+     * Constructor for ReplicationFollower
+     *
+     * @param port     Port of the primary on the loopback interface
+     * @param position Position saved along with the tasks, or null if the tasks were never replicated
+     * @param target   List of tasks to apply changes to
+     * @param executor Executor which applies changes
+     */
+    public ReplicationFollower(int port, String position, Target target, Executor executor) {
+        this.port = port;
+        this.target = target;
+        this.executor = executor;
+        long[] parsedPosition = parsePosition(position);
+        this.receivedEpoch = parsedPosition[0];
+        this.receivedOffset = parsedPosition[1];
+        this.appliedOffset = receivedOffset;
+        this.primaryOffset = receivedOffset;
+    }
+
+    /**
+     * Returns the position in the log in the form saved along with the tasks
+     *
+     * @param epoch  Run of the primary
+     * @param offset Offset in the log of that run
+     * @return Position in the log
+     */
+    static String toPosition(long epoch, long offset) {
+        return String.format("%sepoch=%d offset=%d", POSITION_PREFIX, epoch, offset);
+    }
+
+    /**
+     * Parses a position in the log saved along with the tasks
+     *
+     * @param position Position in the log, or null
+     * @return Epoch and offset, both 0 if the position is missing or not valid
+     */
+    static long[] parsePosition(String position) {
+        if (position == null || !position.startsWith(POSITION_PREFIX)) {
+            return new long[]{0, 0};
+        }
+        try {
+            String[] parts = position.substring(POSITION_PREFIX.length()).split(" ");
+            return new long[]{Long.parseLong(parts[0].substring("epoch=".length())),
+                    Long.parseLong(parts[1].substring("offset=".length()))};
+        } catch (RuntimeException e) {
+            return new long[]{0, 0};
+        }
+    }
+
+    /**
+     * Starts following the primary, reconnecting whenever the connection is lost
+     */
+    public void start() {
+        Thread thread = new Thread(this::follow, "kokbot-replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void follow() {
+        while (!isClosed) {
+            try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket = s;
+                s.setSoTimeout((int) (5 * ReplicationPrimary.HEARTBEAT_MILLIS));
+                s.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                out.writeInt(ReplicationPrimary.MAGIC);
+                out.writeLong(receivedEpoch);
+                out.writeLong(receivedOffset);
+                out.flush();
+                receive(new DataInputStream(new BufferedInputStream(s.getInputStream())));
+            } catch (IOException e) {
+                // the primary is not running or was lost, so retry
+            } finally {
+                socket = null;
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Receives frames from the primary, applying mutations in batches at each heartbeat
+     */
+    private void receive(DataInputStream in) throws IOException {
+        List<Mutation> batch = new ArrayList<Mutation>();
+        long lastCommitMillis = 0;
+        try {
+            while (!isClosed) {
+                byte frame = in.readByte();
+                switch (frame) {
+                case ReplicationPrimary.SNAPSHOT:
+                    long epoch = in.readLong();
+                    long offset = in.readLong();
+                    int count = in.readInt();
+                    List<String> records = new ArrayList<String>(count);
+                    for (int i = 0; i < count; i++) {
+                        records.add(Mutation.readString(in));
+                    }
+                    receivedEpoch = epoch;
+                    receivedOffset = offset;
+                    submit(() -> target.applySnapshot(records, toPosition(epoch, offset)), offset, 0);
+                    break;
+                case ReplicationPrimary.MUTATION:
+                    long mutationOffset = in.readLong();
+                    lastCommitMillis = in.readLong();
+                    Mutation mutation = Mutation.readFrom(in);
+                    if (mutationOffset != receivedOffset) {
+                        throw new IOException("Expected mutation " + receivedOffset + " but got " + mutationOffset);
+                    }
+                    receivedOffset++;
+                    batch.add(mutation);
+                    if (batch.size() == MAX_BATCH) {
+                        submitBatch(batch, lastCommitMillis);
+                    }
+                    break;
+                case ReplicationPrimary.HEARTBEAT:
+                    primaryOffset = in.readLong();
+                    submitBatch(batch, lastCommitMillis);
+                    break;
+                default:
+                    throw new IOException("Unknown frame " + frame);
+                }
+            }
+        } finally {
+            // mutations received before the connection was lost are applied, as they will not be resent
+            submitBatch(batch, lastCommitMillis);
+        }
+    }
+
+    /**
+     * Submits the mutations received since the last batch to be applied, emptying the batch
+     */
+    private void submitBatch(List<Mutation> batch, long lastCommitMillis) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Mutation> mutations = new ArrayList<Mutation>(batch);
+        String position = toPosition(receivedEpoch, receivedOffset);
+        submit(() -> target.applyMutations(mutations, position), receivedOffset, lastCommitMillis);
+        batch.clear();
+    }
+
+    /**
+     * Represents a change to be applied to the target
+     */
+    private interface Change {
+        void apply() throws DukeException;
+    }
+
+    /**
+     * Submits a change to be applied, after which the follower is at the given offset
+     */
+    private void submit(Change change, long offset, long commitMillis) {
+        executor.execute(() -> {
+            try {
+                change.apply();
+                appliedOffset = offset;
+                if (commitMillis > 0) {
+                    lagMillis = System.currentTimeMillis() - commitMillis;
+                }
+            } catch (DukeException | RuntimeException e) {
+                // the tasks no longer match the primary's, so start over from a snapshot
+                System.out.println("Error applying replicated changes: " + e.getMessage());
+                receivedEpoch = 0;
+                disconnect();
+            }
+        });
+    }
+
+    private void disconnect() {
+        Socket s = socket;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    @Override
+    public String getRole() {
+        return "follower";
+    }
+
+    @Override
+    public long getOffset() {
+        return appliedOffset;
+    }
+
+    @Override
+    public long getLagMutations() {
+        return Math.max(0, primaryOffset - appliedOffset);
+    }
+
+    @Override
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return socket == null ? 0 : 1;
+    }
+
+    /**
+     * Stops following the primary
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        disconnect();
+    }
+}
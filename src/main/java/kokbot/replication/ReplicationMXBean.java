@@ -0,0 +1,42 @@
+package kokbot.replication;
+
+/**
+ * Represents the JMX view of the replication of tasks, registered as "kokbot:type=Replication"
+ */
+public interface ReplicationMXBean {
+
+    /**
+     * Returns the role of this process
+     *
+     * @return "primary" or "follower"
+     */
+    String getRole();
+
+    /**
+     * Returns the offset of the mutation log up to which changes are applied
+     *
+     * @return Number of mutations applied since the primary started
+     */
+    long getOffset();
+
+    /**
+     * Returns the number of mutations made on the primary but not yet applied here
+     *
+     * @return Number of mutations behind the primary, 0 on the primary
+     */
+    long getLagMutations();
+
+    /**
+     * Returns the time between a mutation being made on the primary and applied here, for the latest mutation
+     *
+     * @return Replication delay in milliseconds, 0 on the primary
+     */
+    long getLagMillis();
+
+    /**
+     * Returns the number of connections to other processes
+     *
+     * @return Number of followers connected to the primary, or 1 if a follower is connected to its primary
+     */
+    int getConnectionCount();
+}
@@ -0,0 +1,255 @@
+package kokbot.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Represents the primary of a replicated list of tasks, which streams its mutation log to followers
+ * over a local socket. A follower which is new, too far behind or following an earlier run of the primary
+ * is first sent a snapshot of all records.
+ */
+public class ReplicationPrimary implements MutationListener, ReplicationMXBean, AutoCloseable {
+
+    /**
+     * Port listened on when none is configured
+     */
+    public static final int DEFAULT_PORT = 4545;
+
+    /**
+     * Sent by followers first, to tell them apart from other programs connecting to the port
+     */
+    static final int MAGIC = 0x4b4f4b52;
+
+    /**
+     * Kinds of frame sent to followers
+     */
+    static final byte SNAPSHOT = 'S';
+    static final byte MUTATION = 'M';
+    static final byte HEARTBEAT = 'H';
+
+    /**
+     * Longest time between frames sent to a follower, so that followers can tell a lost primary apart from a quiet one
+     */
+    static final long HEARTBEAT_MILLIS = 1000;
+
+    /**
+     * Largest number of mutations sent to a follower between heartbeats
+     */
+    private static final int MAX_BATCH = 1000;
+
+    /**
+     * Identifies this run of the primary, as offsets restart from 0 when the primary restarts
+     */
+    private final long epoch = new Random().nextLong() | 1;
+
+    /**
+     * Number of mutations kept for followers to catch up from before they are sent a snapshot instead
+     */
+    private final int retainedCount = Integer.getInteger("kokbot.replication.retained", 100000);
+
+    /**
+     * Records of the tasks as of the latest mutation, from which snapshots are taken
+     */
+    private final List<String> records;
+
+    /**
+     * Retained mutations and the times they were made, the first being at logStart
+     */
+    private final List<Mutation> log = new ArrayList<Mutation>();
+    private final List<Long> logMillis = new ArrayList<Long>();
+    private long logStart = 0;
+
+    /**
+     * Offset of the next mutation
+     */
+    private long offset = 0;
+
+    private final ServerSocket serverSocket;
+    private final List<Socket> followers = new CopyOnWriteArrayList<Socket>();
+    private volatile boolean isClosed = false;
+
+    /**
+     * Constructor for ReplicationPrimary
+     *
+     * @param port    Port of the loopback interface to listen on
+     * @param records Records of the tasks when replication starts
+     * @throws IOException If the port cannot be listened on
+     */
+    public ReplicationPrimary(int port, String[] records) throws IOException {
+        this.records = new ArrayList<String>(Arrays.asList(records));
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Starts accepting followers
+     */
+    public void start() {
+        Thread thread = new Thread(this::acceptFollowers, "kokbot-replication-primary");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void acceptFollowers() {
+        while (!isClosed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> serve(socket), "kokbot-replication-sender");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!isClosed) {
+                    System.out.println("Error accepting follower: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onMutation(Mutation mutation) {
+        switch (mutation.getOp()) {
+        case ADD:
+            records.add(mutation.getIndex(), mutation.getRecord());
+            break;
+        case DELETE:
+            records.remove(mutation.getIndex());
+            break;
+        case REPLACE:
+            records.set(mutation.getIndex(), mutation.getRecord());
+            break;
+        default:
+            throw new AssertionError(mutation.getOp());
+        }
+        log.add(mutation);
+        logMillis.add(System.currentTimeMillis());
+        offset++;
+        if (log.size() > 2 * retainedCount) {
+            // trim in bulk so that each mutation costs O(1) on average
+            int trimmedCount = log.size() - retainedCount;
+            log.subList(0, trimmedCount).clear();
+            logMillis.subList(0, trimmedCount).clear();
+            logStart += trimmedCount;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Streams the mutation log to a follower until either side disconnects
+     */
+    private void serve(Socket socket) {
+        followers.add(socket);
+        try (Socket s = socket;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            s.setTcpNoDelay(true);
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            long followerEpoch = in.readLong();
+            long position = in.readLong();
+            while (!isClosed) {
+                String[] snapshot = null;
+                List<Mutation> batch = null;
+                List<Long> batchMillis = null;
+                long currentOffset;
+                synchronized (this) {
+                    if (followerEpoch != epoch || position < logStart || position > offset) {
+                        snapshot = records.toArray(new String[0]);
+                        followerEpoch = epoch;
+                        position = offset;
+                    } else {
+                        if (position == offset) {
+                            wait(HEARTBEAT_MILLIS);
+                        }
+                        int from = (int) (position - logStart);
+                        int to = (int) Math.min(offset - logStart, from + MAX_BATCH);
+                        batch = new ArrayList<Mutation>(log.subList(from, to));
+                        batchMillis = new ArrayList<Long>(logMillis.subList(from, to));
+                    }
+                    currentOffset = offset;
+                }
+                if (snapshot != null) {
+                    writeSnapshot(out, snapshot, position);
+                } else {
+                    for (int i = 0; i < batch.size(); i++) {
+                        out.writeByte(MUTATION);
+                        out.writeLong(position++);
+                        out.writeLong(batchMillis.get(i));
+                        batch.get(i).writeTo(out);
+                    }
+                }
+                out.writeByte(HEARTBEAT);
+                out.writeLong(currentOffset);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // the follower disconnected or the primary is closing
+        } finally {
+            followers.remove(socket);
+        }
+    }
+
+    private void writeSnapshot(DataOutputStream out, String[] snapshot, long snapshotOffset) throws IOException {
+        out.writeByte(SNAPSHOT);
+        out.writeLong(epoch);
+        out.writeLong(snapshotOffset);
+        out.writeInt(snapshot.length);
+        for (String record : snapshot) {
+            Mutation.writeString(out, record);
+        }
+    }
+
+    @Override
+    public String getRole() {
+        return "primary";
+    }
+
+    @Override
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public long getLagMutations() {
+        return 0;
+    }
+
+    @Override
+    public long getLagMillis() {
+        return 0;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return followers.size();
+    }
+
+    /**
+     * Stops accepting followers and disconnects the connected ones
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        try {
+            serverSocket.close();
+            for (Socket follower : followers) {
+                follower.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error closing replication: " + e.getMessage());
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+}
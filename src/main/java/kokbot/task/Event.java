@@ -57,6 +57,11 @@ public class Event extends Task {
     public LocalDateTime getDateTime() {
         return this.startDate;
     }
+
+    @Override
+    public LocalDateTime getEndDateTime() {
+        return this.endDate;
+    }
     /**
      * Returns the start date of the Event in String format
      */
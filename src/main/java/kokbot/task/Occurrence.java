@@ -0,0 +1,91 @@
+package kokbot.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a single occurrence of a recurring task, expanded on demand.
+ * An occurrence is never saved on its own, so its record is the record of its series.
+ */
+public class Occurrence extends Task {
+
+    /**
+     * Recurring task the occurrence is expanded from
+     */
+    protected Task series;
+
+    /**
+     * Non-recurring task holding the dates of the occurrence
+     */
+    protected Task instance;
+
+    /**
+     * Number of the occurrence, starting from 1
+     */
+    protected int number;
+
+    /**
+     * Constructor for Occurrence
+     *
+     * @param series   Recurring task the occurrence is expanded from
+     * @param instance Non-recurring task holding the dates of the occurrence
+     * @param number   Number of the occurrence, starting from 1
+     */
+    public Occurrence(Task series, Task instance, int number) {
+        super(instance.getDescription());
+        this.series = series;
+        this.instance = instance;
+        this.number = number;
+        this.isDone = instance.isDone;
+        this.tags = instance.tags;
+        this.priority = instance.priority;
+    }
+
+    public Task getSeries() {
+        return series;
+    }
+
+    @Override
+    public String getType() {
+        return instance.getType();
+    }
+
+    @Override
+    public LocalDateTime getDateTime() {
+        return instance.getDateTime();
+    }
+
+    @Override
+    public LocalDateTime getEndDateTime() {
+        return instance.getEndDateTime();
+    }
+
+    /**
+     * Represents the Occurrence in String format
+     *
+     * @return String format of the Occurrence
+     */
+    @Override
+    public String toString() {
+        return String.format("%s (occurrence %d)", instance, number);
+    }
+
+    /**
+     * Represents the series of the Occurrence in String format for saving to file
+     *
+     * @return String format of the series for saving to file
+     */
+    @Override
+    public String toFileString() {
+        return series.toFileString();
+    }
+
+    /**
+     * Represents the series of the Occurrence as the record it is saved as
+     *
+     * @return Record of the series
+     */
+    @Override
+    public String toRecord() {
+        return series.toRecord();
+    }
+}
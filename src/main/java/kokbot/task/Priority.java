@@ -0,0 +1,43 @@
+package kokbot.task;
+
+/**
+ * Represents how important a Task is, from least to most important
+ */
+public enum Priority {
+    NONE, LOW, MEDIUM, HIGH;
+
+    /**
+     * Returns the priority of a name such as "high" or "h"
+     *
+     * @param name Name of the priority, in any case
+     * @return Priority of the name
+     * @throws IllegalArgumentException If the name is not of a priority
+     */
+    public static Priority fromName(String name) {
+        switch (name.toLowerCase()) {
+        case "none":
+            return NONE;
+        case "l":
+        case "low":
+            return LOW;
+        case "m":
+        case "med":
+        case "medium":
+            return MEDIUM;
+        case "h":
+        case "high":
+            return HIGH;
+        default:
+            throw new IllegalArgumentException(String.format("unknown priority \"%s\"", name));
+        }
+    }
+
+    /**
+     * Returns the name of the priority as written by the user, such as "high"
+     *
+     * @return Lower-case name of the priority
+     */
+    public String getName() {
+        return name().toLowerCase();
+    }
+}
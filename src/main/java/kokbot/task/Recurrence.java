@@ -0,0 +1,272 @@
+package kokbot.task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.StringJoiner;
+
+/**
+ * Represents the rule of a recurring task, along with which of its occurrences are done.
+ * Occurrences are never stored, they are computed from the start of the series on demand.
+ */
+public class Recurrence {
+
+    /**
+     * Represents how often a task recurs
+     */
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS, "day"),
+        WEEKLY(ChronoUnit.WEEKS, "week"),
+        MONTHLY(ChronoUnit.MONTHS, "month");
+
+        private final ChronoUnit unit;
+        private final String unitName;
+
+        Frequency(ChronoUnit unit, String unitName) {
+            this.unit = unit;
+            this.unitName = unitName;
+        }
+    }
+
+    /**
+     * Largest number of occurrences a series may have
+     */
+    public static final int MAX_OCCURRENCES = 10000;
+
+    /**
+     * How often the task recurs
+     */
+    protected Frequency frequency;
+
+    /**
+     * Last date-time an occurrence may fall on, or null if the series ends after a count
+     */
+    protected LocalDateTime until;
+
+    /**
+     * Number of occurrences, or 0 if the series ends at a date-time
+     */
+    protected int count;
+
+    /**
+     * Numbers (starting from 0) of the occurrences marked as done
+     */
+    protected BitSet doneOccurrences = new BitSet();
+
+    /**
+     * Constructor for Recurrence which ends after a number of occurrences
+     *
+     * @param frequency How often the task recurs
+     * @param count     Number of occurrences
+     */
+    public Recurrence(Frequency frequency, int count) {
+        if (count < 1 || count > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("number of occurrences should be between 1 and " + MAX_OCCURRENCES);
+        }
+        this.frequency = frequency;
+        this.count = count;
+    }
+
+    /**
+     * Constructor for Recurrence which ends at a date-time
+     *
+     * @param frequency How often the task recurs
+     * @param until     Last date-time an occurrence may fall on
+     */
+    public Recurrence(Frequency frequency, LocalDateTime until) {
+        this.frequency = frequency;
+        this.until = until;
+    }
+
+    /**
+     * Returns a copy of the Recurrence, so that marking occurrences of the copy leaves the Recurrence as it was
+     *
+     * @return Copy of the Recurrence
+     */
+    public Recurrence copy() {
+        Recurrence copy = this.until == null
+                ? new Recurrence(this.frequency, this.count)
+                : new Recurrence(this.frequency, this.until);
+        copy.doneOccurrences = (BitSet) this.doneOccurrences.clone();
+        return copy;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Parses a Recurrence from its file format, e.g. "WEEKLY;count=5;done=0-2+4"
+     *
+     * @param fileString Recurrence in file format
+     * @return Parsed Recurrence
+     * @throws IllegalArgumentException If the string is not a valid Recurrence
+     */
+    public static Recurrence fromFileString(String fileString) {
+        String[] parts = fileString.split(";");
+        Frequency frequency = Frequency.valueOf(parts[0]);
+        Recurrence recurrence;
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Recurrence has no end: " + fileString);
+        } else if (parts[1].startsWith("count=")) {
+            recurrence = new Recurrence(frequency, Integer.parseInt(parts[1].substring(6)));
+        } else if (parts[1].startsWith("until=")) {
+            recurrence = new Recurrence(frequency, LocalDateTime.parse(parts[1].substring(6)));
+        } else {
+            throw new IllegalArgumentException("Recurrence has no end: " + fileString);
+        }
+        if (parts.length > 2 && parts[2].startsWith("done=") && parts[2].length() > 5) {
+            for (String range : parts[2].substring(5).split("\\+")) {
+                int dash = range.indexOf('-');
+                if (dash < 0) {
+                    recurrence.doneOccurrences.set(Integer.parseInt(range));
+                } else {
+                    recurrence.doneOccurrences.set(Integer.parseInt(range.substring(0, dash)),
+                            Integer.parseInt(range.substring(dash + 1)) + 1);
+                }
+            }
+        }
+        return recurrence;
+    }
+
+    /**
+     * Returns the date-time of an occurrence
+     *
+     * @param start  Date-time of the first occurrence
+     * @param number Number of the occurrence, starting from 0
+     * @return Date-time of the occurrence
+     */
+    public LocalDateTime getOccurrence(LocalDateTime start, long number) {
+        return start.plus(number, frequency.unit);
+    }
+
+    /**
+     * Checks that a series ending at a date-time has no more occurrences than a series may have
+     *
+     * @param start Date-time of the first occurrence
+     * @throws IllegalArgumentException If the series has too many occurrences
+     */
+    public void checkOccurrenceCount(LocalDateTime start) {
+        if (until != null && !getOccurrence(start, MAX_OCCURRENCES).isAfter(until)) {
+            throw new IllegalArgumentException("number of occurrences should be between 1 and " + MAX_OCCURRENCES);
+        }
+    }
+
+    /**
+     * Returns the number of occurrences in the series
+     *
+     * @param start Date-time of the first occurrence
+     * @return Number of occurrences
+     */
+    public int getOccurrenceCount(LocalDateTime start) {
+        if (until == null) {
+            return count;
+        }
+        if (until.isBefore(start)) {
+            return 0;
+        }
+        // series are checked when created, so only those saved before the check was added are cut short
+        long n = Math.min(frequency.unit.between(start, until) + 1, MAX_OCCURRENCES);
+        while (n > 0 && getOccurrence(start, n - 1).isAfter(until)) {
+            n--;
+        }
+        return (int) n;
+    }
+
+    /**
+     * Returns the number of the first occurrence falling on or after the given date-time
+     *
+     * @param start Date-time of the first occurrence
+     * @param time  Date-time to search from
+     * @return Number of the first occurrence on or after the date-time, starting from 0
+     */
+    public int getFirstOccurrenceFrom(LocalDateTime start, LocalDateTime time) {
+        if (!time.isAfter(start)) {
+            return 0;
+        }
+        long n = Math.min(frequency.unit.between(start, time), MAX_OCCURRENCES);
+        while (n < MAX_OCCURRENCES && getOccurrence(start, n).isBefore(time)) {
+            n++;
+        }
+        while (n > 0 && !getOccurrence(start, n - 1).isBefore(time)) {
+            n--;
+        }
+        return (int) n;
+    }
+
+    /**
+     * Returns whether an occurrence is marked as done
+     *
+     * @param number Number of the occurrence, starting from 0
+     * @return Whether the occurrence is marked as done
+     */
+    public boolean isOccurrenceDone(int number) {
+        return doneOccurrences.get(number);
+    }
+
+    /**
+     * Marks an occurrence as done or undone
+     *
+     * @param number Number of the occurrence, starting from 0
+     * @param isDone Whether the occurrence is done
+     */
+    public void markOccurrence(int number, boolean isDone) {
+        doneOccurrences.set(number, isDone);
+    }
+
+    /**
+     * Returns the number of the first occurrence not marked as done, which may be past the end of the series
+     *
+     * @return Number of the first undone occurrence, starting from 0
+     */
+    public int getFirstUndoneOccurrence() {
+        return doneOccurrences.nextClearBit(0);
+    }
+
+    /**
+     * Returns the number of occurrences marked as done
+     *
+     * @return Number of occurrences marked as done
+     */
+    public int getDoneCount() {
+        return doneOccurrences.cardinality();
+    }
+
+    /**
+     * Represents the Recurrence in String format
+     *
+     * @param dateTimeFormat Format for dateTimes to be printed to the user
+     * @return String format of the Recurrence
+     */
+    public String toString(String dateTimeFormat) {
+        String end = until == null
+                ? String.format(", %d times", count)
+                : " until " + until.format(DateTimeFormatter.ofPattern(dateTimeFormat));
+        return String.format("every %s%s, %d done", frequency.unitName, end, getDoneCount());
+    }
+
+    /**
+     * Represents the Recurrence in String format for saving to file
+     *
+     * @return String format of the Recurrence for saving to file
+     */
+    public String toFileString() {
+        StringJoiner done = new StringJoiner("+");
+        for (int i = doneOccurrences.nextSetBit(0); i >= 0; i = doneOccurrences.nextSetBit(i + 1)) {
+            int end = doneOccurrences.nextClearBit(i) - 1;
+            done.add(i == end ? String.valueOf(i) : i + "-" + end);
+            i = end;
+        }
+        String end = until == null ? "count=" + count : "until=" + until;
+        return String.format("%s;%s;done=%s", frequency, end, done);
+    }
+}
@@ -0,0 +1,77 @@
+package kokbot.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a task which recurs according to a Recurrence.
+ * Its occurrences are expanded on demand and never stored.
+ */
+public interface Recurring {
+
+    /**
+     * Returns the rule of the series
+     *
+     * @return Rule of the series
+     */
+    Recurrence getRecurrence();
+
+    /**
+     * Returns the date-time of the first occurrence
+     *
+     * @return Date-time of the first occurrence
+     */
+    LocalDateTime getSeriesStart();
+
+    /**
+     * Returns an occurrence of the series
+     *
+     * @param number Number of the occurrence, starting from 0
+     * @return Occurrence of the series
+     */
+    Occurrence getOccurrence(int number);
+
+    /**
+     * Returns the number of occurrences in the series
+     *
+     * @return Number of occurrences
+     */
+    default int getOccurrenceCount() {
+        return getRecurrence().getOccurrenceCount(getSeriesStart());
+    }
+
+    /**
+     * Returns every occurrence of the series
+     *
+     * @return List of occurrences
+     */
+    default List<Task> getOccurrences() {
+        int count = getOccurrenceCount();
+        List<Task> occurrences = new ArrayList<Task>(count);
+        for (int i = 0; i < count; i++) {
+            occurrences.add(getOccurrence(i));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns the occurrences falling within a window, expanding only those occurrences
+     *
+     * @param from Start of the window, inclusive
+     * @param to   End of the window, inclusive
+     * @return List of occurrences within the window
+     */
+    default List<Task> getOccurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        List<Task> occurrences = new ArrayList<Task>();
+        int count = getOccurrenceCount();
+        for (int i = getRecurrence().getFirstOccurrenceFrom(getSeriesStart(), from); i < count; i++) {
+            Occurrence occurrence = getOccurrence(i);
+            if (occurrence.getDateTime().isAfter(to)) {
+                break;
+            }
+            occurrences.add(occurrence);
+        }
+        return occurrences;
+    }
+}
@@ -0,0 +1,86 @@
+package kokbot.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a Deadline which recurs
+ */
+public class RecurringDeadline extends Deadline implements Recurring {
+
+    /**
+     * Rule of the series
+     */
+    protected Recurrence recurrence;
+
+    /**
+     * Constructor for RecurringDeadline with LocalDateTime
+     *
+     * @param description Description of the Deadline
+     * @param newDueDate  Due date of the first occurrence in LocalDateTime format
+     * @param recurrence  Rule of the series
+     */
+    public RecurringDeadline(String description, LocalDateTime newDueDate, Recurrence recurrence) {
+        super(description, newDueDate);
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Constructor for RecurringDeadline with String
+     *
+     * @param description Description of the Deadline
+     * @param newDueDate  Due date of the first occurrence in String format
+     * @param recurrence  Rule of the series in file format
+     */
+    public RecurringDeadline(String description, String newDueDate, String recurrence) {
+        super(description, newDueDate);
+        this.recurrence = Recurrence.fromFileString(recurrence);
+    }
+
+    @Override
+    public RecurringDeadline copy() {
+        RecurringDeadline copy = (RecurringDeadline) super.copy();
+        copy.recurrence = this.recurrence.copy();
+        return copy;
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    @Override
+    public LocalDateTime getSeriesStart() {
+        return this.dueDate;
+    }
+
+    @Override
+    public Occurrence getOccurrence(int number) {
+        Deadline instance = new Deadline(this.description, recurrence.getOccurrence(this.dueDate, number));
+        if (this.isDone || recurrence.isOccurrenceDone(number)) {
+            instance.markAsDone();
+        }
+        instance.tags = this.tags;
+        instance.priority = this.priority;
+        return new Occurrence(this, instance, number + 1);
+    }
+
+    /**
+     * Represents the RecurringDeadline in String format
+     *
+     * @return String format of the RecurringDeadline
+     */
+    @Override
+    public String toString() {
+        return String.format("%s (%s)", super.toString(), recurrence.toString(this.dateTimeFormat));
+    }
+
+    /**
+     * Represents the RecurringDeadline in String format for saving to file
+     *
+     * @return String format of the RecurringDeadline for saving to file
+     */
+    @Override
+    public String toFileString() {
+        return String.format("%s,%s", super.toFileString(), recurrence.toFileString());
+    }
+}
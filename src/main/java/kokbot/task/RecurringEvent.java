@@ -0,0 +1,92 @@
+package kokbot.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Represents an Event which recurs
+ */
+public class RecurringEvent extends Event implements Recurring {
+
+    /**
+     * Rule of the series
+     */
+    protected Recurrence recurrence;
+
+    /**
+     * Constructor for RecurringEvent with LocalDateTime
+     *
+     * @param description  Description of the Event
+     * @param newStartDate Start date of the first occurrence in LocalDateTime format
+     * @param newEndDate   End date of the first occurrence in LocalDateTime format
+     * @param recurrence   Rule of the series
+     */
+    public RecurringEvent(String description, LocalDateTime newStartDate, LocalDateTime newEndDate,
+            Recurrence recurrence) {
+        super(description, newStartDate, newEndDate);
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Constructor for RecurringEvent with String
+     *
+     * @param description  Description of the Event
+     * @param newStartDate Start date of the first occurrence in String format
+     * @param newEndDate   End date of the first occurrence in String format
+     * @param recurrence   Rule of the series in file format
+     */
+    public RecurringEvent(String description, String newStartDate, String newEndDate, String recurrence) {
+        super(description, newStartDate, newEndDate);
+        this.recurrence = Recurrence.fromFileString(recurrence);
+    }
+
+    @Override
+    public RecurringEvent copy() {
+        RecurringEvent copy = (RecurringEvent) super.copy();
+        copy.recurrence = this.recurrence.copy();
+        return copy;
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    @Override
+    public LocalDateTime getSeriesStart() {
+        return this.startDate;
+    }
+
+    @Override
+    public Occurrence getOccurrence(int number) {
+        LocalDateTime occurrenceStart = recurrence.getOccurrence(this.startDate, number);
+        LocalDateTime occurrenceEnd = occurrenceStart.plus(Duration.between(this.startDate, this.endDate));
+        Event instance = new Event(this.description, occurrenceStart, occurrenceEnd);
+        if (this.isDone || recurrence.isOccurrenceDone(number)) {
+            instance.markAsDone();
+        }
+        instance.tags = this.tags;
+        instance.priority = this.priority;
+        return new Occurrence(this, instance, number + 1);
+    }
+
+    /**
+     * Represents the RecurringEvent in String format
+     *
+     * @return String format of the RecurringEvent
+     */
+    @Override
+    public String toString() {
+        return String.format("%s (%s)", super.toString(), recurrence.toString(this.dateTimeFormat));
+    }
+
+    /**
+     * Represents the RecurringEvent in String format for saving to file
+     *
+     * @return String format of the RecurringEvent for saving to file
+     */
+    @Override
+    public String toFileString() {
+        return String.format("%s,%s", super.toFileString(), recurrence.toFileString());
+    }
+}
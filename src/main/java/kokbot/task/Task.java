@@ -1,11 +1,25 @@
 package kokbot.task;
 
+import kokbot.RecordCodec;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.TreeSet;
 
 /**
  * Represents a Task
  */
-abstract public class Task {
+abstract public class Task implements Cloneable {
+
+    /**
+     * Prefix of tags and of priorities as written by the user, such as "#work" and "!high"
+     */
+    public static final String TAG_PREFIX = "#";
+    public static final String PRIORITY_PREFIX = "!";
 
     /**
      * Description of the Task
@@ -17,6 +31,21 @@ abstract public class Task {
      */
     protected boolean isDone;
 
+    /**
+     * Identifier of the Task, unique within its TaskList and increasing in the order tasks are added
+     */
+    protected int id = -1;
+
+    /**
+     * Tags of the Task without their leading "#", in sorted order
+     */
+    protected List<String> tags = Collections.emptyList();
+
+    /**
+     * Priority of the Task
+     */
+    protected Priority priority = Priority.NONE;
+
     /**
      * Format for dateTimes to be printed to the user
      */
@@ -35,9 +64,135 @@ abstract public class Task {
     abstract public String getType();
     abstract public LocalDateTime getDateTime();
 
+    /**
+     * Returns when the Task ends, which is when it starts unless it spans a period
+     *
+     * @return End date-time of the Task
+     */
+    public LocalDateTime getEndDateTime() {
+        return getDateTime();
+    }
+
     public String getDescription() {
         return this.description;
     }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public boolean isDone() {
+        return this.isDone;
+    }
+
+    public List<String> getTags() {
+        return this.tags;
+    }
+
+    /**
+     * Sets the tags of the Task, dropping duplicates
+     *
+     * @param newTags Tags without their leading "#"
+     */
+    public void setTags(Collection<String> newTags) {
+        this.tags = newTags.isEmpty()
+                ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(new ArrayList<String>(new TreeSet<String>(newTags)));
+    }
+
+    public Priority getPriority() {
+        return this.priority;
+    }
+
+    public void setPriority(Priority newPriority) {
+        this.priority = newPriority;
+    }
+
+    /**
+     * Returns the tags and priority of the Task as written by the user, such as "#home #work !high"
+     *
+     * @return Labels of the Task, or an empty string if it has none
+     */
+    public String getLabels() {
+        StringJoiner labels = new StringJoiner(" ");
+        for (String tag : this.tags) {
+            labels.add(TAG_PREFIX + tag);
+        }
+        if (this.priority != Priority.NONE) {
+            labels.add(PRIORITY_PREFIX + this.priority.getName());
+        }
+        return labels.toString();
+    }
+
+    /**
+     * Sets the tags and priority of the Task from labels as written by the user, such as "#home #work !high"
+     *
+     * @param labels Labels separated by spaces
+     * @throws IllegalArgumentException If a label is neither a tag nor a priority
+     */
+    public void setLabels(String labels) {
+        List<String> newTags = new ArrayList<String>();
+        for (String label : labels.split(" ")) {
+            if (isTag(label)) {
+                newTags.add(label.substring(TAG_PREFIX.length()));
+            } else if (label.startsWith(PRIORITY_PREFIX)) {
+                this.priority = Priority.fromName(label.substring(PRIORITY_PREFIX.length()));
+            } else if (!label.isEmpty()) {
+                throw new IllegalArgumentException(String.format("unknown label \"%s\"", label));
+            }
+        }
+        setTags(newTags);
+    }
+
+    /**
+     * Moves the tags and priority written within the description, such as "#work" and "!high", into the labels
+     * of the Task. A description made up of nothing but labels is left as it is.
+     */
+    public void extractLabels() {
+        StringJoiner remaining = new StringJoiner(" ");
+        StringJoiner labels = new StringJoiner(" ");
+        for (String word : this.description.split(" ")) {
+            (isTag(word) || isPriority(word) ? labels : remaining).add(word);
+        }
+        if (labels.length() == 0 || remaining.length() == 0) {
+            return;
+        }
+        this.description = remaining.toString();
+        setLabels(labels.toString());
+    }
+
+    /**
+     * Returns whether a word is a tag such as "#work"
+     *
+     * @param word Word to be checked
+     * @return Whether the word is a tag
+     */
+    public static boolean isTag(String word) {
+        return word.length() > TAG_PREFIX.length() && word.startsWith(TAG_PREFIX);
+    }
+
+    /**
+     * Returns whether a word is a priority such as "!high"
+     *
+     * @param word Word to be checked
+     * @return Whether the word is a priority
+     */
+    public static boolean isPriority(String word) {
+        if (!word.startsWith(PRIORITY_PREFIX)) {
+            return false;
+        }
+        try {
+            Priority.fromName(word.substring(PRIORITY_PREFIX.length()));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Returns the status icon of the Task
      *
@@ -54,7 +209,10 @@ abstract public class Task {
      */
     @Override
     public String toString() {
-        return String.format("[%s] %s", this.getStatusIcon(), this.description);
+        String labels = getLabels();
+        return labels.isEmpty()
+                ? String.format("[%s] %s", this.getStatusIcon(), this.description)
+                : String.format("[%s] %s %s", this.getStatusIcon(), this.description, labels);
     }
 
     /**
@@ -63,7 +221,31 @@ abstract public class Task {
      * @return Overview of the Task in String format for saving to file
      */
     public String toFileString() {
-        return String.format("%s,%s", this.getStatusIcon(), this.description);
+        return String.format("%s,%s", this.getStatusIcon(), RecordCodec.escape(this.description));
+    }
+
+    /**
+     * Returns the record of the Task for saving to file: its file string, followed by its labels as a last field
+     * if it has any. A labels field always starts with "#" or "!", so it is told apart from the fields before it.
+     *
+     * @return Record of the Task for saving to file
+     */
+    public String toRecord() {
+        String labels = getLabels();
+        return labels.isEmpty() ? toFileString() : toFileString() + "," + RecordCodec.escape(labels);
+    }
+
+    /**
+     * Returns a copy of the Task, so that marking the copy leaves the Task as it was
+     *
+     * @return Copy of the Task with the same id
+     */
+    public Task copy() {
+        try {
+            return (Task) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Task should be cloneable", e);
+        }
     }
 
     /**
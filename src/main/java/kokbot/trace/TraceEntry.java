@@ -0,0 +1,94 @@
+package kokbot.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import kokbot.DukeException;
+import kokbot.RecordReader;
+
+/**
+ * Represents one command of a recorded session: when it was entered, what was entered and a checksum of the
+ * response, so that a replay can check it produces the same responses.
+ */
+public class TraceEntry {
+
+    private final long offsetMillis;
+    private final String input;
+    private final long responseChecksum;
+
+    /**
+     * Constructor for TraceEntry
+     *
+     * @param offsetMillis     Milliseconds from the start of the session to when the command was entered
+     * @param input            Input entered
+     * @param responseChecksum Checksum of the response
+     */
+    public TraceEntry(long offsetMillis, String input, long responseChecksum) {
+        this.offsetMillis = offsetMillis;
+        this.input = input;
+        this.responseChecksum = responseChecksum;
+    }
+
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public long getResponseChecksum() {
+        return responseChecksum;
+    }
+
+    /**
+     * Returns the checksum of a response as recorded in a trace
+     *
+     * @param response Response from the bot
+     * @return CRC-32 of the UTF-8 bytes of the response
+     */
+    public static long getChecksum(String response) {
+        CRC32 crc = new CRC32();
+        crc.update(response.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Reads every entry of a trace file
+     *
+     * @param tracePath Path of the trace file
+     * @return Entries in the order they were recorded
+     * @throws DukeException If the file cannot be read or a line is corrupt
+     */
+    public static List<TraceEntry> readAll(Path tracePath) throws DukeException {
+        RecordReader reader;
+        try {
+            reader = new RecordReader(ByteBuffer.wrap(Files.readAllBytes(tracePath)));
+        } catch (IOException e) {
+            throw new DukeException("Unable to read trace " + tracePath + ": " + e.getMessage());
+        }
+        List<TraceEntry> entries = new ArrayList<TraceEntry>();
+        while (reader.next()) {
+            if (reader.isHeader() || reader.isBlank()) {
+                continue;
+            }
+            List<String> fields = reader.getFields();
+            if (reader.getError() != null || fields.size() != 3) {
+                throw new DukeException("Corrupt trace line " + reader.getLineNumber() + " in " + tracePath);
+            }
+            try {
+                entries.add(new TraceEntry(Long.parseLong(fields.get(0)), fields.get(2),
+                        Long.parseLong(fields.get(1), 16)));
+            } catch (NumberFormatException e) {
+                throw new DukeException("Corrupt trace line " + reader.getLineNumber() + " in " + tracePath);
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,91 @@
+package kokbot.trace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import kokbot.RecordCodec;
+
+/**
+ * Represents a recorder of the commands of a session to a trace file, so that the session can be replayed.
+ * The data file is copied beside the trace when recording starts, as replaying from the same tasks
+ * gives the same responses. Each command is written as a record of its offset in milliseconds,
+ * the checksum of its response and its input.
+ */
+public class TraceRecorder implements AutoCloseable {
+
+    /**
+     * First line of every trace file
+     */
+    public static final String HEADER = RecordCodec.HEADER_PREFIX + "kokbot-trace 1";
+
+    private final OutputStream out;
+    private final long startTime = System.nanoTime();
+    private final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Constructor for TraceRecorder, which starts a new trace file
+     *
+     * @param tracePath Path of the trace file, replaced if it exists
+     * @param dataPath  Path of the data file the session starts from
+     * @throws IOException If the trace file cannot be created or the data file cannot be copied
+     */
+    public TraceRecorder(Path tracePath, Path dataPath) throws IOException {
+        Path basePath = getBasePath(tracePath);
+        if (Files.exists(dataPath)) {
+            Files.copy(dataPath, basePath, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(basePath);
+        }
+        out = Files.newOutputStream(tracePath);
+        out.write((HEADER + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Returns the trace path configured through the "kokbot.trace" system property
+     *
+     * @return Path to record the session to, or null if sessions are not recorded
+     */
+    public static Path getConfiguredPath() {
+        String path = System.getProperty("kokbot.trace", "");
+        return path.isEmpty() ? null : Paths.get(path);
+    }
+
+    /**
+     * Returns the path which the data file is copied to when recording to the trace
+     *
+     * @param tracePath Path of the trace file
+     * @return Path of the copy of the data file
+     */
+    public static Path getBasePath(Path tracePath) {
+        return tracePath.resolveSibling(tracePath.getFileName() + ".base");
+    }
+
+    /**
+     * Records a command and its response, writing it through so that a crashed session is still recorded
+     *
+     * @param input    Input entered
+     * @param response Response from the bot
+     * @throws IOException If the trace cannot be written
+     */
+    public void record(String input, String response) throws IOException {
+        long offsetMillis = (System.nanoTime() - startTime) / 1_000_000;
+        String record = offsetMillis + "," + Long.toHexString(TraceEntry.getChecksum(response)) + ","
+                + RecordCodec.escape(input);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        RecordCodec.writeLine(line, record, true, lineSeparator);
+        line.writeTo(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,108 @@
+import kokbot.CalendarIndex;
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringEvent;
+import kokbot.task.Todo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CalendarIndexTest {
+
+    @Test
+    public void getAgenda_multiDayEvent_shownOnEachDay() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Deadline("report", LocalDateTime.parse("2026-11-03T18:00")));
+        tasks.addTask(new Event("camp", LocalDateTime.parse("2026-11-02T09:00"),
+                LocalDateTime.parse("2026-11-04T17:00")));
+        tasks.addTask(new Deadline("later", LocalDateTime.parse("2026-12-01T10:00")));
+
+        Map<LocalDate, List<String>> agenda = tasks.getAgenda(LocalDate.parse("2026-11-01"),
+                LocalDate.parse("2026-11-30"));
+        assertEquals(List.of(LocalDate.parse("2026-11-02"), LocalDate.parse("2026-11-03"),
+                LocalDate.parse("2026-11-04")), List.copyOf(agenda.keySet()));
+        assertEquals(2, agenda.get(LocalDate.parse("2026-11-03")).size());
+        assertTrue(agenda.get(LocalDate.parse("2026-11-03")).get(0).contains("camp"));
+        assertTrue(agenda.get(LocalDate.parse("2026-11-03")).get(1).contains("report"));
+    }
+
+    @Test
+    public void getAgenda_markAndDelete_bucketsUpdated() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Deadline("report", LocalDateTime.parse("2026-11-03T18:00")));
+        tasks.addTask(new RecurringEvent("standup", LocalDateTime.parse("2026-11-02T09:00"),
+                LocalDateTime.parse("2026-11-02T09:15"), new Recurrence(Recurrence.Frequency.DAILY, 3)));
+        LocalDate day = LocalDate.parse("2026-11-03");
+
+        tasks.markTaskAsDone(0);
+        List<String> onDay = tasks.getAgenda(day, day).get(day);
+        assertEquals(2, onDay.size());
+        assertTrue(onDay.get(1).contains("[X] report"));
+
+        tasks.deleteTask(1);
+        assertEquals(1, tasks.getAgenda(day, day).get(day).size());
+        assertTrue(tasks.getAgenda(LocalDate.parse("2026-11-04"), LocalDate.parse("2026-11-04")).isEmpty());
+    }
+
+    @Test
+    public void getDays_longEvent_keptOutOfBuckets() {
+        CalendarIndex index = new CalendarIndex();
+        Event retreat = new Event("sabbatical", LocalDateTime.parse("2026-01-01T00:00"),
+                LocalDateTime.parse("2030-01-01T00:00"));
+        retreat.setId(1);
+        index.add(retreat);
+        assertEquals(0, index.getDayCount());
+        assertEquals(30, index.getDays(LocalDate.parse("2027-06-01"), LocalDate.parse("2027-06-30")).size());
+
+        index.remove(retreat);
+        assertTrue(index.getDays(LocalDate.parse("2027-06-01"), LocalDate.parse("2027-06-30")).isEmpty());
+    }
+
+    @Test
+    public void markOccurrence_largeSeries_notExpandedIntoBuckets() throws DukeException {
+        TaskList tasks = new TaskList();
+        LocalDateTime start = LocalDateTime.parse("2026-11-02T09:00");
+        for (int i = 0; i < 200; i++) {
+            tasks.addTask(new RecurringEvent("standup " + i, start, start.plusMinutes(15),
+                    new Recurrence(Recurrence.Frequency.DAILY, Recurrence.MAX_OCCURRENCES)));
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            tasks.markOccurrence(i, 1, true);
+        }
+        // expanding every occurrence on each mark took seconds; the window alone takes milliseconds
+        assertTrue(System.nanoTime() - startTime < 1_000_000_000L);
+
+        LocalDate day = LocalDate.parse("2026-11-03");
+        List<String> onDay = tasks.getAgenda(day, day).get(day);
+        assertEquals(200, onDay.size());
+        assertTrue(onDay.get(0).contains("[X]"));
+        assertEquals(200, tasks.getAgenda(LocalDate.parse("2040-01-01"), LocalDate.parse("2040-01-01"))
+                .get(LocalDate.parse("2040-01-01")).size());
+    }
+
+    @Test
+    public void getDays_series_occurrencesRunningIntoWindowIncluded() {
+        CalendarIndex index = new CalendarIndex();
+        RecurringEvent camp = new RecurringEvent("camp", LocalDateTime.parse("2026-11-02T09:00"),
+                LocalDateTime.parse("2026-11-04T17:00"), new Recurrence(Recurrence.Frequency.WEEKLY, 3));
+        camp.setId(1);
+        index.add(camp);
+        assertEquals(0, index.getDayCount());
+        assertEquals(List.of(LocalDate.parse("2026-11-10"), LocalDate.parse("2026-11-11")),
+                List.copyOf(index.getDays(LocalDate.parse("2026-11-10"), LocalDate.parse("2026-11-15")).keySet()));
+
+        index.remove(camp);
+        assertTrue(index.getDays(LocalDate.parse("2026-11-01"), LocalDate.parse("2026-11-30")).isEmpty());
+    }
+}
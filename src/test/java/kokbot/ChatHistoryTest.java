@@ -0,0 +1,45 @@
+import kokbot.ChatHistory;
+import kokbot.ChatMessage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void addAll_belowLimit_nothingSpilled() {
+        Path transcript = tempDir.resolve("transcript.txt");
+        ChatHistory history = new ChatHistory(new ArrayList<>(), 10, transcript);
+        history.addAll(new ChatMessage("list", true), new ChatMessage("no tasks", false));
+        assertEquals(2, history.getSize());
+        assertTrue(Files.notExists(transcript));
+    }
+
+    @Test
+    public void addAll_overLimit_oldestSpilledToTranscript() throws IOException {
+        Path transcript = tempDir.resolve("transcript.txt");
+        List<ChatMessage> messages = new ArrayList<>();
+        ChatHistory history = new ChatHistory(messages, 10, transcript);
+        for (int i = 0; i < 60; i++) {
+            history.addAll(new ChatMessage("message " + i, i % 2 == 0));
+        }
+        assertEquals(10, history.getSize());
+        assertEquals("message 50", messages.get(0).getText());
+        history.close();
+        List<String> lines = Files.readAllLines(transcript);
+        assertEquals(50, lines.size());
+        assertEquals("You: message 0", lines.get(0));
+        assertEquals("Kokbot: message 49", lines.get(49));
+    }
+}
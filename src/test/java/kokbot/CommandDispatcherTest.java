@@ -0,0 +1,39 @@
+import kokbot.CommandDispatcher;
+import kokbot.Kokbot;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandDispatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void submit_manyCommands_completedInSubmissionOrder() {
+        CommandDispatcher dispatcher = new CommandDispatcher(new Kokbot(tempDir.resolve("kokbot.txt"), "KokBot"));
+        List<Integer> completionOrder = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int commandNumber = i;
+            futures.add(dispatcher.submit("todo task " + i)
+                    .whenComplete((response, error) -> completionOrder.add(commandNumber)));
+        }
+        String lastResponse = futures.get(19).join();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        dispatcher.shutdown();
+
+        assertTrue(lastResponse.contains("Now you have 20 tasks in the list."));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (int) completionOrder.get(i));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import kokbot.Completer;
+import kokbot.PrefixTrie;
+import kokbot.TaskList;
+import kokbot.task.Todo;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompleterTest {
+
+    @Test
+    public void complete_addAndRemove_keepsCountsAndMergesEdges() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("read book");
+        trie.add("read");
+        trie.add("return book");
+        trie.add("read book");
+        assertEquals(List.of("read", "read book", "return book"), trie.complete("re", 10));
+        assertEquals(List.of("read", "read book"), trie.complete("rea", 10));
+        assertEquals(List.of("read book"), trie.complete("read ", 10));
+        assertEquals(List.of("read"), trie.complete("re", 1));
+
+        trie.remove("read book");
+        assertEquals(List.of("read", "read book"), trie.complete("read", 10));
+        trie.remove("read book");
+        trie.remove("read");
+        assertEquals(List.of("return book"), trie.complete("re", 10));
+        assertEquals(1, trie.getSize());
+        assertTrue(trie.complete("rea", 10).isEmpty());
+    }
+
+    @Test
+    public void complete_partialInput_suggestsWholeInputs() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Todo("return library book"));
+        Completer completer = new Completer();
+        completer.setDescriptions(tasks.getDescriptions());
+
+        assertEquals(List.of("deadline ", "dedupe ", "delete "), completer.complete("de", Completer.DEFAULT_LIMIT));
+        assertEquals(List.of("todo read book", "todo return library book"),
+                completer.complete("todo re", Completer.DEFAULT_LIMIT));
+        assertEquals(List.of("deadline return book /by "), completer.complete("deadline return book /b", 8));
+        assertTrue(completer.complete("mark re", Completer.DEFAULT_LIMIT).isEmpty());
+
+        tasks.deleteTask(0);
+        assertEquals(List.of("find return library book"), completer.complete("find re", Completer.DEFAULT_LIMIT));
+    }
+}
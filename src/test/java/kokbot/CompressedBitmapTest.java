@@ -0,0 +1,65 @@
+import kokbot.CompressedBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CompressedBitmapTest {
+
+    private static List<Integer> toList(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<Integer>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+
+    private static CompressedBitmap fill(TreeSet<Integer> expected, Random random, int count, int bound) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(bound);
+            bitmap.add(value);
+            expected.add(value);
+        }
+        return bitmap;
+    }
+
+    @Test
+    public void addRemove_sparseAndDenseChunks_matchesTreeSet() {
+        Random random = new Random(7);
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        // dense in the first chunk, sparse across the next few
+        CompressedBitmap bitmap = fill(expected, random, 30000, 65536);
+        for (int i = 0; i < 3000; i++) {
+            int value = 65536 + random.nextInt(4 * 65536);
+            bitmap.add(value);
+            expected.add(value);
+        }
+        for (int i = 0; i < 25000; i++) {
+            int value = random.nextInt(65536);
+            bitmap.remove(value);
+            expected.remove(value);
+        }
+        assertEquals(new ArrayList<Integer>(expected), toList(bitmap));
+        assertEquals(expected.size(), bitmap.getCardinality());
+    }
+
+    @Test
+    public void andOr_mixedChunks_matchTreeSet() {
+        Random random = new Random(11);
+        TreeSet<Integer> first = new TreeSet<Integer>();
+        TreeSet<Integer> second = new TreeSet<Integer>();
+        CompressedBitmap firstBitmap = fill(first, random, 20000, 200000);
+        CompressedBitmap secondBitmap = fill(second, random, 3000, 200000);
+
+        TreeSet<Integer> intersection = new TreeSet<Integer>(first);
+        intersection.retainAll(second);
+        TreeSet<Integer> union = new TreeSet<Integer>(first);
+        union.addAll(second);
+        assertEquals(new ArrayList<Integer>(intersection), toList(CompressedBitmap.and(firstBitmap, secondBitmap)));
+        assertEquals(new ArrayList<Integer>(union), toList(CompressedBitmap.or(firstBitmap, secondBitmap)));
+        assertEquals(first.size(), firstBitmap.getCardinality());
+    }
+}
@@ -0,0 +1,86 @@
+import kokbot.BkTree;
+import kokbot.FuzzyIndex;
+import kokbot.TaskList;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FuzzyIndexTest {
+
+    @Test
+    public void getDistance_typos_countsEdits() {
+        assertEquals(0, BkTree.getDistance("meeting", "meeting"));
+        assertEquals(1, BkTree.getDistance("meetng", "meeting"));
+        assertEquals(3, BkTree.getDistance("kitten", "sitting"));
+        assertEquals(4, BkTree.getDistance("mtg", "meeting"));
+    }
+
+    @Test
+    public void search_bkTree_findsOnlyTermsWithinDistance() {
+        BkTree tree = new BkTree();
+        for (String term : new String[]{"book", "books", "boot", "cook", "meeting", "greeting", "read"}) {
+            tree.add(term);
+        }
+        List<String> found = new ArrayList<String>();
+        tree.search("bock", 1, (term, distance) -> found.add(term));
+        assertEquals(List.of("book"), found);
+
+        found.clear();
+        tree.search("bock", 2, (term, distance) -> found.add(term));
+        found.sort(null);
+        assertEquals(List.of("book", "books", "boot", "cook"), found);
+    }
+
+    @Test
+    public void getFuzzyMatchingTasks_typo_rankedByDistanceThenRecency() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Team meeting"));
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Todo("meetings recap"));
+        tasks.addTask(new Todo("project meeting notes"));
+
+        ArrayList<String> found = tasks.getFuzzyMatchingTasks("meetng");
+        assertEquals(List.of("[T][ ] project meeting notes", "[T][ ] Team meeting", "[T][ ] meetings recap"),
+                found);
+
+        assertEquals(List.of("[T][ ] meetings recap"), tasks.getFuzzyMatchingTasks("meting rcap"));
+
+        tasks.deleteTask(3);
+        assertTrue(tasks.getFuzzyMatchingTasks("meeting notse").isEmpty());
+    }
+
+    @Test
+    public void search_limitReachedBeforeNewerMatchAtNextLevel_keepsFullRanking() {
+        FuzzyIndex index = new FuzzyIndex();
+        List<Task> tasks = new ArrayList<Task>();
+        for (String description : new String[]{"abcd wxya", "abce wxyz"}) {
+            Task task = new Todo(description);
+            task.setId(tasks.size());
+            tasks.add(task);
+            index.add(task);
+        }
+        List<Task> ranked = index.search("abcd wxyz", 5, tasks::get);
+        assertEquals("abce wxyz", ranked.get(0).getDescription());
+        assertEquals(ranked.subList(0, 1), index.search("abcd wxyz", 1, tasks::get));
+    }
+
+    @Test
+    public void getFuzzyMatchingTasks_abbreviation_matchesAfterCloserTokens() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Team meeting"));
+        tasks.addTask(new Todo("mtg notes"));
+        tasks.addTask(new Todo("marketing plan"));
+        tasks.addTask(new Todo("read book"));
+
+        assertEquals(List.of("[T][ ] mtg notes", "[T][ ] marketing plan", "[T][ ] Team meeting"),
+                tasks.getFuzzyMatchingTasks("mtg"));
+        assertEquals(List.of("[T][ ] Team meeting"), tasks.getFuzzyMatchingTasks("team mtg"));
+        assertTrue(tasks.getFuzzyMatchingTasks("bk").isEmpty());
+    }
+}
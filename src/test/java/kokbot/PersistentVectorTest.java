@@ -0,0 +1,70 @@
+import kokbot.PersistentVector;
+import kokbot.TaskList;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentVectorTest {
+
+    @Test
+    public void plusMinusWith_randomOperations_matchArrayList() {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<Integer>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<PersistentVector<Integer>> versions = new ArrayList<PersistentVector<Integer>>();
+        List<List<Integer>> expectedVersions = new ArrayList<List<Integer>>();
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                vector = vector.plus(index, i);
+            } else if (operation < 8) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                vector = vector.minus(index);
+            } else {
+                int index = random.nextInt(expected.size());
+                expected.set(index, -i);
+                vector = vector.with(index, -i);
+            }
+            if (i % 500 == 0) {
+                versions.add(vector);
+                expectedVersions.add(new ArrayList<Integer>(expected));
+            }
+        }
+        assertEquals(expected, vector);
+        assertEquals(expected, new ArrayList<Integer>(vector));
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expectedVersions.get(i), versions.get(i));
+        }
+        assertEquals(expected, PersistentVector.of(expected));
+    }
+
+    @Test
+    public void snapshot_laterChanges_leaveSnapshotUnchanged() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Todo("return book"));
+        List<Task> snapshot = tasks.snapshot();
+
+        tasks.markTaskAsDone(0);
+        tasks.deleteTask(1);
+        tasks.addTask(new Todo("buy milk"));
+
+        assertEquals(2, snapshot.size());
+        assertFalse(snapshot.get(0).isDone());
+        assertEquals("return book", snapshot.get(1).getDescription());
+        assertTrue(tasks.getTask(0).isDone());
+        assertEquals("buy milk", tasks.getTask(1).getDescription());
+        assertEquals(snapshot.get(0).getId(), tasks.getTask(0).getId());
+    }
+}
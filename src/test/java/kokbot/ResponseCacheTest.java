@@ -0,0 +1,87 @@
+import kokbot.Kokbot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void getResponse_repeatedReadOnlyCommand_servedFromCache() {
+        Kokbot kokbot = new Kokbot(tempDir.resolve("kokbot.txt"), "KokBot");
+        kokbot.getResponse("todo read book");
+        String first = kokbot.getResponse("list");
+        String second = kokbot.getResponse("list");
+
+        assertEquals(first, second);
+        assertEquals(1, kokbot.getMetrics().getCacheHitCount());
+        assertEquals(1, kokbot.getMetrics().getCacheMissCount());
+    }
+
+    @Test
+    public void getResponse_afterMutation_cacheInvalidated() {
+        Kokbot kokbot = new Kokbot(tempDir.resolve("kokbot.txt"), "KokBot");
+        kokbot.getResponse("todo read book");
+        kokbot.getResponse("find book");
+        kokbot.getResponse("todo return book");
+        kokbot.getResponse("mark 1");
+
+        String response = kokbot.getResponse("find book");
+        assertTrue(response.contains("[T][X] read book"), response);
+        assertTrue(response.contains("return book"), response);
+        assertEquals(0, kokbot.getMetrics().getCacheHitCount());
+    }
+
+    @Test
+    public void getResponse_upcoming_notCached() {
+        Kokbot kokbot = new Kokbot(tempDir.resolve("kokbot.txt"), "KokBot");
+        kokbot.getResponse("upcoming");
+        kokbot.getResponse("upcoming");
+
+        assertEquals(0, kokbot.getMetrics().getCacheHitCount() + kokbot.getMetrics().getCacheMissCount());
+    }
+
+    @Test
+    public void getResponse_fileChangedExternally_changesShownInResponse() throws IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Kokbot kokbot = new Kokbot(path, "KokBot");
+        kokbot.getResponse("todo read book");
+        kokbot.getResponse("list");
+        Files.write(path, "T, ,read book\nT, ,walk dog\n".getBytes(StandardCharsets.UTF_8));
+
+        String response = kokbot.getResponse("list");
+        assertTrue(response.startsWith(" The data file was changed outside Kokbot: 1 tasks added"), response);
+        assertTrue(response.contains("walk dog"), response);
+    }
+
+    @Test
+    public void getResponse_fileChangedExternally_keepsFileOrder() throws IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Kokbot kokbot = new Kokbot(path, "KokBot");
+        for (String description : new String[]{"alpha", "beta", "gamma", "delta"}) {
+            kokbot.getResponse("todo " + description);
+        }
+        Files.write(path, "T, ,beta\nT,X,gamma\nT, ,walk dog\nT, ,delta\n".getBytes(StandardCharsets.UTF_8));
+
+        String response = kokbot.getResponse("list");
+        assertTrue(response.startsWith(" The data file was changed outside Kokbot: 1 tasks added, 1 removed, "
+                + "1 changed."), response);
+        List<String> lines = Files.readAllLines(path);
+        List<String> records = new ArrayList<String>();
+        for (String line : lines.subList(lines.size() - 4, lines.size())) {
+            records.add(line.substring(0, line.indexOf('\t')));
+        }
+        assertEquals(List.of("T, ,beta", "T,X,gamma", "T, ,walk dog", "T, ,delta"), records);
+    }
+}
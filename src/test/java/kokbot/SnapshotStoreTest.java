@@ -0,0 +1,87 @@
+import kokbot.DukeException;
+import kokbot.SnapshotStore;
+import kokbot.Storage;
+import kokbot.task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String[] todos(int count) {
+        String[] records = new String[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = "T, ,read book " + i;
+        }
+        return records;
+    }
+
+    @Test
+    public void takeSnapshotIfDue_manySaves_keepsNewestCompressed() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        SnapshotStore snapshots = new SnapshotStore(path, tempDir.resolve("snapshots"), 3, 0);
+        Storage storage = new Storage(path, snapshots);
+        for (int i = 1; i <= 5; i++) {
+            storage.updateFile(todos(100 * i));
+            SnapshotStore.Snapshot snapshot = storage.takeSnapshotIfDue();
+            assertNotNull(snapshot);
+            assertTrue(snapshot.getCompressedBytes() * 2 < snapshot.getOriginalBytes());
+        }
+        assertNull(storage.takeSnapshotIfDue());
+
+        List<Path> kept = snapshots.getSnapshots();
+        assertEquals(3, kept.size());
+        assertEquals(Files.size(path), SnapshotStore.read(kept.get(0)).length);
+    }
+
+    @Test
+    public void load_missingFile_restoredFromNewestValidSnapshot() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        SnapshotStore snapshots = new SnapshotStore(path, tempDir.resolve("snapshots"), 5, 0);
+        Storage storage = new Storage(path, snapshots);
+        storage.updateFile(todos(10));
+        storage.takeSnapshotIfDue();
+        storage.updateFile(todos(20));
+        Path newest = storage.takeSnapshotIfDue().getPath();
+        // a torn snapshot fails gzip's trailer check, so the one before it is restored
+        byte[] bytes = Files.readAllBytes(newest);
+        Files.write(newest, Arrays.copyOf(bytes, bytes.length / 2));
+        Files.delete(path);
+
+        Storage restarted = new Storage(path, snapshots);
+        List<Task> tasks = restarted.load();
+        assertEquals(10, tasks.size());
+        assertNotNull(restarted.getRestoredSnapshot());
+        assertEquals(1, restarted.getDamagedSnapshots().size());
+        assertTrue(restarted.getDamagedSnapshots().get(0).startsWith(newest.getFileName().toString()));
+        assertEquals(10, new Storage(path, snapshots).load().size());
+    }
+
+    @Test
+    public void load_unreadableFile_keptAsideAndRestored() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        SnapshotStore snapshots = new SnapshotStore(path, tempDir.resolve("snapshots"), 5, 0);
+        Storage storage = new Storage(path, snapshots);
+        storage.updateFile(todos(10));
+        storage.takeSnapshotIfDue();
+        Files.write(path, "garbage\tffffffff\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(10, storage.load().size());
+        assertTrue(storage.getSkippedLines().isEmpty());
+        assertTrue(Files.exists(tempDir.resolve("kokbot.txt.corrupt")));
+    }
+}
@@ -0,0 +1,151 @@
+import kokbot.DukeException;
+import kokbot.FileDiff;
+import kokbot.Storage;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String[] toFileStrings(List<Task> tasks) {
+        String[] fileStrings = new String[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            fileStrings[i] = tasks.get(i).toFileString();
+        }
+        return fileStrings;
+    }
+
+    @Test
+    public void load_arbitraryDescriptions_roundTrips() throws DukeException {
+        String alphabet = "ab ,\\\"\t\r\n\u00e9nX,,\\n\\,";
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder description = new StringBuilder();
+            int length = 1 + random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                description.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            Task task = i % 3 == 0
+                    ? new Todo(description.toString())
+                    : i % 3 == 1
+                    ? new Deadline(description.toString(), LocalDateTime.parse("2026-11-02T18:00"))
+                    : new Event(description.toString(), LocalDateTime.parse("2026-11-02T18:00"),
+                            LocalDateTime.parse("2026-11-03T18:00"));
+            if (i % 2 == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        Storage storage = new Storage(tempDir.resolve("kokbot.txt"));
+        storage.updateFile(toFileStrings(tasks));
+
+        List<Task> loaded = storage.load();
+        assertEquals(tasks.size(), loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getDescription(), loaded.get(i).getDescription());
+            assertEquals(tasks.get(i).toFileString(), loaded.get(i).toFileString());
+        }
+        assertTrue(storage.getSkippedLines().isEmpty());
+    }
+
+    @Test
+    public void load_corruptLine_skippedAndReported() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Storage storage = new Storage(path);
+        storage.updateFile(new String[]{"T, ,read book", "T,X,buy milk", "D, ,essay,2026-11-02T18:00"});
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Files.write(path, content.replace("buy milk", "buy silk").getBytes(StandardCharsets.UTF_8));
+
+        List<Task> loaded = storage.load();
+        assertEquals(2, loaded.size());
+        assertEquals("essay", loaded.get(1).getDescription());
+        assertEquals(1, storage.getSkippedLines().size());
+        assertEquals("line 2: checksum mismatch", storage.getSkippedLines().get(0));
+    }
+
+    @Test
+    public void load_linesWithoutChecksums_loaded() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Files.write(path, "T, ,read book\nE,X,camp,2026-12-01T09:00,2026-12-03T17:00\nQ,oops\n"
+                .getBytes(StandardCharsets.UTF_8));
+        Storage storage = new Storage(path);
+
+        List<Task> loaded = storage.load();
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(1).isDone());
+        assertEquals("line 3: unknown task type \"Q\"", storage.getSkippedLines().get(0));
+    }
+
+    @Test
+    public void diff_externalEdits_onlyChangedRecordsReturned() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Storage storage = new Storage(path);
+        String[] fileStrings = {"T, ,read book", "T, ,buy milk", "D, ,essay,2026-11-02T18:00"};
+        storage.updateFile(fileStrings);
+        assertFalse(storage.hasExternalChanges());
+
+        Files.write(path, "T, ,read book\nT,X,buy milk\nD, ,essay,2026-11-02T18:00\n"
+                .getBytes(StandardCharsets.UTF_8));
+        assertTrue(storage.hasExternalChanges());
+        FileDiff diff = storage.diff(fileStrings);
+        assertEquals(List.of(1), diff.getStaleIndexes());
+        assertTrue(diff.getEditedTasks().get(1).isDone());
+        assertTrue(diff.getRemovedIndexes().isEmpty());
+        assertFalse(storage.hasExternalChanges());
+
+        Files.write(path, "T, ,read book\nT, ,buy milk\nD, ,essay,2026-11-02T18:00\nT, ,walk dog\n"
+                .getBytes(StandardCharsets.UTF_8));
+        diff = storage.diff(fileStrings);
+        assertTrue(diff.getStaleIndexes().isEmpty());
+        assertEquals("walk dog", diff.getNewTasks().get(0).getDescription());
+    }
+
+    @Test
+    public void diff_removedAndAppended_notPairedAsEdit() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Storage storage = new Storage(path);
+        String[] fileStrings = {"T, ,alpha", "T, ,beta", "T, ,gamma"};
+        storage.updateFile(fileStrings);
+
+        Files.write(path, "T, ,beta\nT, ,gamma\nT, ,delta\n".getBytes(StandardCharsets.UTF_8));
+        FileDiff diff = storage.diff(fileStrings);
+        assertTrue(diff.getEditedTasks().isEmpty());
+        assertEquals(List.of(0), diff.getRemovedIndexes());
+        assertEquals("delta", diff.getInsertedTasks().get(3).get(0).getDescription());
+    }
+
+    @Test
+    public void diff_earlierLineDeletedAndLaterMarked_alignedOnUnchangedRecords() throws DukeException, IOException {
+        Path path = tempDir.resolve("kokbot.txt");
+        Storage storage = new Storage(path);
+        String[] fileStrings = {"T, ,alpha", "T, ,beta", "T, ,gamma", "T, ,delta"};
+        storage.updateFile(fileStrings);
+
+        Files.write(path, "T, ,beta\nT,X,gamma\nT, ,walk dog\nT, ,delta\n".getBytes(StandardCharsets.UTF_8));
+        FileDiff diff = storage.diff(fileStrings);
+        assertEquals(List.of(0), diff.getRemovedIndexes());
+        assertEquals(1, diff.getEditedTasks().size());
+        assertTrue(diff.getEditedTasks().get(2).isDone());
+        assertEquals("walk dog", diff.getInsertedTasks().get(3).get(0).getDescription());
+    }
+}
@@ -0,0 +1,59 @@
+import kokbot.DukeException;
+import kokbot.TaskCounters;
+import kokbot.TaskList;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.Todo;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskCountersTest {
+
+    private static final LocalDateTime START = LocalDateTime.parse("2026-10-01T09:00");
+
+    @Test
+    public void getCount_addMarkDelete_keptUpToDate() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Todo("return book"));
+        tasks.addTask(new Event("camp", START, START.plusDays(2)));
+        tasks.markTaskAsDone(1);
+        TaskCounters counters = tasks.getCounters();
+        assertEquals(1, counters.getCount("T", false));
+        assertEquals(1, counters.getCount("T", true));
+        assertEquals(1, counters.getCount("E", false));
+        assertEquals(0, counters.getCount("D", false));
+
+        tasks.deleteTask(0);
+        tasks.markTaskAsUndone(0);
+        assertEquals(1, counters.getCount("T", false));
+        assertEquals(0, counters.getCount("T", true));
+        assertEquals(2, counters.getUndoneCount());
+        assertEquals(0, counters.getDoneCount());
+    }
+
+    @Test
+    public void getOverdueCount_movingClock_countsUndoneDeadlinesFallenDue() throws DukeException {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 10; i++) {
+            tasks.addTask(new Deadline("report " + i, START.plusDays(i)));
+        }
+        tasks.addTask(new RecurringDeadline("timesheet", START, new Recurrence(Recurrence.Frequency.WEEKLY, 4)));
+        TaskCounters counters = tasks.getCounters();
+        assertEquals(0, counters.getOverdueCount(START));
+        assertEquals(6, counters.getOverdueCount(START.plusDays(5)));
+
+        // the first occurrence of the series being done moves it to the week after
+        tasks.markOccurrence(10, 0, true);
+        tasks.markTaskAsDone(0);
+        tasks.addTask(new Deadline("late report", START.minusDays(1)));
+        assertEquals(5, counters.getOverdueCount(START.plusDays(5)));
+        assertEquals(9, counters.getOverdueCount(START.plusDays(8)));
+        assertEquals(1, counters.getOverdueCount(START.plusDays(1)));
+    }
+}
@@ -0,0 +1,68 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskListParallelTest {
+
+    private final int originalThreshold = TaskList.getParallelThreshold();
+
+    @AfterEach
+    public void restoreThreshold() {
+        TaskList.setParallelThreshold(originalThreshold);
+    }
+
+    private TaskList createTaskList(int size) {
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        LocalDateTime start = LocalDateTime.parse("2026-01-01T09:00");
+        for (int i = 0; i < size; i++) {
+            // few distinct descriptions and dates so that sorts have many ties to keep stable
+            switch (i % 3) {
+            case 0:
+                tasks.add(new Todo("read chapter " + (i % 50)));
+                break;
+            case 1:
+                tasks.add(new Deadline("submit report " + (i % 40), start.plusDays(i % 30)));
+                break;
+            default:
+                tasks.add(new Event("meeting " + (i % 20), start.plusHours(i % 70), start.plusHours(i % 70 + 1)));
+                break;
+            }
+            if (i % 7 == 0) {
+                tasks.get(i).markAsDone();
+            }
+        }
+        return new TaskList(tasks);
+    }
+
+    @Test
+    public void getTaskStrings_parallelPath_identicalToSequential() throws DukeException {
+        TaskList taskList = createTaskList(20000);
+        for (String sortBy : new String[]{"", "bytype", "bydate", "bydesc"}) {
+            TaskList.setParallelThreshold(Integer.MAX_VALUE);
+            String[] sequential = taskList.getTaskStrings(sortBy);
+            TaskList.setParallelThreshold(0);
+            String[] parallel = taskList.getTaskStrings(sortBy);
+            assertArrayEquals(sequential, parallel);
+        }
+    }
+
+    @Test
+    public void getMatchingTasks_parallelPath_identicalToSequential() {
+        TaskList taskList = createTaskList(20000);
+        TaskList.setParallelThreshold(Integer.MAX_VALUE);
+        ArrayList<String> sequential = taskList.getMatchingTasks("report 1");
+        TaskList.setParallelThreshold(0);
+        ArrayList<String> parallel = taskList.getMatchingTasks("report 1");
+        assertEquals(sequential, parallel);
+    }
+}
@@ -0,0 +1,81 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.task.Deadline;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskListTest {
+
+    private TaskList createTaskList() {
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        LocalDateTime start = LocalDateTime.parse("2026-01-01T09:00");
+        for (int i = 0; i < 500; i++) {
+            if (i % 5 == 0) {
+                tasks.add(new Todo("read chapter " + (i % 13)));
+            } else {
+                tasks.add(new Deadline("submit report " + (i % 17), start.plusDays(i % 23)));
+            }
+        }
+        tasks.add(new RecurringDeadline("weekly sync", start, new Recurrence(Recurrence.Frequency.WEEKLY, 8)));
+        return new TaskList(tasks);
+    }
+
+    @Test
+    public void getTaskStrings_limit_matchesPrefixOfFullSort() throws DukeException {
+        TaskList taskList = createTaskList();
+        for (String sortBy : new String[]{"", "bytype", "bydate", "bydesc"}) {
+            String[] full = taskList.getTaskStrings(sortBy);
+            for (int limit : new int[]{1, 20, 137, 10000}) {
+                assertArrayEquals(Arrays.copyOf(full, Math.min(limit, full.length)),
+                        taskList.getTaskStrings(sortBy, limit));
+            }
+        }
+    }
+
+    @Test
+    public void findDuplicate_sameTaskDifferentCaseAndSpacing_foundAndMerged() {
+        TaskList taskList = createTaskList();
+        Todo duplicate = new Todo("Read  Chapter 3 #book");
+        duplicate.extractLabels();
+        assertEquals(55, taskList.findDuplicate(duplicate));
+        assertEquals(-1, taskList.findDuplicate(new Todo("read chapter 13")));
+
+        taskList.mergeDuplicate(55, duplicate);
+        assertEquals("T, ,read chapter 3,#book", taskList.getFileStrings()[55]);
+        assertEquals(55, taskList.findDuplicate(new Todo("read chapter 3")));
+    }
+
+    @Test
+    public void removeDuplicates_repeatedTasks_keepsFirstOfEach() {
+        TaskList taskList = createTaskList();
+        String[] distinct = new LinkedHashSet<String>(Arrays.asList(taskList.getFileStrings())).toArray(new String[0]);
+        assertEquals(taskList.getSize() - distinct.length, taskList.removeDuplicates());
+        assertArrayEquals(distinct, taskList.getFileStrings());
+        assertEquals(0, taskList.removeDuplicates());
+    }
+
+    @Test
+    public void insertTasks_middle_laterTasksStillFoundByPosition() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new Todo("alpha"));
+        taskList.addTask(new Todo("beta"));
+        taskList.addTask(new Todo("gamma"));
+        taskList.insertTasks(1, List.of(new Todo("delta"), new Todo("epsilon")));
+
+        assertArrayEquals(new String[]{"T, ,alpha", "T, ,delta", "T, ,epsilon", "T, ,beta", "T, ,gamma"},
+                taskList.getFileStrings());
+        assertEquals(4, taskList.findDuplicate(new Todo("gamma")));
+        assertEquals(1, taskList.findDuplicate(new Todo("delta")));
+    }
+}
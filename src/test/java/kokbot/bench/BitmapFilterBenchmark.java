@@ -0,0 +1,73 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.query.Query;
+import kokbot.query.QueryParser;
+import kokbot.query.QueryPlan;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+/**
+ * Compares a filter on done flag, tag and priority answered by intersecting bitmaps with the same filter answered
+ * by scanning every task, over increasing list sizes.
+ * Run with {@code ./gradlew benchmark -Pbench=BitmapFilterBenchmark}.
+ */
+public class BitmapFilterBenchmark {
+
+    private static final int[] SIZES = {10000, 100000, 1000000};
+
+    private static final String[] TAGS = {"work", "home", "errand", "study", "health", "finance", "travel", "social"};
+
+    private static final String FILTER = "done:no #work priority:>=high";
+
+    public static void main(String[] args) throws DukeException {
+        Query query = QueryParser.parse(FILTER);
+        System.out.printf("filter %s%n", FILTER);
+        System.out.printf("%-8s %8s %14s %14s %s%n", "size", "matches", "bitmap", "full scan", "plan");
+        for (int size : SIZES) {
+            TaskList taskList = createTaskList(size);
+            QueryPlan plan = taskList.planQuery(query);
+            QueryPlan scan = new QueryPlan(query, QueryPlan.AccessPath.FULL_SCAN, size);
+            int matches = taskList.getFilteredTaskStrings(plan).length;
+            System.out.printf("%-8d %8d %11d us %11d us %s%n", size, matches,
+                    time(taskList, query, null, size), time(taskList, query, scan, size), plan.describe());
+        }
+    }
+
+    private static TaskList createTaskList(int size) {
+        Random random = new Random(42);
+        ArrayList<Task> tasks = new ArrayList<Task>(size);
+        for (int i = 0; i < size; i++) {
+            Todo todo = new Todo("task " + i + " #" + TAGS[random.nextInt(TAGS.length)]
+                    + " !" + new String[]{"none", "low", "medium", "high"}[random.nextInt(4)]);
+            todo.extractLabels();
+            if (random.nextInt(3) == 0) {
+                todo.markAsDone();
+            }
+            tasks.add(todo);
+        }
+        return new TaskList(tasks);
+    }
+
+    /**
+     * Returns the median time in microseconds of planning and carrying out the filter, or of carrying out the
+     * given plan if there is one
+     */
+    private static long time(TaskList taskList, Query query, QueryPlan fixedPlan, int size) {
+        int runs = Math.max(5, 2000000 / size);
+        long[] times = new long[runs];
+        for (int i = -runs; i < runs; i++) {
+            long start = System.nanoTime();
+            QueryPlan plan = fixedPlan == null ? taskList.planQuery(query) : fixedPlan;
+            taskList.getFilteredTaskStrings(plan);
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(times);
+        return times[runs / 2] / 1000;
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.Random;
+
+import kokbot.Completer;
+import kokbot.TaskList;
+import kokbot.task.Todo;
+
+/**
+ * Measures the time taken to complete partly typed descriptions over a million task descriptions,
+ * and the time taken to add and remove a task with its description.
+ * Run with {@code ./gradlew benchmark -Pbench=CompletionBenchmark}.
+ */
+public class CompletionBenchmark {
+
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int ROUNDS = 10000;
+    private static final String[] WORDS = {"read", "submit", "review", "buy", "call", "plan", "attend", "return",
+        "prepare", "book", "report", "slides", "groceries", "dentist", "meeting", "assignment", "tutorial"};
+    private static final String[] INPUTS = {"t", "todo r", "todo review tut", "deadline submit report 4",
+        "find meeting dent", "event plan"};
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        TaskList taskList = new TaskList();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            taskList.addTask(new Todo(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(100000)));
+        }
+        System.out.printf("%d tasks added in %d ms, %d distinct descriptions%n", TASK_COUNT,
+                (System.nanoTime() - startTime) / 1_000_000, taskList.getDescriptions().getSize());
+
+        Completer completer = new Completer();
+        completer.setDescriptions(taskList.getDescriptions());
+        for (String input : INPUTS) {
+            long bestNanos = Long.MAX_VALUE;
+            long totalNanos = 0;
+            int count = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long roundStart = System.nanoTime();
+                count = completer.complete(input, Completer.DEFAULT_LIMIT).size();
+                long nanos = System.nanoTime() - roundStart;
+                bestNanos = Math.min(bestNanos, nanos);
+                totalNanos += nanos;
+            }
+            System.out.printf("%-26s %2d suggestions, best %6.1f us, mean %6.1f us%n", "\"" + input + "\"", count,
+                    bestNanos / 1e3, totalNanos / 1e3 / ROUNDS);
+        }
+
+        startTime = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            taskList.addTask(new Todo("review tutorial " + round));
+            taskList.deleteTask(taskList.getSize() - 1);
+        }
+        System.out.printf("add and delete: mean %.1f us%n", (System.nanoTime() - startTime) / 1e3 / ROUNDS);
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import kokbot.BkTree;
+import kokbot.FuzzyIndex;
+import kokbot.TaskList;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+/**
+ * Compares fuzzy find through the BK-tree token index with computing the edit distance
+ * against every description token, on a list of a million tasks.
+ * Run with {@code ./gradlew benchmark -Pbench=FuzzyFindBenchmark}.
+ */
+public class FuzzyFindBenchmark {
+
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final String[] WORDS = {"read", "submit", "review", "buy", "call", "plan", "attend", "return",
+        "prepare", "book", "report", "slides", "groceries", "dentist", "meeting", "assignment", "tutorial",
+        "lecture", "notes", "project", "proposal", "library", "flight", "team", "weekly", "budget", "draft",
+        "interview", "presentation", "invoice", "quiz", "exam", "revision", "laundry", "birthday", "gift"};
+    private static final String[] QUERIES = {"meetng", "prsentation", "libary book", "dentst", "quizz"};
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        TaskList taskList = new TaskList();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextInt(4) == 0 ? " week" + random.nextInt(5000) : "");
+            taskList.addTask(new Todo(description));
+        }
+        System.out.printf("%d tasks added and indexed in %d ms%n", TASK_COUNT,
+                (System.nanoTime() - startTime) / 1_000_000);
+
+        for (String query : QUERIES) {
+            long indexNanos = Long.MAX_VALUE;
+            int found = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long roundStart = System.nanoTime();
+                found = taskList.getFuzzyMatchingTasks(query).size();
+                indexNanos = Math.min(indexNanos, System.nanoTime() - roundStart);
+            }
+            long scanStart = System.nanoTime();
+            int scanned = scan(taskList, query);
+            long scanNanos = System.nanoTime() - scanStart;
+            System.out.printf("%-14s index %8.2f ms (top %d)   scan %8.1f ms (%d tasks within distance)%n",
+                    query, indexNanos / 1e6, found, scanNanos / 1e6, scanned);
+        }
+    }
+
+    /**
+     * Counts the tasks within distance of the first keyword token by computing the distance to every token
+     */
+    private static int scan(TaskList taskList, String query) {
+        String keywordToken = FuzzyIndex.tokenize(query).get(0);
+        int maxDistance = FuzzyIndex.getMaxDistance(keywordToken);
+        int count = 0;
+        for (int i = 0; i < taskList.getSize(); i++) {
+            Task task = taskList.getTask(i);
+            for (String token : FuzzyIndex.tokenize(task.getDescription())) {
+                if (BkTree.getDistance(keywordToken, token) <= maxDistance) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+}
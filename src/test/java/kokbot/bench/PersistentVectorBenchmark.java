@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import kokbot.PersistentVector;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+/**
+ * Compares the persistent vector behind TaskList with the ArrayList it replaced, for adding tasks,
+ * deleting tasks at random positions, rendering the whole list and taking a snapshot which later
+ * changes do not affect.
+ * Run with {@code ./gradlew benchmark -Pbench=PersistentVectorBenchmark}.
+ */
+public class PersistentVectorBenchmark {
+
+    private static final int[] SIZES = {10000, 100000, 1000000};
+    private static final int DELETES = 10000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.printf("%-9s %-10s %12s %12s%n", "size", "operation", "ArrayList", "persistent");
+        for (int size : SIZES) {
+            Task[] tasks = new Task[size];
+            for (int i = 0; i < size; i++) {
+                tasks[i] = new Todo("read chapter " + i + " of the textbook");
+            }
+            long[] arrayList = new long[4];
+            long[] persistent = new long[4];
+            Arrays.fill(arrayList, Long.MAX_VALUE);
+            Arrays.fill(persistent, Long.MAX_VALUE);
+            for (int round = 0; round < ROUNDS; round++) {
+                measureArrayList(tasks, arrayList);
+                measurePersistent(tasks, persistent);
+            }
+            String[] operations = {"add", "delete", "list", "snapshot"};
+            for (int i = 0; i < operations.length; i++) {
+                System.out.printf("%-9d %-10s %9.2f ms %9.2f ms%n", size, operations[i], arrayList[i] / 1e6,
+                        persistent[i] / 1e6);
+            }
+        }
+        System.out.printf("add: all tasks one at a time; delete: %d at random positions; list: format every task; "
+                + "snapshot: a copy which later changes leave alone%n", DELETES);
+    }
+
+    private static void measureArrayList(Task[] tasks, long[] best) {
+        long startTime = System.nanoTime();
+        ArrayList<Task> list = new ArrayList<Task>();
+        for (Task task : tasks) {
+            list.add(task);
+        }
+        best[0] = Math.min(best[0], System.nanoTime() - startTime);
+
+        startTime = System.nanoTime();
+        ArrayList<Task> snapshot = new ArrayList<Task>(list);
+        best[3] = Math.min(best[3], System.nanoTime() - startTime);
+
+        best[2] = Math.min(best[2], render(list));
+
+        Random random = new Random(1);
+        startTime = System.nanoTime();
+        for (int i = 0; i < DELETES; i++) {
+            list.remove(random.nextInt(list.size()));
+        }
+        best[1] = Math.min(best[1], System.nanoTime() - startTime);
+        assert snapshot.size() == tasks.length;
+    }
+
+    private static void measurePersistent(Task[] tasks, long[] best) {
+        long startTime = System.nanoTime();
+        PersistentVector<Task> vector = PersistentVector.empty();
+        for (Task task : tasks) {
+            vector = vector.plus(task);
+        }
+        best[0] = Math.min(best[0], System.nanoTime() - startTime);
+
+        startTime = System.nanoTime();
+        PersistentVector<Task> snapshot = vector;
+        best[3] = Math.min(best[3], System.nanoTime() - startTime);
+
+        best[2] = Math.min(best[2], render(vector));
+
+        Random random = new Random(1);
+        startTime = System.nanoTime();
+        for (int i = 0; i < DELETES; i++) {
+            vector = vector.minus(random.nextInt(vector.size()));
+        }
+        best[1] = Math.min(best[1], System.nanoTime() - startTime);
+        assert snapshot.size() == tasks.length;
+    }
+
+    private static long render(List<Task> list) {
+        long startTime = System.nanoTime();
+        String[] taskStrings = new String[list.size()];
+        int i = 0;
+        for (Task task : list) {
+            taskStrings[i] = (i + 1) + ". " + task;
+            i++;
+        }
+        return System.nanoTime() - startTime;
+    }
+}
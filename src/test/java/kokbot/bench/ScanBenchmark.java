@@ -0,0 +1,91 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.task.Deadline;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+/**
+ * Compares the sequential and parallel scan paths of TaskList over increasing list sizes,
+ * to find the size from which the parallel path pays off.
+ * Run with {@code ./gradlew benchmark -Pbench=ScanBenchmark}.
+ */
+public class ScanBenchmark {
+
+    private static final int[] SIZES = {1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000};
+
+    public static void main(String[] args) throws DukeException {
+        int configuredThreshold = TaskList.getParallelThreshold();
+        System.out.printf("%d processors%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %-10s %12s %12s%n", "size", "operation", "sequential", "parallel");
+        boolean[] isFindFaster = new boolean[SIZES.length];
+        boolean[] isListFaster = new boolean[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            int size = SIZES[i];
+            TaskList taskList = createTaskList(size);
+            long findSequential = time(taskList, size, Integer.MAX_VALUE, true);
+            long findParallel = time(taskList, size, 0, true);
+            long listSequential = time(taskList, size, Integer.MAX_VALUE, false);
+            long listParallel = time(taskList, size, 0, false);
+            System.out.printf("%-8d %-10s %10d us %10d us%n", size, "find", findSequential, findParallel);
+            System.out.printf("%-8d %-10s %10d us %10d us%n", size, "list", listSequential, listParallel);
+            isFindFaster[i] = findParallel < findSequential;
+            isListFaster[i] = listParallel < listSequential;
+        }
+        System.out.printf("Parallel path wins from %s tasks for find and from %s tasks for list bydesc "
+                + "(configured threshold %d, set with -Dkokbot.parallel.threshold)%n",
+                getCrossover(isFindFaster), getCrossover(isListFaster), configuredThreshold);
+    }
+
+    /**
+     * Returns the smallest size from which the parallel path wins at every larger size
+     */
+    private static String getCrossover(boolean[] isParallelFaster) {
+        int crossover = SIZES.length;
+        while (crossover > 0 && isParallelFaster[crossover - 1]) {
+            crossover--;
+        }
+        return crossover == SIZES.length ? "no measured" : String.valueOf(SIZES[crossover]);
+    }
+
+    private static TaskList createTaskList(int size) {
+        ArrayList<Task> tasks = new ArrayList<Task>(size);
+        LocalDateTime start = LocalDateTime.parse("2026-01-01T09:00");
+        for (int i = 0; i < size; i++) {
+            tasks.add(i % 2 == 0
+                    ? new Todo("read chapter " + i)
+                    : new Deadline("submit report " + i, start.plusMinutes(i)));
+        }
+        return new TaskList(tasks);
+    }
+
+    /**
+     * Returns the median time in microseconds of a find or sorted list at the given threshold
+     */
+    private static long time(TaskList taskList, int size, int threshold, boolean isFind) throws DukeException {
+        TaskList.setParallelThreshold(threshold);
+        int runs = Math.max(5, 2000000 / size);
+        long[] times = new long[runs];
+        for (int warmup = 0; warmup < runs; warmup++) {
+            run(taskList, isFind);
+        }
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            run(taskList, isFind);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[runs / 2] / 1000;
+    }
+
+    private static void run(TaskList taskList, boolean isFind) throws DukeException {
+        if (isFind) {
+            taskList.getMatchingTasks("report 7");
+        } else {
+            taskList.getTaskStrings("bydesc");
+        }
+    }
+}
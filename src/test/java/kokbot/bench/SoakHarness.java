@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import kokbot.DukeException;
+import kokbot.Kokbot;
+import kokbot.Storage;
+import kokbot.metrics.LatencyHistogram;
+import kokbot.task.Task;
+import kokbot.trace.TraceEntry;
+import kokbot.trace.TraceRecorder;
+
+/**
+ * Drives Kokbot.getResponse with a long stream of commands and reports throughput, latency percentiles,
+ * heap growth and bytes written. It either generates a mixed workload for a fixed duration, optionally
+ * recording it to a trace, or replays a recorded trace and checks that every response is the same.
+ * Run with {@code ./gradlew benchmark -Pbench=SoakHarness -PbenchArgs="soak 60 50000"} or
+ * {@code ./gradlew benchmark -Pbench=SoakHarness -PbenchArgs="replay data/session.trace"}.
+ *
+ * <pre>
+ * soak [seconds=30] [seedTasks=10000] [mix=Workload.DEFAULT_MIX] [seed=42] [trace]
+ * replay trace [paced]
+ * </pre>
+ */
+public class SoakHarness {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws DukeException, IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("replay")) {
+            replay(Paths.get(args[1]), args.length > 2 && args[2].equals("paced"));
+            return;
+        }
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int seedTasks = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        String mix = args.length > 3 ? args[3] : Workload.DEFAULT_MIX;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        String trace = args.length > 5 ? args[5] : "";
+        soak(seconds, seedTasks, mix, seed, trace);
+    }
+
+    /**
+     * Runs a generated workload against a freshly seeded data file for a fixed duration
+     */
+    private static void soak(int seconds, int seedTasks, String mix, long seed, String trace)
+            throws DukeException, IOException {
+        Path dataPath = Files.createTempFile("kokbot-soak", ".txt");
+        try {
+            Workload workload = new Workload(mix, seed, seedTasks);
+            Task[] seedTaskArray = workload.createSeedTasks(seedTasks);
+            String[] fileStrings = new String[seedTasks];
+            for (int i = 0; i < seedTasks; i++) {
+                fileStrings[i] = seedTaskArray[i].toFileString();
+            }
+            new Storage(dataPath).updateFile(fileStrings);
+            if (!trace.isEmpty()) {
+                System.setProperty("kokbot.trace", trace);
+            }
+            Kokbot kokbot = new Kokbot(dataPath, "KokBot");
+            System.out.printf("soak: %d s, %d seeded tasks (%d bytes), mix %s, seed %d%n", seconds, seedTasks,
+                    Files.size(dataPath), mix, seed);
+
+            LatencyHistogram latencies = new LatencyHistogram();
+            long heapBefore = getUsedHeapAfterGc();
+            long startTime = System.nanoTime();
+            long endTime = startTime + seconds * 1_000_000_000L;
+            long nextReport = startTime + 10_000_000_000L;
+            long now = startTime;
+            while (now < endTime) {
+                String input = workload.next();
+                kokbot.getResponse(input);
+                long finishedTime = System.nanoTime();
+                latencies.record(finishedTime - now);
+                now = finishedTime;
+                if (now >= nextReport) {
+                    System.out.printf("  %3d s: %d commands, p99 %.3f ms%n", (now - startTime) / 1_000_000_000L,
+                            latencies.getCount(), latencies.getPercentile(99) / 1e6);
+                    nextReport += 10_000_000_000L;
+                }
+            }
+            kokbot.stopRecording();
+            report(kokbot, latencies, now - startTime, heapBefore);
+            System.out.println("commands by kind: " + workload.getCounts());
+        } finally {
+            Files.deleteIfExists(dataPath);
+        }
+    }
+
+    /**
+     * Replays a recorded trace against a copy of the data file it started from
+     */
+    private static void replay(Path tracePath, boolean isPaced) throws DukeException, IOException,
+            InterruptedException {
+        List<TraceEntry> entries = TraceEntry.readAll(tracePath);
+        Path dataPath = Files.createTempFile("kokbot-replay", ".txt");
+        try {
+            Path basePath = TraceRecorder.getBasePath(tracePath);
+            if (Files.exists(basePath)) {
+                Files.copy(basePath, dataPath, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(dataPath);
+            }
+            Kokbot kokbot = new Kokbot(dataPath, "KokBot");
+            System.out.printf("replay: %d commands from %s%s%n", entries.size(), tracePath,
+                    isPaced ? ", paced as recorded" : "");
+
+            LatencyHistogram latencies = new LatencyHistogram();
+            long heapBefore = getUsedHeapAfterGc();
+            int mismatchCount = 0;
+            long startTime = System.nanoTime();
+            for (TraceEntry entry : entries) {
+                if (isPaced) {
+                    long waitMillis = entry.getOffsetMillis() - (System.nanoTime() - startTime) / 1_000_000;
+                    if (waitMillis > 0) {
+                        Thread.sleep(waitMillis);
+                    }
+                }
+                long commandStartTime = System.nanoTime();
+                String response = kokbot.getResponse(entry.getInput());
+                latencies.record(System.nanoTime() - commandStartTime);
+                if (TraceEntry.getChecksum(response) != entry.getResponseChecksum()) {
+                    if (mismatchCount < 10) {
+                        System.out.println("  response differs for: " + entry.getInput());
+                    }
+                    mismatchCount++;
+                }
+            }
+            report(kokbot, latencies, System.nanoTime() - startTime, heapBefore);
+            System.out.printf("responses differing from the trace: %d of %d%n", mismatchCount, entries.size());
+        } finally {
+            Files.deleteIfExists(dataPath);
+        }
+    }
+
+    private static void report(Kokbot kokbot, LatencyHistogram latencies, long elapsedNanos, long heapBefore) {
+        long heapAfter = getUsedHeapAfterGc();
+        System.out.printf("%d commands in %.1f s, %.0f commands/s%n", latencies.getCount(), elapsedNanos / 1e9,
+                latencies.getCount() * 1e9 / Math.max(elapsedNanos, 1));
+        System.out.printf("latency p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n",
+                latencies.getPercentile(50) / 1e6, latencies.getPercentile(99) / 1e6,
+                latencies.getPercentile(99.9) / 1e6, latencies.getMax() / 1e6);
+        System.out.printf("heap after GC %.1f MB -> %.1f MB (%+.1f MB)%n", heapBefore / 1e6, heapAfter / 1e6,
+                (heapAfter - heapBefore) / 1e6);
+        System.out.printf("%d saves, %.1f MB written%n", kokbot.getMetrics().getSaveCount(),
+                kokbot.getMetrics().getBytesWritten() / 1e6);
+    }
+
+    private static long getUsedHeapAfterGc() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
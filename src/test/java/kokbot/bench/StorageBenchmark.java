@@ -0,0 +1,101 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Scanner;
+
+import kokbot.DukeException;
+import kokbot.Storage;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+/**
+ * Compares the parsing throughput of the byte-level record reader used by Storage
+ * with the Scanner and String.split loader it replaced.
+ * Run with {@code ./gradlew benchmark -Pbench=StorageBenchmark}.
+ */
+public class StorageBenchmark {
+
+    private static final int TASK_COUNT = 200000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws DukeException, IOException {
+        Path path = Files.createTempFile("kokbot", ".txt");
+        try {
+            Storage storage = new Storage(path);
+            storage.updateFile(createFileStrings());
+            long bytes = Files.size(path);
+            System.out.printf("%d tasks, %d bytes%n", TASK_COUNT, bytes);
+
+            long splitNanos = Long.MAX_VALUE;
+            long readerNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long startTime = System.nanoTime();
+                int splitCount = loadWithSplit(path.toFile()).size();
+                splitNanos = Math.min(splitNanos, System.nanoTime() - startTime);
+
+                startTime = System.nanoTime();
+                int readerCount = storage.load().size();
+                readerNanos = Math.min(readerNanos, System.nanoTime() - startTime);
+                assert splitCount == readerCount : "Loaders should load the same number of tasks";
+            }
+            System.out.printf("%-16s %8d ms %8.1f MB/s%n", "split loader", splitNanos / 1_000_000,
+                    bytes * 1000.0 / splitNanos);
+            System.out.printf("%-16s %8d ms %8.1f MB/s%n", "record reader", readerNanos / 1_000_000,
+                    bytes * 1000.0 / readerNanos);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static String[] createFileStrings() {
+        String[] fileStrings = new String[TASK_COUNT];
+        LocalDateTime date = LocalDateTime.parse("2026-01-01T18:00");
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task;
+            if (i % 3 == 0) {
+                task = new Todo("read chapter " + i + " of the textbook");
+            } else if (i % 3 == 1) {
+                task = new Deadline("submit report " + i, date.plusHours(i));
+            } else {
+                task = new Event("attend meeting " + i, date.plusHours(i), date.plusHours(i + 2));
+            }
+            fileStrings[i] = task.toFileString();
+        }
+        return fileStrings;
+    }
+
+    /**
+     * Loads the file the way Storage did before records were escaped, ignoring checksums
+     */
+    private static ArrayList<Task> loadWithSplit(File file) throws FileNotFoundException {
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String[] parts = scanner.nextLine().split("\t")[0].split(",");
+                switch (parts[0]) {
+                case "T":
+                    tasks.add(new Todo(parts[2]));
+                    break;
+                case "D":
+                    tasks.add(new Deadline(parts[2], parts[3]));
+                    break;
+                case "E":
+                    tasks.add(new Event(parts[2], parts[3], parts[4]));
+                    break;
+                default:
+                    break;
+                }
+                if (parts[1].equals("X")) {
+                    tasks.get(tasks.size() - 1).markAsDone();
+                }
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,161 @@
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+
+/**
+ * Represents a generator of a realistic mixed stream of commands, drawn from configurable ratios.
+ * The same seed always gives the same stream, given the same number of tasks to start with.
+ */
+public class Workload {
+
+    /**
+     * Kinds of command generated
+     */
+    public enum Kind {
+        TODO, DEADLINE, EVENT, MARK, DELETE, FIND, LIST
+    }
+
+    /**
+     * Ratios used when none are given, roughly those of an interactive session
+     */
+    public static final String DEFAULT_MIX = "todo=20,deadline=15,event=10,mark=15,delete=10,find=15,list=15";
+
+    private static final String[] VERBS = {"read", "submit", "review", "buy", "call", "plan", "attend", "return",
+        "prepare", "book"};
+    private static final String[] NOUNS = {"book", "report", "slides", "groceries", "dentist", "meeting",
+        "assignment", "tutorial", "lecture notes", "project proposal", "library book", "flight"};
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+        DateTimeFormatter.ofPattern("d/M/yyyy HHmm"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+        DateTimeFormatter.ofPattern("dd-MM-yy HH"),
+        DateTimeFormatter.ofPattern("HHmm dd/MM/yyyy"),
+    };
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.parse("2026-01-01T09:00");
+
+    private final Random random;
+    private final Kind[] kinds = Kind.values();
+    private final int[] cumulativeWeights = new int[kinds.length];
+    private final Map<Kind, Long> counts = new EnumMap<Kind, Long>(Kind.class);
+    private int taskCount;
+
+    /**
+     * Constructor for Workload
+     *
+     * @param mix       Ratios of each kind of command, such as "todo=20,list=10", with kinds left out never drawn
+     * @param seed      Seed of the random stream
+     * @param taskCount Number of tasks the stream starts from
+     */
+    public Workload(String mix, long seed, int taskCount) {
+        this.random = new Random(seed);
+        this.taskCount = taskCount;
+        Map<Kind, Integer> weights = new EnumMap<Kind, Integer>(Kind.class);
+        for (String ratio : mix.split(",")) {
+            String[] parts = ratio.trim().split("=");
+            weights.put(Kind.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        int total = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            total += weights.getOrDefault(kinds[i], 0);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Workload mix has no commands: " + mix);
+        }
+    }
+
+    /**
+     * Returns the next command of the stream, only marking or deleting tasks which exist
+     *
+     * @return Input to be entered
+     */
+    public String next() {
+        Kind kind = drawKind();
+        if ((kind == Kind.MARK || kind == Kind.DELETE) && taskCount == 0) {
+            kind = Kind.TODO;
+        }
+        counts.merge(kind, 1L, Long::sum);
+        switch (kind) {
+        case TODO:
+            taskCount++;
+            return "todo " + describe();
+        case DEADLINE:
+            taskCount++;
+            return "deadline " + describe() + " /by " + formatDate(randomDate());
+        case EVENT:
+            taskCount++;
+            LocalDateTime start = randomDate();
+            return "event " + describe() + " /from " + formatDate(start)
+                    + " /to " + formatDate(start.plusHours(1 + random.nextInt(4)));
+        case MARK:
+            return (random.nextInt(4) == 0 ? "unmark " : "mark ") + (1 + random.nextInt(taskCount));
+        case DELETE:
+            taskCount--;
+            return "delete " + (1 + random.nextInt(taskCount + 1));
+        case FIND:
+            return "find " + NOUNS[random.nextInt(NOUNS.length)].split(" ")[0];
+        default:
+            return "list";
+        }
+    }
+
+    /**
+     * Returns the number of commands generated of each kind
+     *
+     * @return Counts of commands by kind
+     */
+    public Map<Kind, Long> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Creates tasks to seed a large data file with
+     *
+     * @param count Number of tasks
+     * @return Tasks of each type in turn, some of them done
+     */
+    public Task[] createSeedTasks(int count) {
+        Task[] tasks = new Task[count];
+        for (int i = 0; i < count; i++) {
+            LocalDateTime date = randomDate();
+            if (i % 3 == 0) {
+                tasks[i] = new Todo(describe());
+            } else if (i % 3 == 1) {
+                tasks[i] = new Deadline(describe(), date);
+            } else {
+                tasks[i] = new Event(describe(), date, date.plusHours(2));
+            }
+            if (random.nextInt(3) == 0) {
+                tasks[i].markAsDone();
+            }
+        }
+        return tasks;
+    }
+
+    private Kind drawKind() {
+        int draw = random.nextInt(cumulativeWeights[kinds.length - 1]);
+        int i = 0;
+        while (draw >= cumulativeWeights[i]) {
+            i++;
+        }
+        return kinds[i];
+    }
+
+    private String describe() {
+        return VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    private LocalDateTime randomDate() {
+        return FIRST_DATE.plusDays(random.nextInt(365)).withHour(8 + random.nextInt(12));
+    }
+
+    private String formatDate(LocalDateTime date) {
+        return date.format(DATE_FORMATS[random.nextInt(DATE_FORMATS.length)]);
+    }
+}
@@ -0,0 +1,74 @@
+import kokbot.Kokbot;
+import kokbot.change.TaskChange;
+import kokbot.change.TaskChangeBatch;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskChangePublisherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void getResponse_afterReset_publishesOneBatchPerCommand() throws InterruptedException {
+        Kokbot kokbot = new Kokbot(tempDir.resolve("kokbot.txt"), "KokBot");
+        kokbot.getResponse("todo read book");
+        BlockingQueue<TaskChangeBatch> received = new LinkedBlockingQueue<TaskChangeBatch>();
+        kokbot.getChangePublisher().subscribe(new Flow.Subscriber<TaskChangeBatch>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(TaskChangeBatch batch) {
+                received.add(batch);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        kokbot.publishReset();
+        kokbot.getResponse("todo return book");
+        kokbot.getResponse("mark 1");
+        kokbot.getResponse("list");
+        kokbot.getResponse("delete 2");
+
+        TaskChangeBatch reset = received.poll(5, TimeUnit.SECONDS);
+        assertTrue(reset.isReset());
+        assertEquals(1, reset.getChanges().size());
+        assertEquals("read book", reset.getChanges().get(0).getRow().getDescription());
+
+        List<TaskChange> added = received.poll(5, TimeUnit.SECONDS).getChanges();
+        assertEquals(TaskChange.Kind.ADDED, added.get(0).getKind());
+        assertEquals(1, added.get(0).getIndex());
+
+        TaskChangeBatch marked = received.poll(5, TimeUnit.SECONDS);
+        assertEquals(reset.getSequence() + 2, marked.getSequence());
+        assertEquals(TaskChange.Kind.MARKED, marked.getChanges().get(0).getKind());
+        assertTrue(marked.getChanges().get(0).getRow().isDone());
+
+        TaskChangeBatch removed = received.poll(5, TimeUnit.SECONDS);
+        assertEquals(reset.getSequence() + 3, removed.getSequence());
+        assertEquals(TaskChange.Kind.REMOVED, removed.getChanges().get(0).getKind());
+        assertEquals("return book", removed.getChanges().get(0).getRow().getDescription());
+    }
+}
@@ -0,0 +1,105 @@
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.io.TaskExporter;
+import kokbot.io.TaskImporter;
+import kokbot.io.TransferReport;
+import kokbot.task.Event;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.Todo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IcsSyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String CAMP = "BEGIN:VEVENT\r\nUID:camp\r\nDTSTAMP:20261019T080000Z\r\n"
+            + "SUMMARY:camp at the\r\n  lake\r\nDTSTART:20261201T090000\r\nDTEND:20261203T170000\r\n"
+            + "BEGIN:VALARM\r\nACTION:DISPLAY\r\nEND:VALARM\r\nEND:VEVENT\r\n";
+    private static final String REPORT = "BEGIN:VTODO\r\nUID:report\r\nSUMMARY:report\\, final\r\n"
+            + "DUE:20261102T180000\r\nCATEGORIES:work\r\nPRIORITY:1\r\nEND:VTODO\r\n";
+    private static final String MILK = "BEGIN:VTODO\r\nUID:milk\r\nSUMMARY:buy milk\r\nSTATUS:COMPLETED\r\n"
+            + "END:VTODO\r\n";
+
+    private static void writeCalendar(Path path, String... components) throws IOException {
+        String calendar = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n" + String.join("", components) + "END:VCALENDAR\r\n";
+        Files.write(path, calendar.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void importFile_changedCalendar_touchesOnlyChangedEntries() throws DukeException, IOException {
+        Path path = tempDir.resolve("calendar.ics");
+        writeCalendar(path, CAMP, REPORT, MILK);
+        TaskList tasks = new TaskList();
+        TransferReport report = new TaskImporter(tasks).importFile(path);
+        assertEquals(3, report.getAcceptedCount());
+        assertArrayEquals(new String[]{"E, ,camp at the lake,2026-12-01T09:00,2026-12-03T17:00",
+                "D, ,report\\, final,2026-11-02T18:00,#work !high", "T,X,buy milk"}, tasks.getFileStrings());
+
+        // only the DTSTAMP of camp changes, report moves, milk is removed and bread is new
+        writeCalendar(path, CAMP.replace("20261019T080000Z", "20261020T080000Z"),
+                REPORT.replace("20261102", "20261103"),
+                MILK.replace("milk", "bread").replace("STATUS:COMPLETED\r\n", ""));
+        report = new TaskImporter(tasks).importFile(path);
+        assertEquals(1, report.getAcceptedCount());
+        assertEquals(1, report.getUpdatedCount());
+        assertEquals(1, report.getRemovedCount());
+        assertEquals(1, report.getUnchangedCount());
+        assertArrayEquals(new String[]{"E, ,camp at the lake,2026-12-01T09:00,2026-12-03T17:00",
+                "D, ,report\\, final,2026-11-03T18:00,#work !high", "T, ,buy bread"}, tasks.getFileStrings());
+    }
+
+    @Test
+    public void exportFile_syncedAgain_leavesEveryTaskUnchanged() throws DukeException, IOException {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("a summary long enough to be folded over more than one line of the calendar file"));
+        tasks.addTask(new Event("camp", LocalDateTime.parse("2026-12-01T09:00"),
+                LocalDateTime.parse("2026-12-03T17:00")));
+        tasks.addTask(new RecurringDeadline("timesheet", LocalDateTime.parse("2026-11-06T17:00"),
+                Recurrence.fromFileString("WEEKLY;count=5;done=")));
+        Path path = tempDir.resolve("calendar.ics");
+        assertEquals(3, new TaskExporter(tasks).exportFile(path).getAcceptedCount());
+
+        TransferReport report = new TaskImporter(tasks).importFile(path);
+        assertEquals(0, report.getAcceptedCount());
+        assertEquals(3, report.getUnchangedCount());
+
+        // a copy has no sync state, so all of it is new
+        TaskList imported = new TaskList();
+        new TaskImporter(imported).importFile(Files.copy(path, tempDir.resolve("copy.ics")));
+        assertArrayEquals(tasks.getFileStrings(), imported.getFileStrings());
+    }
+
+    @Test
+    public void exportFile_doneEvent_importedAsDone() throws DukeException, IOException {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Event("camp", LocalDateTime.parse("2026-12-01T09:00"),
+                LocalDateTime.parse("2026-12-03T17:00")));
+        tasks.addTask(new Event("talk", LocalDateTime.parse("2026-12-04T09:00"),
+                LocalDateTime.parse("2026-12-04T10:00")));
+        tasks.markTaskAsDone(0);
+        Path path = tempDir.resolve("calendar.ics");
+        new TaskExporter(tasks).exportFile(path);
+        String calendar = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        assertFalse(calendar.contains("STATUS:COMPLETED"));
+        assertTrue(calendar.contains("X-KOKBOT-DONE:TRUE"));
+
+        TaskList imported = new TaskList();
+        new TaskImporter(imported).importFile(Files.copy(path, tempDir.resolve("copy.ics")));
+        assertArrayEquals(new String[]{"E,X,camp,2026-12-01T09:00,2026-12-03T17:00",
+                "E, ,talk,2026-12-04T09:00,2026-12-04T10:00"}, imported.getFileStrings());
+    }
+}
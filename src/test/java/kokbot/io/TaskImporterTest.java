@@ -0,0 +1,82 @@
+import kokbot.DukeException;
+import kokbot.TaskList;
+import kokbot.io.TaskExporter;
+import kokbot.io.TaskImporter;
+import kokbot.io.TransferReport;
+import kokbot.task.Deadline;
+import kokbot.task.Event;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringDeadline;
+import kokbot.task.Todo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TaskList createTasks() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("buy milk, eggs and \"fresh\" bread"));
+        Deadline deadline = new Deadline("report\nsecond line", LocalDateTime.parse("2026-11-02T18:00"));
+        deadline.markAsDone();
+        tasks.addTask(deadline);
+        tasks.addTask(new Event("camp", LocalDateTime.parse("2026-12-01T09:00"),
+                LocalDateTime.parse("2026-12-03T17:00")));
+        tasks.addTask(new RecurringDeadline("timesheet", LocalDateTime.parse("2026-11-06T17:00"),
+                Recurrence.fromFileString("WEEKLY;count=5;done=0")));
+        return tasks;
+    }
+
+    private void assertRoundTrip(String fileName) throws DukeException {
+        TaskList tasks = createTasks();
+        Path path = tempDir.resolve(fileName);
+        assertEquals(4, new TaskExporter(tasks).exportFile(path).getAcceptedCount());
+
+        TaskList imported = new TaskList();
+        TransferReport report = new TaskImporter(imported).importFile(path);
+        assertEquals(4, report.getAcceptedCount());
+        assertEquals(0, report.getRejectedCount());
+        assertArrayEquals(tasks.getFileStrings(), imported.getFileStrings());
+    }
+
+    @Test
+    public void importFile_exportedCsv_roundTrips() throws DukeException {
+        assertRoundTrip("tasks.csv");
+    }
+
+    @Test
+    public void importFile_exportedJsonLines_roundTrips() throws DukeException {
+        assertRoundTrip("tasks.jsonl");
+    }
+
+    @Test
+    public void importFile_invalidRows_rejectedWithLineNumbers() throws DukeException, IOException {
+        Path path = tempDir.resolve("tasks.csv");
+        Files.write(path, Arrays.asList(
+                "type,done,description,start,end,recurrence",
+                "T,,read book,,,",
+                "D,,essay,not a date,,",
+                "E,X,camp,2026-12-03 0900,2026-12-01 0900,",
+                "X,,unknown,,,",
+                "D,,essay,2026-11-02 1800,,"));
+        TaskList tasks = new TaskList();
+        TransferReport report = new TaskImporter(tasks).importFile(path);
+
+        assertEquals(2, report.getAcceptedCount());
+        assertEquals(3, report.getRejectedCount());
+        assertEquals(2, tasks.getSize());
+        assertEquals("line 3: due date \"not a date\" is not a valid date-time", report.getRejections().get(0));
+        assertEquals("line 4: start date is after end date", report.getRejections().get(1));
+    }
+}
@@ -0,0 +1,36 @@
+import kokbot.metrics.LatencyHistogram;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void getPercentile_noValues_zero() {
+        assertEquals(0, new LatencyHistogram().getPercentile(99));
+    }
+
+    @Test
+    public void getPercentile_uniformValues_withinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000000, histogram.getMax());
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p50 >= 5000000 && p50 <= 5000000 * 1.125, "p50 was " + p50);
+        assertTrue(p99 >= 9900000 && p99 <= 10000000, "p99 was " + p99);
+    }
+
+    @Test
+    public void getPercentile_smallValues_exact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(5);
+        assertEquals(3, histogram.getPercentile(50));
+        assertEquals(5, histogram.getPercentile(100));
+    }
+}
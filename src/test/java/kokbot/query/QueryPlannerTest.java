@@ -0,0 +1,91 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import kokbot.DukeException;
+import kokbot.TaskIndex;
+import kokbot.query.Query;
+import kokbot.query.QueryParser;
+import kokbot.query.QueryPlan;
+import kokbot.query.QueryPlanner;
+import kokbot.task.Deadline;
+import kokbot.task.Task;
+import kokbot.task.Todo;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryPlannerTest {
+
+    private TaskIndex createIndex() {
+        TaskIndex index = new TaskIndex();
+        int id = 0;
+        for (int i = 0; i < 100; i++) {
+            Task deadline = new Deadline("report " + i, LocalDateTime.parse("2026-01-01T18:00").plusDays(i));
+            deadline.setId(id++);
+            index.add(deadline);
+        }
+        for (int i = 0; i < 5; i++) {
+            Task todo = new Todo("read " + i);
+            todo.setId(id++);
+            if (i == 0) {
+                todo.markAsDone();
+            }
+            index.add(todo);
+        }
+        return index;
+    }
+
+    @Test
+    public void plan_narrowDateRange_usesDateIndex() throws DukeException {
+        Query query = QueryParser.parse("type:D before:2026-01-04 desc:\"report\"");
+        QueryPlan plan = QueryPlanner.plan(query, createIndex());
+        assertEquals(QueryPlan.AccessPath.DATE_INDEX, plan.getAccessPath());
+        assertEquals(3, plan.execute(createIndex()).size());
+    }
+
+    @Test
+    public void plan_rareType_usesTypeIndex() throws DukeException {
+        QueryPlan plan = QueryPlanner.plan(QueryParser.parse("type:todo done:no"), createIndex());
+        assertEquals(QueryPlan.AccessPath.TYPE_INDEX, plan.getAccessPath());
+        assertEquals(4, plan.execute(createIndex()).size());
+    }
+
+    @Test
+    public void plan_tagAndPriority_intersectsBitmaps() throws DukeException {
+        TaskIndex index = createIndex();
+        for (int i = 0; i < 4; i++) {
+            Task todo = new Todo("plan " + i + (i < 2 ? " #work" : " #home") + (i % 2 == 0 ? " !high" : " !low"));
+            todo.extractLabels();
+            todo.setId(200 + i);
+            if (i == 2) {
+                todo.markAsDone();
+            }
+            index.add(todo);
+        }
+        QueryPlan plan = QueryPlanner.plan(QueryParser.parse("done:no #work priority:>=medium"), index);
+        assertEquals(QueryPlan.AccessPath.BITMAP_INDEX, plan.getAccessPath());
+        List<Task> results = plan.execute(index);
+        assertEquals(1, results.size());
+        assertEquals("[T][ ] plan 0 #work !high", results.get(0).toString());
+        assertEquals(107, QueryPlanner.plan(QueryParser.parse("priority:<medium"), index).execute(index).size());
+    }
+
+    @Test
+    public void plan_doneFlag_usesDoneIndex() throws DukeException {
+        QueryPlan plan = QueryPlanner.plan(QueryParser.parse("done:yes"), createIndex());
+        assertEquals(QueryPlan.AccessPath.DONE_INDEX, plan.getAccessPath());
+        assertEquals("read 0", plan.execute(createIndex()).get(0).getDescription());
+    }
+
+    @Test
+    public void execute_regexSortLimit_matchesFullScan() throws DukeException {
+        TaskIndex index = createIndex();
+        Query query = QueryParser.parse("desc:/report [1-3]\\d$/ sort:desc limit:5");
+        List<Task> results = QueryPlanner.plan(query, index).execute(index);
+        List<String> descriptions = new ArrayList<String>();
+        for (Task task : results) {
+            descriptions.add(task.getDescription());
+        }
+        assertEquals(List.of("report 10", "report 11", "report 12", "report 13", "report 14"), descriptions);
+    }
+}
@@ -0,0 +1,136 @@
+import kokbot.replication.ReplicaMain;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs primaries and followers as separate JVMs talking over a loopback socket.
+ */
+public class ReplicationTest {
+
+    private static final long TIMEOUT_MILLIS = 20000;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Process> processes = new ArrayList<Process>();
+
+    /**
+     * Represents a Kokbot process driven through its standard input and output
+     */
+    private static class Replica {
+        private final Process process;
+        private final Writer in;
+        private final BufferedReader out;
+
+        Replica(Process process) {
+            this.process = process;
+            this.in = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+            this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String send(String input) throws IOException {
+            in.write(input + System.lineSeparator());
+            in.flush();
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = out.readLine()) != null && !line.equals(ReplicaMain.END_OF_RESPONSE)) {
+                response.append(line).append('\n');
+            }
+            return response.toString();
+        }
+
+        /**
+         * Repeats the input until the response contains the expected text
+         */
+        String awaitResponse(String input, String expected) throws IOException, InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            String response = send(input);
+            while (!response.contains(expected) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+                response = send(input);
+            }
+            return response;
+        }
+
+        void stop() throws IOException, InterruptedException {
+            send("bye");
+            process.waitFor();
+        }
+    }
+
+    private Replica start(String role, int port, Path dataFile) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "-Dkokbot.replication.role=" + role, "-Dkokbot.replication.port=" + port,
+                ReplicaMain.class.getName(), dataFile.toString())
+                .redirectErrorStream(true)
+                .start();
+        processes.add(process);
+        return new Replica(process);
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @AfterEach
+    public void stopProcesses() {
+        for (Process process : processes) {
+            process.destroyForcibly();
+        }
+    }
+
+    @Test
+    public void follower_primaryChanges_appliedAndWritesRejected() throws Exception {
+        int port = findFreePort();
+        Replica primary = start("primary", port, tempDir.resolve("primary.txt"));
+        primary.send("todo read book");
+        Replica follower = start("follower", port, tempDir.resolve("follower.txt"));
+        primary.send("deadline submit essay /by 2026-11-02 1800");
+        primary.send("mark 1");
+
+        String list = follower.awaitResponse("list", "submit essay");
+        assertTrue(list.contains("[T][X] read book"), list);
+        assertTrue(follower.send("todo sneak in").contains("read-only"));
+        assertFalse(primary.send("list").contains("sneak in"));
+    }
+
+    @Test
+    public void follower_restarted_catchesUpFromSavedOffset() throws Exception {
+        int port = findFreePort();
+        Path followerFile = tempDir.resolve("follower.txt");
+        Replica primary = start("primary", port, tempDir.resolve("primary.txt"));
+        Replica follower = start("follower", port, followerFile);
+        primary.send("todo first");
+        follower.awaitResponse("list", "first");
+        follower.stop();
+        assertTrue(Files.readAllLines(followerFile).get(0).startsWith("#replica epoch="));
+
+        primary.send("todo second");
+        primary.send("delete 1");
+        follower = start("follower", port, followerFile);
+        String list = follower.awaitResponse("list", "second");
+        assertFalse(list.contains("first"), list);
+        assertTrue(follower.awaitResponse("stats", "follower at offset 3, 0 mutations behind")
+                .contains("follower at offset 3, 0 mutations behind"));
+    }
+}
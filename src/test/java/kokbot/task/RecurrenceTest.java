@@ -0,0 +1,66 @@
+import java.time.LocalDateTime;
+
+import kokbot.DukeException;
+import kokbot.Kokbot;
+import kokbot.task.Recurrence;
+import kokbot.task.RecurringDeadline;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurrenceTest {
+
+    @Test
+    public void getOccurrenceCount_monthlyUntil_clampsToMonthEnd() {
+        LocalDateTime start = LocalDateTime.parse("2026-01-31T18:00");
+        Recurrence recurrence = new Recurrence(Recurrence.Frequency.MONTHLY, LocalDateTime.parse("2026-03-30T18:00"));
+        assertEquals(2, recurrence.getOccurrenceCount(start));
+        assertEquals(LocalDateTime.parse("2026-02-28T18:00"), recurrence.getOccurrence(start, 1));
+    }
+
+    @Test
+    public void getFirstOccurrenceFrom_weekly_skipsPastOccurrences() {
+        LocalDateTime start = LocalDateTime.parse("2026-01-01T09:00");
+        Recurrence recurrence = new Recurrence(Recurrence.Frequency.WEEKLY, 52);
+        assertEquals(0, recurrence.getFirstOccurrenceFrom(start, LocalDateTime.parse("2025-12-01T00:00")));
+        assertEquals(2, recurrence.getFirstOccurrenceFrom(start, LocalDateTime.parse("2026-01-08T09:01")));
+        assertEquals(1, recurrence.getFirstOccurrenceFrom(start, LocalDateTime.parse("2026-01-08T09:00")));
+    }
+
+    @Test
+    public void toFileString_doneOccurrences_roundTrips() {
+        Recurrence recurrence = new Recurrence(Recurrence.Frequency.DAILY, 10);
+        recurrence.markOccurrence(0, true);
+        recurrence.markOccurrence(1, true);
+        recurrence.markOccurrence(2, true);
+        recurrence.markOccurrence(7, true);
+        assertEquals("DAILY;count=10;done=0-2+7", recurrence.toFileString());
+        Recurrence parsed = Recurrence.fromFileString(recurrence.toFileString());
+        assertEquals(4, parsed.getDoneCount());
+        assertTrue(parsed.isOccurrenceDone(7));
+    }
+
+    @Test
+    public void getOccurrencesBetween_window_expandsOnlyWindow() {
+        RecurringDeadline deadline = new RecurringDeadline("report", LocalDateTime.parse("2026-01-01T18:00"),
+                new Recurrence(Recurrence.Frequency.DAILY, 1000));
+        assertEquals(3, deadline.getOccurrencesBetween(LocalDateTime.parse("2026-01-10T00:00"),
+                LocalDateTime.parse("2026-01-12T23:59")).size());
+        assertEquals("[D][ ] report (by: Jan 10 2026 6:00PM) (occurrence 10)",
+                deadline.getOccurrence(9).toString());
+        assertEquals(deadline.toRecord(), deadline.getOccurrence(9).toRecord());
+    }
+
+    @Test
+    public void createRecurringDeadline_untilPastOccurrenceLimit_rejected() throws DukeException {
+        Recurrence tooLong = Kokbot.createRecurrence("daily", "until", "2060-01-01 1800");
+        DukeException e = assertThrows(DukeException.class,
+                () -> Kokbot.createRecurringDeadline("x", "2026-01-01 1800", tooLong));
+        assertEquals("Unknown usage - a recurrence should have between 1 and 10000 occurrences.", e.getMessage());
+
+        Recurrence withinLimit = Kokbot.createRecurrence("daily", "until", "2040-01-01 1800");
+        assertEquals(5114, Kokbot.createRecurringDeadline("x", "2026-01-01 1800", withinLimit)
+                .getOccurrenceCount());
+    }
+}
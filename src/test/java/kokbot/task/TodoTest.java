@@ -1,9 +1,15 @@
 
 
+import kokbot.DukeException;
+import kokbot.Storage;
+import kokbot.task.Priority;
+import kokbot.task.Task;
 import kokbot.task.Todo;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class TodoTest {
@@ -13,6 +19,18 @@ public class TodoTest {
         Assertions.assertEquals("[T][ ] read book", new Todo("read book").toString());
     }
 
+    @Test
+    public void toRecord_labelledDescription_roundTrips() throws DukeException {
+        Todo todo = new Todo("read book #home #reading !high");
+        todo.extractLabels();
+        assertEquals("read book", todo.getDescription());
+        assertEquals("T, ,read book,#home #reading !high", todo.toRecord());
+        Task loaded = Storage.parseRecord(todo.toRecord());
+        assertEquals(List.of("home", "reading"), loaded.getTags());
+        assertEquals(Priority.HIGH, loaded.getPriority());
+        assertEquals("[T][ ] #hashtag", Storage.parseRecord("T, ,#hashtag").toString());
+    }
+
     @Test
     public void toFileString_normalInput_success() {
         assertEquals("T, ,read book", new Todo ("read book").toFileString());
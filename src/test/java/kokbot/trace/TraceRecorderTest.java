@@ -0,0 +1,38 @@
+import kokbot.DukeException;
+import kokbot.trace.TraceEntry;
+import kokbot.trace.TraceRecorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TraceRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void readAll_recordedSession_sameInputsAndChecksums() throws IOException, DukeException {
+        Path dataPath = tempDir.resolve("kokbot.txt");
+        Files.writeString(dataPath, "T,,read book");
+        Path tracePath = tempDir.resolve("session.trace");
+        try (TraceRecorder recorder = new TraceRecorder(tracePath, dataPath)) {
+            recorder.record("todo buy milk, eggs\\bread", "Got it.");
+            recorder.record("list", "1. [T][ ] read book");
+        }
+
+        List<TraceEntry> entries = TraceEntry.readAll(tracePath);
+        assertEquals(2, entries.size());
+        assertEquals("todo buy milk, eggs\\bread", entries.get(0).getInput());
+        assertEquals(TraceEntry.getChecksum("Got it."), entries.get(0).getResponseChecksum());
+        assertEquals("list", entries.get(1).getInput());
+        assertTrue(entries.get(0).getOffsetMillis() <= entries.get(1).getOffsetMillis());
+        assertEquals("T,,read book", Files.readString(TraceRecorder.getBasePath(tracePath)));
+    }
+}